@@ -1,6 +1,8 @@
 package com.sse.pages;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,9 +13,19 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 
+import com.sse.pages.binding.ElementBindings;
 import com.sse.utilities.AssertLogger;
 import com.sse.utilities.Browser;
 import com.sse.utilities.ExceptionHandler;
+import com.sse.utilities.FormFiller;
+import com.sse.utilities.LocatorChain;
+import com.sse.utilities.LocatorProfiler;
+import com.sse.utilities.LocatorTemplate;
+import com.sse.utilities.Locators;
+import com.sse.utilities.PageCondition;
+import com.sse.utilities.PagePerformance;
+import com.sse.utilities.RecordDetails;
+import com.sse.utilities.RecordField;
 import com.sse.utilities.StringUtilities;
 import com.sse.utilities.WaitUtilities;
 
@@ -27,7 +39,15 @@ public abstract class BasePage {
 	private static Logger log = LogManager.getLogger(BasePage.class);
 
 	protected static final String BEGIN = "//div[@class='windowViewMode-normal oneRecordActionWrapper isModal active lafPageHost']//label[text()='";
+	/**
+	 * In Lightning, the XPath of the edit modal - the form filled by fillForm.
+	 */
+	protected static final String EDIT_MODAL_XPATH = "//div[@class='windowViewMode-normal oneRecordActionWrapper isModal active lafPageHost']";
 	protected static final String END = "']/..//input";
+	/**
+	 * In Lightning, the XPath of the logo in the global header - present on every page once logged in.
+	 */
+	protected static final String GLOBAL_HEADER_LOGO_XPATH = "//*[contains(concat(' ', normalize-space(@class), ' '), ' slds-global-header__logo ')]";
 
 	/**
 	 * In Lightning, the start of the XPath to find the value of a standard text
@@ -132,6 +152,13 @@ public abstract class BasePage {
 	 */
 	private static final String LIST_TITLE_END = "']";
 
+	private static final LocatorTemplate TITLE = LocatorTemplate.xpath(TITLE_BEGIN, TITLE_END);
+	private static final LocatorTemplate LIST_TITLE = LocatorTemplate.xpath(LIST_TITLE_BEGIN, LIST_TITLE_END);
+	/**
+	 * In Lightning, the locator of the value of a standard text field in a read-only page, given its "label".
+	 */
+	protected static final LocatorTemplate TEXT_VALUE = LocatorTemplate.xpath(TEXT_VALUE_BEGIN, TEXT_VALUE_END);
+
 	/**
 	 * In Lightning, the start of the XPath to find the input text field in an
 	 * editable page, given its "label".
@@ -252,6 +279,38 @@ public abstract class BasePage {
 	 */
 	protected static final String DROPDOWN_END = "')]";  //deleted input (Jan2022 fix)
 
+	/*
+	 * The edit page field locators from before and after the Salesforce release change, as chains which try both
+	 * variants at once and remember the one which matches in each org - see LocatorChain.
+	 */
+	/**
+	 * In Lightning, the input text field in an editable page, given its "label".
+	 */
+	protected static final LocatorChain TEXT_FIELD = LocatorChain.of("BasePage.TEXT_FIELD",
+			LocatorTemplate.xpath(TEXT_BEGIN, TEXT_END), LocatorTemplate.xpath(TEXT_EDIT_BEGIN, TEXT_EDIT_END));
+	/**
+	 * In Lightning, the input date field in an editable page, given its "label".
+	 */
+	protected static final LocatorChain DATE_FIELD = LocatorChain.of("BasePage.DATE_FIELD",
+			LocatorTemplate.xpath(DATE_BEGIN, DATE_END), LocatorTemplate.xpath(DATE_EDIT_BEGIN, DATE_EDIT_END));
+	/**
+	 * In Lightning, the text area in an editable page, given its "label".
+	 */
+	protected static final LocatorChain TEXT_AREA_FIELD = LocatorChain.of("BasePage.TEXT_AREA_FIELD",
+			LocatorTemplate.xpath(TEXT_AREA_BEGIN, TEXT_AREA_END), LocatorTemplate.xpath(TEXT_AREA_EDIT_BEGIN, TEXT_AREA_EDIT_END));
+	/**
+	 * In Lightning, the drop down field in an editable page, given its "label".
+	 */
+	protected static final LocatorChain DROPDOWN_FIELD = LocatorChain.of("BasePage.DROPDOWN_FIELD",
+			LocatorTemplate.xpath(DROPDOWN_BEGIN, DROPDOWN_END), LocatorTemplate.xpath(DROPDOWN_EDIT_BEGIN, DROPDOWN_EDIT_END));
+	/**
+	 * In Lightning, the lookup input field in an editable page, given its "label" - falling back to the
+	 * XPath used before it was changed.
+	 */
+	protected static final LocatorChain LOOKUP_FIELD = LocatorChain.of("BasePage.LOOKUP_FIELD",
+			LocatorTemplate.xpath(LOOKUP_EDIT_BEGIN, LOOKUP_EDIT_END),
+			LocatorTemplate.xpath("//label[@data-aura-class='uiLabel']//span[text()='", "']/../..//input"));
+
 
 	/**
 	 * In Lightning, the XPath for the "New" button in 'list' pages, e.g.
@@ -375,9 +434,14 @@ public abstract class BasePage {
 
 	/**
 	 * Constructor. Initialises the WebElements in the current Page.
+	 * <p>The @FindBy fields are bound by the element binders generated at build time (see ElementBindings) -
+	 * or by PageFactory if the page has none, e.g. when compiled without the annotation processor.
+	 * As the binders assign the fields directly, @FindBy fields should not be private.
 	 */
 	public BasePage() {
-		PageFactory.initElements(Browser.driver, this);
+		if (!ElementBindings.bind(this, Browser.driver)) {
+			PageFactory.initElements(Browser.driver, this);
+		}
 	}
 
 	/*
@@ -390,6 +454,24 @@ public abstract class BasePage {
 	 */
 	public abstract void checkArrivalOnPage();
 
+	/**
+	 * Captures the browser's timings of the page just arrived at (see PagePerformance).
+	 * <p>Called by checkArrivalOnPage implementations once arrival is confirmed.
+	 */
+	protected void recordArrival() {
+		recordArrival(getClass().getSimpleName());
+	}
+
+	/**
+	 * Captures the browser's timings of the page just arrived at, under the passed name - for page classes
+	 * such as NavigationPanel which lead to more than one page - and profiles the locators in it (see LocatorProfiler).
+	 * @param page the name of the page arrived at
+	 */
+	protected void recordArrival(String page) {
+		PagePerformance.capture(page);
+		LocatorProfiler.profile(page);
+	}
+
 	/**
 	 * Extract the Salesforce object id from the URL.<br>
 	 * For "Lightning" Salesforce pages, the URL will look like (e.g.)
@@ -427,12 +509,12 @@ public abstract class BasePage {
 					retryCount++;
 					log.error(getClass() + " StaleElementReferenceException - Failed to store details on try "
 							+ (retryCount) + " of " + maxRetryCount, sere);
-					WaitUtilities.sleep(2);
+					WaitUtilities.waitForPageToSettle();
 				} catch (NoSuchElementException nsee) {
 					retryCount++;
 					log.error(getClass() + " NoSuchElementException - Failed to store details on try " + (retryCount)
 							+ " of " + maxRetryCount, nsee);
-					WaitUtilities.sleep(2);
+					WaitUtilities.waitForPageToSettle();
 				}
 			}
 			throw new RuntimeException("Maximum retry count exceeded storing details");
@@ -444,11 +526,26 @@ public abstract class BasePage {
 	/**
 	 * Empty non-abstract implementation of storeDetails - which in subclasses will
 	 * store page details.
+	 * <p>
+	 * Implementations should read the record's fields with one call to
+	 * readRecordDetails() rather than one XPath per field.
 	 */
 	protected void storeDetails() {
 		log.warn("*** This method should be overridden in your current page class *** " + this.getClass());
 	}
 
+	/**
+	 * Reads every field of the current record detail page with one script - see RecordDetails.
+	 * <p>
+	 * This finds the same values as the TEXT_VALUE_*, LINK_VALUE_* and CHECKBOX_VALUE_*
+	 * XPaths, for every label at once.
+	 *
+	 * @return label -&gt; field, in page order
+	 */
+	protected static Map<String, RecordField> readRecordDetails() {
+		return RecordDetails.read();
+	}
+
 	/**
 	 * In Lightning, create the XPath to find the "title" breadcrumb of the current
 	 * page.
@@ -462,7 +559,7 @@ public abstract class BasePage {
 	 * @return the Xpath corresponding to that element on the page.
 	 */
 	protected static String deriveLightningTitleXpath(String title) {
-		return TITLE_BEGIN + title + TITLE_END;
+		return TITLE.xpath(title);
 	}
 
 	/**
@@ -478,7 +575,7 @@ public abstract class BasePage {
 	 * @return the Xpath corresponding to that element on the page.
 	 */
 	protected static String deriveListPageLightningTitleXpath(String title) {
-		return LIST_TITLE_BEGIN + title + LIST_TITLE_END;
+		return LIST_TITLE.xpath(title);
 	}
 
 	/**
@@ -499,7 +596,34 @@ public abstract class BasePage {
 	 * @return the Xpath corresponding to the text value of that field
 	 */
 	protected final static String deriveLightningTextFieldValue(String label) {
-		return TEXT_VALUE_BEGIN + label + TEXT_VALUE_END;
+		return TEXT_VALUE.xpath(label);
+	}
+
+	/**
+	 * Fills in the edit modal from a map of field label to value, setting every text, text area, date and
+	 * checkbox field with one script and checking them all with one more - see FormFiller.
+	 * <p>
+	 * Fields which need interaction (lookups and picklists), or which could not be
+	 * found in the modal, are passed to interactiveFill - e.g. the page's existing
+	 * code for filling in such a field. A checkbox value is "true" or "false".
+	 *
+	 * @param values         field label -&gt; value
+	 * @param interactiveFill fills in one field interactively, given its label and value
+	 */
+	protected void fillForm(Map<String, String> values, BiConsumer<String, String> interactiveFill) {
+		try {
+			FormFiller.Result result = FormFiller.fill(EDIT_MODAL_XPATH, values);
+			for (Map.Entry<String, String> field : result.getInteractive().entrySet()) {
+				log.debug("Filling " + field.getKey() + " interactively, as " + field.getValue());
+				interactiveFill.accept(field.getKey(), values.get(field.getKey()));
+			}
+			Map<String, String> mismatches = FormFiller.verify(EDIT_MODAL_XPATH, result.getFilled());
+			if (!mismatches.isEmpty()) {
+				throw new RuntimeException("Fields not filled as expected : " + mismatches);
+			}
+		} catch (Exception e) {
+			ExceptionHandler.handleException("Could not fill form with " + values, e, this);
+		}
 	}
 
 	/**
@@ -512,7 +636,7 @@ public abstract class BasePage {
 	 * @return the found WebElement.
 	 */
 	protected static WebElement getWebElementFromXpath(String xpath) {
-		return Browser.driver.findElement(By.xpath(xpath));
+		return Browser.driver.findElement(Locators.xpath(xpath));
 	}
 
 	/**
@@ -525,7 +649,7 @@ public abstract class BasePage {
 	 * @return the found WebElement.
 	 */
 	protected static List<WebElement> getWebElementsFromXpath(String xpath) {
-		return Browser.driver.findElements(By.xpath(xpath));
+		return Browser.driver.findElements(Locators.xpath(xpath));
 	}
 
 	/**
@@ -536,9 +660,11 @@ public abstract class BasePage {
 	 */
 	public void validateMessageContains(String message) {
 		try {
-			WaitUtilities.waitForElementVisibleLocated(By.xpath(TOASTMESSAGE));
-			WebElement toastMessage = Browser.driver.findElement(By.xpath(TOASTMESSAGE));
-			AssertLogger.assertTrue("ToastMessage contains >>> " + message, toastMessage.getText().contains(message));
+			// An error message instead of the toast means the toast is never coming, so stop waiting for it.
+			WaitUtilities.waitFor(PageCondition.anyOf(PageCondition.visible(TOASTMESSAGE), PageCondition.visible(ERRORMESSAGE)));
+			List<WebElement> toastMessages = Browser.driver.findElements(Locators.xpath(TOASTMESSAGE));
+			String toastMessage = toastMessages.isEmpty() ? "" : toastMessages.get(0).getText();
+			AssertLogger.assertTrue("ToastMessage contains >>> " + message, toastMessage.contains(message));
 		} catch (Exception e) {
 			ExceptionHandler.handleException("Issue at Validating TOASTMESSAGE contains > " + message, e, this);
 		}
@@ -552,9 +678,11 @@ public abstract class BasePage {
 	 */
 	public void validateErrorMessage(String message) {
 		try {
-			WaitUtilities.waitForElementVisibleLocated(By.xpath(ERRORMESSAGE));
-			WebElement errorMessage = Browser.driver.findElement(By.xpath(ERRORMESSAGE));
-			AssertLogger.assertTrue("Error Message contains >>> " + message, errorMessage.getText().contains(message));
+			// Equally, a toast instead of the error means the error is never coming.
+			WaitUtilities.waitFor(PageCondition.anyOf(PageCondition.visible(ERRORMESSAGE), PageCondition.visible(TOASTMESSAGE)));
+			List<WebElement> errorMessages = Browser.driver.findElements(Locators.xpath(ERRORMESSAGE));
+			String errorMessage = errorMessages.isEmpty() ? "" : errorMessages.get(0).getText();
+			AssertLogger.assertTrue("Error Message contains >>> " + message, errorMessage.contains(message));
 		} catch (Exception e) {
 			ExceptionHandler.handleException("Issue at Validating ERRORMESSAGE contains > " + message, e, this);
 		}
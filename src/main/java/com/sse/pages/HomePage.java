@@ -3,11 +3,14 @@ package com.sse.pages;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
 import com.sse.utilities.Browser;
 import com.sse.utilities.ExceptionHandler;
+import com.sse.utilities.LocatorTemplate;
+import com.sse.utilities.RaceWait;
 import com.sse.utilities.StringUtilities;
 import com.sse.utilities.TextBoxUtilities;
 import com.sse.utilities.WaitUtilities;
@@ -22,21 +25,32 @@ public class HomePage extends BasePage {
 	private static Logger log = LogManager.getLogger(HomePage.class);
 	private static final String TITLE = "Home | Salesforce";
 
-	@FindBy(className = "slds-global-header__logo")
-	private WebElement homePageLogo;
+	@FindBy(xpath = GLOBAL_HEADER_LOGO_XPATH)
+	WebElement homePageLogo;
 
 	// For scheduled maintenance box..... should it appear.
-	@FindBy(xpath = "//div[@id='alert']//span[text()='Scheduled Maintenance']")
-	private WebElement scheduledMaintenanceBox;
+	private static final String SCHEDULED_MAINTENANCE_XPATH = "//div[@id='alert']//span[text()='Scheduled Maintenance']";
 	@FindBy(xpath = "//div[@id='message']/form/p/a")
-	private WebElement scheduledMaintenanceBoxContinueLink;
+	WebElement scheduledMaintenanceBoxContinueLink;
 	@FindBy(xpath = "//input[@title='Search Salesforce']")
-	private WebElement searchSalesforceTab;
+	WebElement searchSalesforceTab;
+	// A search result, given the search term (which is highlighted in the result)
+	private static final LocatorTemplate SEARCH_RESULT = LocatorTemplate.xpath("//mark[text()='", "']");
 
 	// Encountered when logging out and logging in quickly. It seems the "old"
 	// session is still "somehow active".
 	private static final String SESSION_ERROR_XPATH = "//h2/lightning-formatted-text[text()='Your session has ended']";
 
+	// How long to wait for any of the possible arrival outcomes before refreshing.
+	private static final int ARRIVAL_TIMEOUT_SECONDS = 20;
+
+	/**
+	 * The possible outcomes of arriving at the home page after logging in.
+	 */
+	private enum Arrival {
+		SCHEDULED_MAINTENANCE, SESSION_ERROR, HOME_PAGE
+	}
+
 	/**
 	 * Globally accessible String containing the URL of the SalesForce instance.
 	 * This includes the protocol and domain with a trailing slash. E.g.
@@ -52,22 +66,27 @@ public class HomePage extends BasePage {
 	@Override
 	public void checkArrivalOnPage() {
 		try {
+			/*
+			 * Wait for whichever arrives first - the home page itself, or one of the
+			 * pages/dialogs which get in its way - rather than checking for each in turn.
+			 */
+			Arrival arrival = awaitArrival(true);
+
 			/*
 			 * Occasionally you will get directed to "Scheduled Maintenance Notification"
 			 * page. In this instance, we need to hit Continue to proceed.
 			 */
-			if (WaitUtilities.doesElementExist(scheduledMaintenanceBox)) {
+			if (arrival == Arrival.SCHEDULED_MAINTENANCE) {
 				log.warn("*** Scheduled maintenance page encountered. Trying to click Continue..... ***");
 				scheduledMaintenanceBoxContinueLink.click();
-				WaitUtilities.sleep(2);
+				arrival = awaitArrival(false);
 			}
-			WaitUtilities.sleep(5); // Give home page and dashboard a chance to arrive.....
 
 			/*
 			 * Sometimes, after logging in, the animated Salesforce icon just stays there
 			 * forever.....
 			 */
-			if (!WaitUtilities.doesElementExist(homePageLogo)) {
+			if (arrival == null) {
 				log.info("Home page logo does not exist, refreshing until it does...");
 				WaitUtilities.refreshUntilWebElementVisible(homePageLogo, 5, "Home page logo");
 			}
@@ -75,7 +94,7 @@ public class HomePage extends BasePage {
 			instanceURL = currentURLBits[0] + "//" + currentURLBits[2] + "/";
 			log.info("Instance URL = " + instanceURL);
 
-			if (WaitUtilities.doesElementExist(SESSION_ERROR_XPATH)) {
+			if (arrival == Arrival.SESSION_ERROR || WaitUtilities.doesElementExist(SESSION_ERROR_XPATH)) {
 				log.info("Session ended error box on page, refreshing until it disappears...");
 				WaitUtilities.refreshUntilWebElementDoesNotExist(SESSION_ERROR_XPATH, 5, "Session Ended error");
 				// Re-refresh to see the home page logo here as well
@@ -91,12 +110,32 @@ public class HomePage extends BasePage {
 				log.info("Title not correct. Refreshing up to 3 times.");
 				WaitUtilities.refreshUntilPageTitleCorrect(HomePage.TITLE, 3, "Home page title");
 			}
+			recordArrival();
 
 		} catch (Exception e) {
 			ExceptionHandler.handleException("Salesforce home page not loaded", e, this);
 		}
 	}
 
+	/**
+	 * Waits for the first of the possible arrival outcomes.
+	 * @param includeMaintenance whether the scheduled maintenance page is still a possible outcome
+	 * @return the outcome, or null if none happened within ARRIVAL_TIMEOUT_SECONDS
+	 */
+	private Arrival awaitArrival(boolean includeMaintenance) {
+		RaceWait<Arrival> race = RaceWait.between();
+		if (includeMaintenance) {
+			race.orVisible(Arrival.SCHEDULED_MAINTENANCE, SCHEDULED_MAINTENANCE_XPATH);
+		}
+		race.orVisible(Arrival.SESSION_ERROR, SESSION_ERROR_XPATH)
+				.orVisible(Arrival.HOME_PAGE, GLOBAL_HEADER_LOGO_XPATH);
+		try {
+			return WaitUtilities.waitForFirstOf(race, ARRIVAL_TIMEOUT_SECONDS);
+		} catch (@SuppressWarnings("unused") TimeoutException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Search for element and clicks
 	 * 
@@ -106,8 +145,9 @@ public class HomePage extends BasePage {
 		try {
 			TextBoxUtilities.enterTextIntoTextbox(searchSalesforceTab, searchFor);
 			searchSalesforceTab.click();
-			WaitUtilities.waitShortForElementVisibleLocated(By.xpath("//mark[text()='" + searchFor + "']"));
-			WebElement searchElement = Browser.driver.findElement(By.xpath("//mark[text()='" + searchFor + "']"));
+			By searchResult = SEARCH_RESULT.by(searchFor);
+			WaitUtilities.waitShortForElementVisibleLocated(searchResult);
+			WebElement searchElement = Browser.driver.findElement(searchResult);
 			WaitUtilities.waitForWebElementToBeClickable(searchElement, 7);
 			searchElement.click();
 		} catch (Exception e) {
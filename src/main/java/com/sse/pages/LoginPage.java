@@ -7,11 +7,14 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import com.sse.utilities.Browser;
 import com.sse.utilities.ExceptionHandler;
+import com.sse.utilities.RaceWait;
 import com.sse.utilities.TextBoxUtilities;
 import com.sse.utilities.WaitUtilities;
 import com.sse.utilities.WebElementUtilities;
 import com.sse.utilities.configuration.PropertiesHolder;
 import com.sse.utilities.credentials.SecretHandler;
+import com.sse.utilities.timers.HierarchicalStopWatchController;
+import com.sse.utilities.timers.HierarchicalStopWatchController.TimingScope;
 
 /**
  * Page class to handle the login page.
@@ -21,13 +24,24 @@ public class LoginPage extends BasePage {
 
 	private static Logger log = LogManager.getLogger(LoginPage.class);
 
-	@FindBy(css="#username") private WebElement usernameTextBox;
-	@FindBy(css="#password") private WebElement passwordTextBox;
-	@FindBy(xpath="//button[text()=' Submit ']") private WebElement loginButton;
+	private static final String USERNAME_XPATH = "//input[@id='username']";
+
+	@FindBy(xpath=USERNAME_XPATH) WebElement usernameTextBox;
+	@FindBy(css="#password") WebElement passwordTextBox;
+	@FindBy(xpath="//button[text()=' Submit ']") WebElement loginButton;
 	private String user="Not Assigned";
 
 	private String environment;
 
+	private static final int ARRIVAL_TIMEOUT_SECONDS = 60;
+
+	/**
+	 * The possible outcomes of navigating to the login page.
+	 */
+	private enum Arrival {
+		LOGIN_FORM, ALREADY_LOGGED_IN
+	}
+
 	/**
 	 * For overnight runs, it is much more usual to have the
 	 *  "Something has happened with your session" appearing later in the flow than
@@ -87,7 +101,7 @@ public class LoginPage extends BasePage {
 		String password = SecretHandler.decrypt(currentEnvironmentProperties.getProperty(passwordProperty));
 		if (password == null) throw new RuntimeException(passwordProperty + " not specified in environment properties file");
 
-		try {
+		try (TimingScope scope = HierarchicalStopWatchController.activity("login as " + role)) {
 	    	TextBoxUtilities.enterTextIntoTextbox(usernameTextBox, userName);
 	    	WebElementUtilities.elementClickSafe(loginButton);
 	    	// To do with SSO WaitUtilities.waitForElementVisible(passwordTextBox);
@@ -105,27 +119,36 @@ public class LoginPage extends BasePage {
 	 */
 	@Override
 	public void checkArrivalOnPage() {
+		Arrival arrival = null;
 		try {
-			WaitUtilities.waitForElementVisible(usernameTextBox);
+			arrival = WaitUtilities.waitForFirstOf(RaceWait.<Arrival>between()
+					.orVisible(Arrival.LOGIN_FORM, USERNAME_XPATH)
+					// Shown if SSO has presented us with an already logged in session.
+					.orVisible(Arrival.ALREADY_LOGGED_IN, GLOBAL_HEADER_LOGO_XPATH), ARRIVAL_TIMEOUT_SECONDS);
 		}
-		catch (@SuppressWarnings("unused") Exception e) {
+		catch (Exception e) {
+			log.info("Exception awaiting arrival on login page : " + e);
+		}
+
+		if (arrival != Arrival.LOGIN_FORM) {
 			/* Because of the way that Single Sign-On works, if a previous scenario has
 			 * failed - the "logout" step may not have been run.
 			 * This means that a subsequent login will actually launch the
 			 * browser pre-logged in as whatever the last use was, as opposed to
 			 * presenting the username/password entry boxes.
 			 *
-			 * SO - try to logout if an exception occurs and retry the login....
+			 * SO - try to logout (straight away if we can see we are logged in) and retry the login....
 			 */
 			try {
-				log.info("Exception awaiting arrival on login page, attempting logging out....");
-				Pages.navigationPanel.logout();
+				log.info("Not arrived on login page (" + arrival + "), attempting logging out....");
+				Pages.navigationPanel().logout();
 				WaitUtilities.waitForElementVisible(usernameTextBox);
 			}
 			catch (Exception e1) {
 				ExceptionHandler.handleException("Could not navigate to Login page",e1,this);
 			}
 		}
+		recordArrival();
 
 		if (workAroundLoginSessionErrorsSeconds > 0) {
 			log.info("OVERNIGHT SUITE - sleeping for " +
@@ -1,8 +1,10 @@
 package com.sse.pages;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,9 +16,13 @@ import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
+import com.sse.pages.binding.ElementCache;
 import com.sse.utilities.AssertLogger;
 import com.sse.utilities.Browser;
 import com.sse.utilities.ExceptionHandler;
+import com.sse.utilities.LocatorTemplate;
+import com.sse.utilities.Locators;
+import com.sse.utilities.PageLoadTimer;
 import com.sse.utilities.WaitUtilities;
 import com.sse.utilities.WebElementUtilities;
 
@@ -31,21 +37,21 @@ public class NavigationPanel extends BasePage {
 	private final Map<String, WebElement> tabNameToWebElementMap = new HashMap<>(15);
 
 	@FindBy(xpath = "//a[@title='Leads']/span")
-	private WebElement leadsTab;
+	WebElement leadsTab;
 	@FindBy(xpath = "//a[@title='Accounts']/span")
-	private WebElement accountsTab;
+	WebElement accountsTab;
 	@FindBy(xpath = "//a[@title='Contacts']/span")
-	private WebElement contactsTab;
+	WebElement contactsTab;
 	@FindBy(xpath = "//a[@title='Cases']/span")
-	private WebElement casesTab;
+	WebElement casesTab;
 
 	//Added as part of salesforce quarterly update
 	@FindBy(xpath = "//button[@class='slds-button'][contains(text(),'View All')]")
-	private WebElement viewAll;
+	WebElement viewAll;
 
 
 	private static final String WAFFLE_XPATH = "//div[@class='slds-icon-waffle']";
-	private WebElement waffleIcon;
+	WebElement waffleIcon;
 
 	//the below xpath is changed hence commenting out
 	//@FindBy(xpath = "//input[@class='slds-input input']")
@@ -54,18 +60,18 @@ public class NavigationPanel extends BasePage {
 	//Added as part of salesforce quarterly update
 
 	@FindBy(xpath = "//input[contains(@placeholder,'Search apps')]")
-	private WebElement searchAppsTextbox;
+	WebElement searchAppsTextbox;
 
 	//Currently unused
-	@FindBy(xpath="//input[@title='Search Salesforce']/span") private WebElement searchTextbox;
+	@FindBy(xpath="//input[@title='Search Salesforce']/span") WebElement searchTextbox;
 
 	//User menu - used to logout
 	private static final String USER_MENU_BUTTON_XPATH = "//span/img[@title='User']";
-	@FindBy(xpath=USER_MENU_BUTTON_XPATH) private WebElement userMenuButton;
+	@FindBy(xpath=USER_MENU_BUTTON_XPATH) WebElement userMenuButton;
 	@FindBy(linkText="Log Out") WebElement logoutBtn;
 
 	//Setup menu - used to find the Developer Console
-	@FindBy(xpath="//div[@class='setupGear']") private WebElement setupButton;
+	@FindBy(xpath="//div[@class='setupGear']") WebElement setupButton;
 	@FindBy(xpath="//span[text()='Developer Console']") WebElement developerConsoleLink;
 	@FindBy(xpath="//div[@class='slds-grid']//span[text()='Setup']") WebElement setUpLink;
 	
@@ -73,6 +79,8 @@ public class NavigationPanel extends BasePage {
 	@FindBy(xpath="(//*[@class='notification-content'])[1]") WebElement notification;
 	
 	private static final String NOTIFICATION_CLEAR_BUTTON = "//div[@class='slds-notification-container unsCardQueue']//button[@title='Dismiss notification']";
+	// A page link in the App Launcher, given the page name
+	private static final LocatorTemplate APP_LAUNCHER_PAGE_LINK = LocatorTemplate.xpath("//p[@class='slds-truncate'][text()='", "']");
 
 	/**
 	 * Constructor. Initialises map of tab names to WebElements for the main
@@ -116,45 +124,43 @@ public class NavigationPanel extends BasePage {
 
 				try {
 					log.info("Navigating to page using waffle icon : " + page + " : try " + (retryCount+1) + " of " + maxRetryCount);
-					WaitUtilities.waitForElementPresentLocated(By.xpath(WAFFLE_XPATH));
-					waffleIcon = Browser.driver.findElement(By.xpath(WAFFLE_XPATH));
+					WaitUtilities.waitForElementPresentLocated(Locators.xpath(WAFFLE_XPATH));
+					waffleIcon = Browser.driver.findElement(Locators.xpath(WAFFLE_XPATH));
 					WebElementUtilities.objectClick(waffleIcon);
-					WaitUtilities.sleep(2);
 					WaitUtilities.waitForWebElementToBeClickable(viewAll, 15);
 					WebElementUtilities.objectClick(viewAll);
 				} catch(WebDriverException e) {
 					log.warn(e.getClass()+" Exception caught!!!, try Again!!!");
 					Browser.refreshPage();
-					WaitUtilities.sleep(2);
-					WaitUtilities.waitForElementPresentLocated(By.xpath(WAFFLE_XPATH));
-					waffleIcon = Browser.driver.findElement(By.xpath(WAFFLE_XPATH));
+					WaitUtilities.waitForPageToLoad();
+					WaitUtilities.waitForElementPresentLocated(Locators.xpath(WAFFLE_XPATH));
+					waffleIcon = Browser.driver.findElement(Locators.xpath(WAFFLE_XPATH));
 					WaitUtilities.waitForElementVisible(waffleIcon);
 					WaitUtilities.waitUntilClick(waffleIcon, 10);
-					WaitUtilities.sleep(1);
 					WaitUtilities.waitUntilClick(viewAll, 8);
 				}
 				try {
-					WaitUtilities.sleep(1);
 					WaitUtilities.waitShortForElementVisible(searchAppsTextbox);
 				} catch (TimeoutException | StaleElementReferenceException tse) {
 					log.warn("Exception waiting for searchApps text box - retrying click of waffle " + tse);
-					WaitUtilities.sleep(10);
-					log.info("Just slept to give the page a chance to re-render");
-					WaitUtilities.waitForElementPresentLocated(By.xpath(WAFFLE_XPATH));
-					waffleIcon = Browser.driver.findElement(By.xpath(WAFFLE_XPATH));
+					WaitUtilities.waitForPageToSettle();
+					log.info("Just waited to give the page a chance to re-render");
+					WaitUtilities.waitForElementPresentLocated(Locators.xpath(WAFFLE_XPATH));
+					waffleIcon = Browser.driver.findElement(Locators.xpath(WAFFLE_XPATH));
 					WebElementUtilities.objectClick(waffleIcon);
 					WaitUtilities.waitShortForElementVisible(searchAppsTextbox);
 				}
 				WebElementUtilities.sendKeysSafe(searchAppsTextbox, page);
 
 				try {
-					WaitUtilities.waitForElementPresentLocated(By.xpath(pageLinkFromAppLauncher));
+					WaitUtilities.waitForElementPresentLocated(Locators.xpath(pageLinkFromAppLauncher));
 					pageLinkAvailable = true;
 					break;
 				}
 				catch (TimeoutException t) {
 					Browser.refreshPage();
-					WaitUtilities.sleep(10);
+					WaitUtilities.waitForPageToLoad();
+					WaitUtilities.waitForPageToSettle();
 					retryCount++;
 					log.error("TimeoutException - Could not launch page on try " + (retryCount) + " of "
 							+ maxRetryCount, t);
@@ -162,8 +168,8 @@ public class NavigationPanel extends BasePage {
 			}
 			if (!pageLinkAvailable) throw new RuntimeException("Maximum retry count exceeded trying to navigate to page " + page);
 
-			WaitUtilities.waitForElementVisible(Browser.driver.findElement(By.xpath(pageLinkFromAppLauncher)));
-			for (WebElement link:Browser.driver.findElements(By.xpath(pageLinkFromAppLauncher))) {
+			WaitUtilities.waitForElementVisible(Browser.driver.findElement(Locators.xpath(pageLinkFromAppLauncher)));
+			for (WebElement link:Browser.driver.findElements(Locators.xpath(pageLinkFromAppLauncher))) {
 				if (link.getText().equals(page)) {
 					WaitUtilities.waitForWebElementToBeClickable(link, 5);
 					WebElementUtilities.objectClick(link);
@@ -196,15 +202,78 @@ public class NavigationPanel extends BasePage {
 			 */
 			// WebElementDebug.dumpWebElementToConsole(tab, page + " tab");
 			WebElementUtilities.objectClick(tab);
+			ElementCache.invalidateAll();
 			log.info("Just clicked tab " + page);
 		} catch (Exception e) {
 			ExceptionHandler.handleException("Could not click tab " + page, e, this);
 		}
 	}
 
+	/**
+	 * @param page the name of a tab
+	 * @return true if the tab is one which clickTab() can navigate to.
+	 */
+	public boolean hasTab(String page) {
+		return tabNameToWebElementMap.containsKey(page);
+	}
+
+	/**
+	 * @return the names of the tabs which clickTab() can navigate to.
+	 */
+	public Set<String> getTabNames() {
+		return Collections.unmodifiableSet(tabNameToWebElementMap.keySet());
+	}
+
+	/**
+	 * Click the tab associated with the passed name, and wait until its page has arrived.
+	 *
+	 * @param page the name of the tab to be navigated to.
+	 */
+	public void navigateToTab(String page) {
+		clickTab(page);
+		checkArrivalOnTab(page);
+	}
+
+	/**
+	 * Confirm that we have arrived at the page of the passed tab - i.e. the page title names the tab
+	 * (e.g. "Recently Viewed | Accounts | Salesforce") and Lightning has finished loading its content.
+	 *
+	 * @param page the name of the tab navigated to.
+	 */
+	public void checkArrivalOnTab(String page) {
+		waitForTab(page);
+		recordArrival("Tab " + page);
+	}
+
+	/**
+	 * Click the tab associated with the passed name, and time how long its page takes to arrive (see
+	 * PageLoadTimer.timeLoad). The arrival is recorded once the timing has ended, so is not part of it.
+	 *
+	 * @param label the label to record the timing under, e.g. "Accounts page load"
+	 * @param page the name of the tab to be navigated to.
+	 * @return how long the page took to load, in milliseconds
+	 */
+	public long timeNavigationToTab(String label, String page) {
+		long millis = PageLoadTimer.timeLoad(label, () -> {
+			clickTab(page);
+			waitForTab(page);
+		});
+		recordArrival("Tab " + page);
+		return millis;
+	}
+
+	/*
+	 * Waits until the page title names the tab, and Lightning has finished loading its content.
+	 */
+	private void waitForTab(String page) {
+		WaitUtilities.waitForPageTitle(page);
+		WaitUtilities.waitForNetworkIdle();
+	}
+
 	@Override
 	public void checkArrivalOnPage() {
 		WaitUtilities.waitForElementVisible(accountsTab);
+		recordArrival();
 	}
 
 	/**
@@ -213,8 +282,8 @@ public class NavigationPanel extends BasePage {
 	 */
 	public void clickWaffleGrid() {
 		try {
-			WaitUtilities.waitForElementPresentLocated(By.xpath(WAFFLE_XPATH));
-			waffleIcon = Browser.driver.findElement(By.xpath(WAFFLE_XPATH));
+			WaitUtilities.waitForElementPresentLocated(Locators.xpath(WAFFLE_XPATH));
+			waffleIcon = Browser.driver.findElement(Locators.xpath(WAFFLE_XPATH));
 			WebElementUtilities.objectClick(waffleIcon);
 			try {
 				WaitUtilities.waitForWebElementToBeClickable(viewAll, 15);
@@ -222,22 +291,20 @@ public class NavigationPanel extends BasePage {
 			}catch(WebDriverException e) {
 				log.warn(e.getClass()+" Exception caught!!!, try Again!!!");
 				Browser.refreshPage();
-				WaitUtilities.sleep(2);
-				WaitUtilities.waitForElementPresentLocated(By.xpath(WAFFLE_XPATH));
-				waffleIcon = Browser.driver.findElement(By.xpath(WAFFLE_XPATH));
+				WaitUtilities.waitForPageToLoad();
+				WaitUtilities.waitForElementPresentLocated(Locators.xpath(WAFFLE_XPATH));
+				waffleIcon = Browser.driver.findElement(Locators.xpath(WAFFLE_XPATH));
 				WaitUtilities.waitUntilClick(waffleIcon, 10);
-				WaitUtilities.sleep(1);
 				WaitUtilities.waitUntilClick(viewAll, 8);
 			}
 			try {
-				WaitUtilities.sleep(1);
 				WaitUtilities.waitShortForElementVisible(searchAppsTextbox);
 			} catch (TimeoutException | StaleElementReferenceException tse) {
 				log.warn("Exception waiting for searchApps text box - retrying click of waffle " + tse);
-				WaitUtilities.sleep(5);
-				log.info("Just slept to give the page a chance to re-render");
-				WaitUtilities.waitForElementPresentLocated(By.xpath(WAFFLE_XPATH));
-				waffleIcon = Browser.driver.findElement(By.xpath(WAFFLE_XPATH));
+				WaitUtilities.waitForPageToSettle();
+				log.info("Just waited to give the page a chance to re-render");
+				WaitUtilities.waitForElementPresentLocated(Locators.xpath(WAFFLE_XPATH));
+				waffleIcon = Browser.driver.findElement(Locators.xpath(WAFFLE_XPATH));
 				WebElementUtilities.objectClick(waffleIcon);
 				WaitUtilities.waitShortForElementVisible(searchAppsTextbox);
 			}
@@ -263,19 +330,19 @@ public class NavigationPanel extends BasePage {
 
 				//Moves to parent frame in case we are in an iframe.
 				Browser.driver.switchTo().parentFrame();
-				WaitUtilities.waitForElementPresentLocated(By.xpath(USER_MENU_BUTTON_XPATH));
+				WaitUtilities.waitForElementPresentLocated(Locators.xpath(USER_MENU_BUTTON_XPATH));
 
 				WebElementUtilities.objectClick(userMenuButton);
 				try {
 					WaitUtilities.waitForElementToBeClickableSafe(logoutBtn, 10);
 					WebElementUtilities.objectClick(logoutBtn);
-					WaitUtilities.sleep(1); //unavoidable as we don't know whether we can wait for an alert if none will ever appear.
+					//We don't know whether an alert will appear, so wait for either an alert or the page to move on.
+					WaitUtilities.waitForAlertOrElementGone(Locators.xpath(USER_MENU_BUTTON_XPATH), 5);
 					WaitUtilities.acceptAlertIfOneExists();
 				} catch(Exception e) {
 					log.warn("Logout Failed. Try again!!! " + e);
 					if(!WaitUtilities.doesElementExist(logoutBtn)) {
 						WebElementUtilities.objectClick(userMenuButton);
-						WaitUtilities.sleep(2);
 					}
 						WaitUtilities.waitForWebElementToBeClickable(logoutBtn, 5);
 						WebElementUtilities.objectClick(logoutBtn);
@@ -302,7 +369,7 @@ public class NavigationPanel extends BasePage {
 	
 	public void clearNotifications() {
 		try {
-			List<WebElement> dismissButtons = Browser.driver.findElements(By.xpath(NOTIFICATION_CLEAR_BUTTON));
+			List<WebElement> dismissButtons = Browser.driver.findElements(Locators.xpath(NOTIFICATION_CLEAR_BUTTON));
 			if (dismissButtons.size() > 0)
 				log.info(dismissButtons.size() + " notification messages found. Attempting to clear them.");
 			for (WebElement button : dismissButtons) {
@@ -343,11 +410,10 @@ public class NavigationPanel extends BasePage {
 			} catch (Exception e) {
 				log.warn("Issue locating the setup gear, so re-refreshing again", e);
 				Browser.refreshPage();
-				Pages.sseHomePage.checkArrivalOnPage();
+				Pages.sseHomePage().checkArrivalOnPage();
 				WaitUtilities.waitForElementToBeClickableSafe(setupButton, 6);
 			}
 			setupButton.click();
-			WaitUtilities.sleep(3);
 			WaitUtilities.waitForElementToBeClickableSafe(developerConsoleLink, 20); // sometimes a BIG delay!
 			WebElementUtilities.objectClick(developerConsoleLink);
 		} catch (Exception e) {
@@ -369,11 +435,10 @@ public class NavigationPanel extends BasePage {
 			} catch (Exception e) {
 				log.warn("Issue locating the setup gear, so re-refreshing again", e);
 				Browser.refreshPage();
-				Pages.sseHomePage.checkArrivalOnPage();
+				Pages.sseHomePage().checkArrivalOnPage();
 				WaitUtilities.waitForElementToBeClickableSafe(setupButton, 6);
 			}
 			setupButton.click();
-			WaitUtilities.sleep(3);
 			WaitUtilities.waitForElementToBeClickableSafe(setUpLink, 40); // sometimes a BIG delay!
 
 			WebElementUtilities.elementClickSafe(setUpLink);
@@ -391,28 +456,30 @@ public class NavigationPanel extends BasePage {
 	 */
 	public void validatePageVisibility(boolean can, String pageName) {
 		try {
-			String pageXpath = "//p[@class='slds-truncate'][text()='" + pageName + "']";
+			String pageXpath = APP_LAUNCHER_PAGE_LINK.xpath(pageName);
+			By pageLinkBy = APP_LAUNCHER_PAGE_LINK.by(pageName);
 
 			if (!can) {
 				AssertLogger.assertTrue(pageName + " page link should not exist",!WaitUtilities.doesElementExist(pageXpath));
 			}
 			else {
 				try {
-					WaitUtilities.waitShortForElementVisibleLocated(By.xpath(pageXpath));
+					WaitUtilities.waitShortForElementVisibleLocated(pageLinkBy);
 				}catch(Exception e) {
 					log.warn("Couldnt locate the xpath of the "+pageName + " Exception " + e);
 					Browser.refreshPage();
 					WaitUtilities.waitForWebElementToBeClickableByLocator(By.xpath("//div[@class='slds-icon-waffle']"), 20);
-					Pages.navigationPanel.clickWaffleGrid();
-					WaitUtilities.waitShortForElementVisibleLocated(By.xpath(pageXpath));
+					Pages.navigationPanel().clickWaffleGrid();
+					WaitUtilities.waitShortForElementVisibleLocated(pageLinkBy);
 				}
 				AssertLogger.assertTrue(pageName + " page link exists",WaitUtilities.doesElementExist(pageXpath));
-				WaitUtilities.waitForElementPresentLocated(By.xpath(pageXpath));
-				WaitUtilities.waitForElementVisibleLocated(By.xpath(pageXpath));
-				WaitUtilities.sleep(5);
-				WebElement pageLink = Browser.driver.findElement(By.xpath(pageXpath));
+				WaitUtilities.waitForElementPresentLocated(pageLinkBy);
+				WaitUtilities.waitForElementVisibleLocated(pageLinkBy);
+				WaitUtilities.waitForPageToSettle();
+				WebElement pageLink = Browser.driver.findElement(pageLinkBy);
 				WebElementUtilities.objectClick(pageLink);
-				WaitUtilities.sleep(5);
+				WaitUtilities.waitForPageToLoad();
+				WaitUtilities.waitForPageToSettle();
 
 				switch (pageName) {
 				
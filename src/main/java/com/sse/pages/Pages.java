@@ -1,54 +1,148 @@
 package com.sse.pages;
 
-import com.sse.pages.HomePage;
-import com.sse.pages.LoginPage;
-import com.sse.pages.NavigationPanel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.sse.pages.binding.ElementCache;
 import com.sse.salesforce.ScenarioData;
 import com.sse.utilities.Browser;
 
 import io.cucumber.java.Scenario;
 
 /**
- * Class to hold instances of all Page objects
+ * Registry of the Page objects for the current scenario.
+ * <p>Pages are created lazily - on first access within a scenario - and reused for the rest of it, so a scenario
+ * only pays for the PageFactory initialisation of the pages it actually uses. Access a page through its accessor
+ * (e.g. Pages.loginPage()), or through {@link #get(Class)} for a page class which has no accessor.
+ * <p>With eagerPages=true in configuration.properties, the pages which used to be constructed at the start of
+ * every scenario are again - so that the setup time saved by creating them lazily can be measured.
  *
- * @author 
+ * @author
  */
 @SuppressWarnings("javadoc")
 public final class Pages {
+	private static Logger log = LogManager.getLogger(Pages.class);
+
 	public static ScenarioData scenarioData;
+
+	// The pages constructed at the start of every scenario before they were created lazily
+	private static final List<Class<? extends BasePage>> EAGER_PAGES =
+			Arrays.asList(LoginPage.class, HomePage.class, NavigationPanel.class);
+
+	// Page class -> the instance for the current scenario
+	private static final Map<Class<? extends BasePage>, BasePage> pages = new HashMap<>();
+	private static long constructionNanos;
+	private static boolean eager;
+
+	private Pages() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	     }
+
 	/**
-	 * Tabs and Search box - common to most standard  pages.
+	 * @param configuration the configuration properties
 	 */
-	public static NavigationPanel navigationPanel;
+	public static void configure(Properties configuration) {
+		eager = Boolean.parseBoolean(configuration.getProperty("eagerPages"));
+	}
+
 	/**
-	 * The main Salesforce pages.
+	 * @return true if every page is constructed at the start of each scenario, rather than on first use.
 	 */
-	public static LoginPage loginPage;
-	public static HomePage sseHomePage;
-	
-	private Pages() {
-	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
-	     }	
-		
+	public static boolean isEager() {
+		return eager;
+	}
+
 	/**
-	 * Construct instances of all Pages
+	 * Starts a new scenario : discards the previous scenario's pages, which are then created again as they are used
+	 * (or straight away, if eager).
 	 * <p>
 	 * IF the driver is null, then we are running a non-browser scenario e.g. Oracle
-	 * validation. In that case, we only want to initialise the scenarioData 'page'.
+	 * validation. In that case, only the scenarioData 'page' is available.
 	 *
 	 * @param scenarioName the current Cucumber scenario.
 	 */
 	public static void initialise(Scenario scenario) {
 		scenarioData = new ScenarioData(scenario);
+		synchronized (pages) {
+			pages.clear();
+			constructionNanos = 0;
+		}
+		ElementCache.invalidateAll();
+		if (eager && Browser.driver != null) {
+			for (Class<? extends BasePage> pageClass : EAGER_PAGES) get(pageClass);
+		}
+	}
+
+	/**
+	 * Returns the current scenario's instance of a page class, creating it on first access.
+	 *
+	 * @param pageClass the page class, which must have a public no-argument constructor
+	 * @return the page object
+	 * @throws IllegalStateException if there is no browser, or the page could not be created
+	 */
+	public static <P extends BasePage> P get(Class<P> pageClass) {
+		synchronized (pages) {
+			BasePage page = pages.get(pageClass);
+			if (page == null) {
+				if (Browser.driver == null) {
+					throw new IllegalStateException("Cannot create " + pageClass.getSimpleName() + " as there is no browser");
+				}
+				long startNanos = System.nanoTime();
+				try {
+					page = pageClass.getConstructor().newInstance();
+				}
+				catch (ReflectiveOperationException e) {
+					throw new IllegalStateException("Could not create " + pageClass.getSimpleName(), e);
+				}
+				long nanos = System.nanoTime() - startNanos;
+				constructionNanos += nanos;
+				log.debug("Created " + pageClass.getSimpleName() + " in " + nanos / 1000 + " microseconds");
+				pages.put(pageClass, page);
+			}
+			return pageClass.cast(page);
+		}
+	}
+
+	/**
+	 * @return the number of pages created so far in the current scenario.
+	 */
+	public static int getPagesCreated() {
+		synchronized (pages) {
+			return pages.size();
+		}
+	}
+
+	/**
+	 * @return the total time, in milliseconds, spent creating pages in the current scenario.
+	 */
+	public static double getConstructionMillis() {
+		synchronized (pages) {
+			return constructionNanos / 1_000_000.0;
+		}
+	}
 
-		if (Browser.driver == null)
-			return;
+	/**
+	 * Tabs and Search box - common to most standard  pages.
+	 */
+	public static NavigationPanel navigationPanel() {
+		return get(NavigationPanel.class);
+	}
 
-		loginPage = new LoginPage();
-		sseHomePage = new HomePage();
-		navigationPanel = new NavigationPanel();
-		
+	/**
+	 * The main Salesforce pages.
+	 */
+	public static LoginPage loginPage() {
+		return get(LoginPage.class);
 	}
-	
+
+	public static HomePage sseHomePage() {
+		return get(HomePage.class);
 	}
 
+	}
@@ -0,0 +1,232 @@
+package com.sse.pages.binding;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+
+/**
+ * A @FindBy element bound by a generated {@link ElementBinder} - the equivalent of PageFactory's proxy, without
+ * the dynamic proxy and reflective invocation.
+ * <p>As with PageFactory, the element is located afresh on every use, so it survives the page re-rendering -
+ * unless the {@link ElementCache} is enabled, in which case the located element is reused until it is stale or
+ * the page navigates, and is located again (transparently) if it turns out to be stale when used.
+ * {@link #locate()} is the single point at which any lookup is made.
+ * @author atul
+ *
+ */
+public class BoundElement implements WebElement, WrapsElement, Locatable {
+	private final String name;
+	private final By by;
+	private final SearchContext context;
+	private volatile WebElement cachedElement;
+
+	/**
+	 * @param name the page class and field, e.g. "NavigationPanel.accountsTab"
+	 * @param by how to locate the element
+	 * @param context where to locate the element, usually the driver
+	 */
+	public BoundElement(String name, By by, SearchContext context) {
+		this.name = name;
+		this.by = by;
+		this.context = context;
+	}
+
+	/**
+	 * @return the page class and field this element is bound to.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return how the element is located.
+	 */
+	public By getBy() {
+		return by;
+	}
+
+	/**
+	 * @return where the element is located, usually the driver.
+	 */
+	SearchContext getContext() {
+		return context;
+	}
+
+	/**
+	 * Locates the element.
+	 * @return the element as currently in the page
+	 * @throws org.openqa.selenium.NoSuchElementException if it is not in the page
+	 */
+	protected WebElement locate() {
+		if (!ElementCache.isEnabled()) return context.findElement(by);
+		if (ElementCache.isValid(this)) {
+			WebElement element = cachedElement;
+			if (element != null) return element;
+		}
+		WebElement element = context.findElement(by);
+		cachedElement = element;
+		ElementCache.add(this);
+		return element;
+	}
+
+	/**
+	 * @return the WebElement cached for this element, or null if there is none.
+	 */
+	WebElement cachedElement() {
+		return cachedElement;
+	}
+
+	/**
+	 * Discards the WebElement cached for this element, so that it is located afresh when next used.
+	 */
+	void forget() {
+		cachedElement = null;
+	}
+
+	/*
+	 * Applies the action to the element - and if it was cached but has gone stale, locates it again and retries.
+	 */
+	private <T> T apply(Function<WebElement, T> action) {
+		WebElement element = locate();
+		try {
+			return action.apply(element);
+		}
+		catch (StaleElementReferenceException e) {
+			if (!ElementCache.isEnabled()) throw e;
+			ElementCache.stale(this);
+			return action.apply(locate());
+		}
+	}
+
+	private void run(Consumer<WebElement> action) {
+		apply(element -> {
+			action.accept(element);
+			return null;
+		});
+	}
+
+	@Override
+	public WebElement getWrappedElement() {
+		return locate();
+	}
+
+	@Override
+	public Coordinates getCoordinates() {
+		return ((Locatable)locate()).getCoordinates();
+	}
+
+	@Override
+	public void click() {
+		run(element -> element.click());
+	}
+
+	@Override
+	public void submit() {
+		run(element -> element.submit());
+	}
+
+	@Override
+	public void sendKeys(CharSequence... keysToSend) {
+		run(element -> element.sendKeys(keysToSend));
+	}
+
+	@Override
+	public void clear() {
+		run(element -> element.clear());
+	}
+
+	@Override
+	public String getTagName() {
+		return apply(element -> element.getTagName());
+	}
+
+	@Override
+	public String getAttribute(String attributeName) {
+		return apply(element -> element.getAttribute(attributeName));
+	}
+
+	@Override
+	public boolean isSelected() {
+		return apply(element -> element.isSelected());
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return apply(element -> element.isEnabled());
+	}
+
+	@Override
+	public String getText() {
+		return apply(element -> element.getText());
+	}
+
+	@Override
+	public List<WebElement> findElements(By childBy) {
+		return apply(element -> element.findElements(childBy));
+	}
+
+	@Override
+	public WebElement findElement(By childBy) {
+		return apply(element -> element.findElement(childBy));
+	}
+
+	@Override
+	public boolean isDisplayed() {
+		return apply(element -> element.isDisplayed());
+	}
+
+	@Override
+	public Point getLocation() {
+		return apply(element -> element.getLocation());
+	}
+
+	@Override
+	public Dimension getSize() {
+		return apply(element -> element.getSize());
+	}
+
+	@Override
+	public Rectangle getRect() {
+		return apply(element -> element.getRect());
+	}
+
+	@Override
+	public String getCssValue(String propertyName) {
+		return apply(element -> element.getCssValue(propertyName));
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		return apply(element -> element.getScreenshotAs(target));
+	}
+
+	/*
+	 * As with PageFactory's proxies, equality is that of the element currently located.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return locate().equals(obj instanceof WrapsElement ? ((WrapsElement)obj).getWrappedElement() : obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return apply(element -> element.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		return "Bound element " + name + " " + by;
+	}
+}
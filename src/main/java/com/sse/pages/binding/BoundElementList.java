@@ -0,0 +1,82 @@
+package com.sse.pages.binding;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+/**
+ * A @FindBy List&lt;WebElement&gt; bound by a generated {@link ElementBinder} - located afresh on every use, as with
+ * PageFactory. Iterating locates the elements once for the whole iteration.
+ * @author atul
+ *
+ */
+public class BoundElementList extends AbstractList<WebElement> {
+	private final String name;
+	private final By by;
+	private final SearchContext context;
+
+	/**
+	 * @param name the page class and field, e.g. "NavigationPanel.tabs"
+	 * @param by how to locate the elements
+	 * @param context where to locate the elements, usually the driver
+	 */
+	public BoundElementList(String name, By by, SearchContext context) {
+		this.name = name;
+		this.by = by;
+		this.context = context;
+	}
+
+	/**
+	 * @return how the elements are located.
+	 */
+	public By getBy() {
+		return by;
+	}
+
+	/**
+	 * Locates the elements.
+	 * @return the elements as currently in the page - empty if there are none.
+	 */
+	protected List<WebElement> locate() {
+		return context.findElements(by);
+	}
+
+	@Override
+	public WebElement get(int index) {
+		return locate().get(index);
+	}
+
+	@Override
+	public int size() {
+		return locate().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return locate().isEmpty();
+	}
+
+	@Override
+	public Iterator<WebElement> iterator() {
+		return locate().iterator();
+	}
+
+	@Override
+	public Object[] toArray() {
+		return locate().toArray();
+	}
+
+	@Override
+	public <T> T[] toArray(T[] a) {
+		return locate().toArray(a);
+	}
+
+	@Override
+	public String toString() {
+		return "Bound element list " + name + " " + by;
+	}
+}
@@ -0,0 +1,22 @@
+package com.sse.pages.binding;
+
+import org.openqa.selenium.SearchContext;
+
+/**
+ * Binds the @FindBy fields declared by one page class, without reflection.
+ * <p>Implementations are generated at build time by {@link com.sse.pages.binding.processor.ElementBindingProcessor},
+ * as &lt;page class&gt;_ElementBinder in the page's package, and are used through {@link ElementBindings}.
+ * @author atul
+ *
+ * @param <P> the page class
+ */
+public interface ElementBinder<P> {
+
+	/**
+	 * Assigns each @FindBy field declared by the page class (not its superclasses) an element which is
+	 * located on use.
+	 * @param page the page whose fields to assign
+	 * @param context where to locate the elements, usually the driver
+	 */
+	void bind(P page, SearchContext context);
+}
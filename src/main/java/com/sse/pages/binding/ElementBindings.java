@@ -0,0 +1,99 @@
+package com.sse.pages.binding;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+
+/**
+ * Binds the @FindBy fields of a page using the {@link ElementBinder}s generated at build time for its class and
+ * superclasses, in place of PageFactory.initElements - so that constructing a page is a handful of allocations
+ * rather than a reflective scan of its fields and a dynamic proxy per element.
+ * <p>The binders for each page class are looked up once per run. If any class in the hierarchy declares @FindBy
+ * (or @FindBys/@FindAll) fields, or WebElement fields (which PageFactory binds by id or name), but has no binder -
+ * e.g. when compiled by an IDE without the annotation processor, when the processor could not bind one of its
+ * fields, or when it has no annotated field for the processor to see - bind() returns false, and the page should
+ * fall back to PageFactory.
+ * @author atul
+ *
+ */
+public final class ElementBindings {
+	private static Logger log = LogManager.getLogger(ElementBindings.class);
+
+	/**
+	 * Appended to the name of a page class to give the name of its generated binder.
+	 */
+	public static final String BINDER_SUFFIX = "_ElementBinder";
+
+	// Page class -> the binders of it and its superclasses, or empty if the page must be bound by PageFactory
+	private static final Map<Class<?>, Optional<List<ElementBinder<Object>>>> bindersByClass = new ConcurrentHashMap<>();
+
+	private ElementBindings() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Binds the page's @FindBy fields using the generated binders, if there is one for every class which needs it.
+	 * @param page the page whose fields to assign
+	 * @param context where to locate the elements, usually the driver
+	 * @return true if the fields were bound, false if the page must be bound by PageFactory instead.
+	 */
+	public static boolean bind(Object page, SearchContext context) {
+		Optional<List<ElementBinder<Object>>> binders = bindersByClass.computeIfAbsent(page.getClass(), ElementBindings::findBinders);
+		if (!binders.isPresent()) return false;
+		for (ElementBinder<Object> binder : binders.get()) {
+			binder.bind(page, context);
+		}
+		return true;
+	}
+
+	private static Optional<List<ElementBinder<Object>>> findBinders(Class<?> pageClass) {
+		List<ElementBinder<Object>> binders = new ArrayList<>();
+		for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+			ElementBinder<Object> binder = loadBinder(type);
+			if (binder != null) {
+				binders.add(binder);
+			}
+			else if (declaresBoundFields(type)) {
+				log.info(type.getName() + " has no generated element binder, so " + pageClass.getSimpleName() + " will be bound by PageFactory");
+				return Optional.empty();
+			}
+		}
+		return Optional.of(binders);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ElementBinder<Object> loadBinder(Class<?> type) {
+		try {
+			Class<?> binderClass = Class.forName(type.getName() + BINDER_SUFFIX, true, type.getClassLoader());
+			return (ElementBinder<Object>)binderClass.getConstructor().newInstance();
+		}
+		catch (@SuppressWarnings("unused") ClassNotFoundException e) {
+			return null;
+		}
+		catch (ReflectiveOperationException | ClassCastException e) {
+			log.warn("Could not create the element binder for " + type.getName(), e);
+			return null;
+		}
+	}
+
+	private static boolean declaresBoundFields(Class<?> type) {
+		for (Field field : type.getDeclaredFields()) {
+			if (field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class) ||
+					field.isAnnotationPresent(FindAll.class) || (field.getType() == WebElement.class && !field.isSynthetic())) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
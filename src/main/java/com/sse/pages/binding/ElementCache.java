@@ -0,0 +1,263 @@
+package com.sse.pages.binding;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import com.sse.utilities.Browser;
+import com.sse.utilities.Locators;
+
+/**
+ * Cache of the WebElements located for {@link BoundElement}s, so that using a @FindBy field repeatedly does not
+ * re-run its locator against the whole DOM each time.
+ * <p>A cached element is reused until it is stale or the page has navigated. Rather than check each element on
+ * every use, all cached elements are revalidated together, at most once per tick (elementCacheTickMillis), by a
+ * single script which checks that the URL and document are unchanged and, for each element, that its locator
+ * still finds it first - Lightning keeps the content of previous pages attached, so an element still connected to
+ * the document may no longer be the one a positional locator (e.g. (//x)[1]) finds. A change of URL or document
+ * empties the cache; an element its locator no longer finds first is dropped from it. Known navigations
+ * (Browser.goTo, Browser.refreshPage, NavigationPanel.clickTab) empty it too. Elements located from another element,
+ * or by link text, cannot be checked this way, so are never cached.
+ * <p>An element which goes stale within a tick is located again, transparently, by BoundElement.
+ * <p>Enabled by elementCache=true in configuration.properties (off by default). Hits, misses and stale retries are counted per
+ * element; at the end of the run the hit rate is written to the run summary, and per element to target/element-cache.txt.
+ * @author atul
+ *
+ */
+public final class ElementCache {
+	private static Logger log = LogManager.getLogger(ElementCache.class);
+
+	/*
+	 * arguments[0] is the URL and document token at the last validation, arguments[1] the cached elements,
+	 * arguments[2] the [kind ('xpath' or 'css'), locator] of each. Returns null if the page has navigated, else
+	 * whether each element is still the first its locator finds.
+	 */
+	private static final String VALIDATE_SCRIPT =
+			"var token = arguments[0], elements = arguments[1], locators = arguments[2];" +
+			"if (!document.__sseElementCache || token !== location.href + '#' + document.__sseElementCache) return null;" +
+			"var first = function(locator) {" +
+			"  return locator[0] === 'xpath' ?" +
+			"      document.evaluate(locator[1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue :" +
+			"      document.querySelector(locator[1]);" +
+			"};" +
+			"var valid = [];" +
+			"for (var i = 0; i < elements.length; i++) {" +
+			"  try {" +
+			"    valid.push(!!(elements[i] && elements[i].isConnected) && first(locators[i]) === elements[i]);" +
+			"  } catch (e) {" +
+			"    valid.push(false);" +
+			"  }" +
+			"}" +
+			"return valid;";
+	private static final String TOKEN_SCRIPT =
+			"if (!document.__sseElementCache) document.__sseElementCache = String(Date.now()) + Math.random();" +
+			"return location.href + '#' + document.__sseElementCache;";
+
+	private static final int HITS = 0;
+	private static final int MISSES = 1;
+	private static final int STALE = 2;
+
+	private static boolean enabled;
+	private static long tickNanos = 250_000_000L;
+	private static long lastValidatedNanos;
+	private static String documentToken;
+	// Element -> the [kind, locator] which revalidates it. Compared by identity, as a BoundElement's equals() locates it
+	private static final Map<BoundElement, List<String>> cached = new IdentityHashMap<>();
+	// Element name -> {hits, misses, stale retries}
+	private static final Map<String, long[]> counts = new LinkedHashMap<>();
+	private static long revalidations;
+	private static long invalidations;
+
+	private ElementCache() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * @param configuration the configuration properties
+	 */
+	public static synchronized void configure(Properties configuration) {
+		enabled = Boolean.parseBoolean(configuration.getProperty("elementCache", "false"));
+		tickNanos = Long.parseLong(configuration.getProperty("elementCacheTickMillis", "250").trim()) * 1_000_000L;
+		invalidateAll();
+	}
+
+	/**
+	 * @return true if elements are being cached.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Empties the cache, e.g. when new pages are created for a scenario, or the browser navigates.
+	 */
+	public static synchronized void invalidateAll() {
+		for (BoundElement element : cached.keySet()) element.forget();
+		cached.clear();
+		documentToken = null;
+		invalidations++;
+	}
+
+	/**
+	 * Counts a hit if the element may use its cached WebElement, otherwise a miss.
+	 * @param element the element about to be used
+	 * @return true if it may use its cached WebElement, i.e. it has one, which its locator still finds first, and
+	 * the page has not navigated.
+	 */
+	static synchronized boolean isValid(BoundElement element) {
+		boolean valid = false;
+		if (element.cachedElement() != null) {
+			if (System.nanoTime() - lastValidatedNanos > tickNanos) revalidate();
+			valid = cached.containsKey(element);
+		}
+		count(element, valid ? HITS : MISSES);
+		return valid;
+	}
+
+	/**
+	 * Caches a newly located element - unless it cannot be revalidated by its locator.
+	 * @param element the element which has just been located
+	 */
+	static synchronized void add(BoundElement element) {
+		List<String> locator = element.getContext() instanceof WebDriver ? validationLocator(element.getBy()) : null;
+		if (locator == null) {
+			element.forget();
+			return;
+		}
+		if (documentToken == null) {
+			try {
+				documentToken = (String)((JavascriptExecutor)Browser.driver).executeScript(TOKEN_SCRIPT);
+				lastValidatedNanos = System.nanoTime();
+			}
+			catch (WebDriverException e) {
+				log.debug("Could not mark the document for the element cache : " + e.getMessage());
+				element.forget();
+				return;
+			}
+		}
+		cached.put(element, locator);
+	}
+
+	/*
+	 * The locator as [kind, locator] for the validation script, from its description (By.toString(), which an
+	 * interned By gives as its original XPath even when it locates by CSS) - or null if the script cannot evaluate it.
+	 */
+	private static List<String> validationLocator(By by) {
+		String description = by.toString();
+		String value = description.substring(description.indexOf(':') + 1).trim();
+		if (description.startsWith("By.xpath:")) return Arrays.asList("xpath", value);
+		if (description.startsWith("By.cssSelector:")) return Arrays.asList("css", value);
+		if (description.startsWith("By.id:")) return Arrays.asList("css", "[id=" + Locators.cssLiteral(value) + "]");
+		if (description.startsWith("By.name:")) return Arrays.asList("css", "[name=" + Locators.cssLiteral(value) + "]");
+		if (description.startsWith("By.className:")) return Arrays.asList("css", "[class~=" + Locators.cssLiteral(value) + "]");
+		if (description.startsWith("By.tagName:")) return Arrays.asList("css", value);
+		return null;
+	}
+
+	/**
+	 * Records that the cached element was stale when used, and drops it from the cache.
+	 * @param element the element which was stale
+	 */
+	static synchronized void stale(BoundElement element) {
+		cached.remove(element);
+		element.forget();
+		count(element, STALE);
+	}
+
+	/*
+	 * One script checks every cached element - if any cannot be checked (e.g. the browser has been restarted,
+	 * or the driver has switched frame), the cache is emptied.
+	 */
+	private static void revalidate() {
+		lastValidatedNanos = System.nanoTime();
+		if (cached.isEmpty() || documentToken == null) return;
+		revalidations++;
+		List<BoundElement> checked = new ArrayList<>(cached.keySet());
+		List<WebElement> elements = new ArrayList<>();
+		List<List<String>> locators = new ArrayList<>();
+		for (BoundElement element : checked) {
+			elements.add(element.cachedElement());
+			locators.add(cached.get(element));
+		}
+		List<?> valid;
+		try {
+			valid = (List<?>)((JavascriptExecutor)Browser.driver).executeScript(VALIDATE_SCRIPT, documentToken, elements, locators);
+		}
+		catch (WebDriverException e) {
+			log.debug("Could not revalidate the element cache, so emptying it : " + e.getMessage());
+			invalidateAll();
+			return;
+		}
+		if (valid == null || valid.size() != elements.size()) {
+			invalidateAll();
+			return;
+		}
+		for (int i = 0; i < valid.size(); i++) {
+			if (!Boolean.TRUE.equals(valid.get(i))) {
+				cached.remove(checked.get(i));
+				checked.get(i).forget();
+			}
+		}
+	}
+
+	private static void count(BoundElement element, int index) {
+		long[] elementCounts = counts.get(element.getName());
+		if (elementCounts == null) {
+			elementCounts = new long[3];
+			counts.put(element.getName(), elementCounts);
+		}
+		elementCounts[index]++;
+	}
+
+	/**
+	 * Writes the hit rate per element, and summarises it for the run.
+	 * @param reportFile the file to write
+	 * @return a one line summary for the run summary, or null if nothing was cached.
+	 */
+	public static synchronized String writeReport(File reportFile) {
+		if (counts.isEmpty()) return null;
+		long[] totals = new long[3];
+		List<Map.Entry<String, long[]>> ranked = new ArrayList<>(counts.entrySet());
+		for (Map.Entry<String, long[]> entry : ranked) {
+			for (int i = 0; i < totals.length; i++) totals[i] += entry.getValue()[i];
+		}
+		ranked.sort((a, b) -> Long.compare(b.getValue()[HITS] + b.getValue()[MISSES], a.getValue()[HITS] + a.getValue()[MISSES]));
+
+		reportFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(reportFile, "UTF-8")) {
+			out.println("Element cache by element (" + revalidations + " revalidations, " + invalidations + " invalidations)");
+			out.println(String.format("%8s %8s %6s %6s  %s", "hits", "misses", "hit %", "stale", "element"));
+			for (Map.Entry<String, long[]> entry : ranked) {
+				long[] elementCounts = entry.getValue();
+				out.println(String.format("%8d %8d %6.1f %6d  %s", elementCounts[HITS], elementCounts[MISSES],
+						hitRate(elementCounts), elementCounts[STALE], entry.getKey()));
+			}
+			log.info("Element cache report written to " + reportFile);
+		}
+		catch (IOException e) {
+			log.warn("Could not write element cache report to " + reportFile, e);
+		}
+		return String.format("Element cache : %d hits, %d misses (%.1f%% hit rate), %d stale retries, %d revalidations",
+				totals[HITS], totals[MISSES], hitRate(totals), totals[STALE], revalidations);
+	}
+
+	private static double hitRate(long[] elementCounts) {
+		long uses = elementCounts[HITS] + elementCounts[MISSES];
+		return uses == 0 ? 0 : 100.0 * elementCounts[HITS] / uses;
+	}
+}
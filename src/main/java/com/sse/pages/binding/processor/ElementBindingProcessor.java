@@ -0,0 +1,244 @@
+package com.sse.pages.binding.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor generating an ElementBinder for each class declaring @FindBy fields, so that pages
+ * can be bound without PageFactory's reflection and proxies (see com.sse.pages.binding.ElementBindings).
+ * <p>For a page class com.sse.pages.X it generates com.sse.pages.X_ElementBinder, which holds the By for each
+ * field as a constant and assigns each field a BoundElement (or BoundElementList) when a page is constructed.
+ * XPath and CSS locators are interned through com.sse.utilities.Locators, so they are validated once and profiled.
+ * <p>As PageFactory does, a WebElement field without @FindB* is bound too, located by its name as id or name
+ * (ByIdOrName) - so it is never left null where PageFactory would have assigned it.
+ * <p>The generated code assigns the fields directly, so these fields must not be private. A class which cannot
+ * be bound - a private, static or final @FindBy (or unannotated WebElement) field, a field of any type other than WebElement or
+ * List&lt;WebElement&gt;, @FindBys/@FindAll, or a nested class - gets a warning and no binder, and is then bound
+ * by PageFactory at run time as before. An invalid @FindBy (no strategy, or more than one) is an error.
+ * <p>The processor is compiled before the rest of the sources and run by the second compiler execution in the pom.
+ * @author atul
+ *
+ */
+@SupportedAnnotationTypes({ElementBindingProcessor.FIND_BY, ElementBindingProcessor.FIND_BYS, ElementBindingProcessor.FIND_ALL})
+public final class ElementBindingProcessor extends AbstractProcessor {
+
+	static final String FIND_BY = "org.openqa.selenium.support.FindBy";
+	static final String FIND_BYS = "org.openqa.selenium.support.FindBys";
+	static final String FIND_ALL = "org.openqa.selenium.support.FindAll";
+	private static final String CACHE_LOOKUP = "org.openqa.selenium.support.CacheLookup";
+	private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+	private static final String BINDER_SUFFIX = "_ElementBinder"; // as ElementBindings.BINDER_SUFFIX
+	private static final String BINDING_PACKAGE = "com.sse.pages.binding";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> pageClasses = new LinkedHashSet<>();
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.FIELD) pageClasses.add((TypeElement)element.getEnclosingElement());
+			}
+		}
+		for (TypeElement pageClass : pageClasses) {
+			List<String[]> bindings = bindings(pageClass);
+			if (bindings != null) writeBinder(pageClass, bindings);
+		}
+		return false; // PageFactory still uses the annotations
+	}
+
+	/*
+	 * Returns, for each field, {field, By expression, BoundElement or BoundElementList} - or null if the class cannot be bound.
+	 */
+	private List<String[]> bindings(TypeElement pageClass) {
+		if (pageClass.getNestingKind() != NestingKind.TOP_LEVEL) {
+			return cannotBind(pageClass, "it is not a top-level class");
+		}
+		List<String[]> bindings = new ArrayList<>();
+		for (Element member : pageClass.getEnclosedElements()) {
+			if (member.getKind() != ElementKind.FIELD) continue;
+			VariableElement field = (VariableElement)member;
+			AnnotationMirror findBy = null;
+			for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+				String annotationName = annotation.getAnnotationType().toString();
+				if (annotationName.equals(FIND_BYS) || annotationName.equals(FIND_ALL)) {
+					return cannotBind(pageClass, field + " uses @FindBys/@FindAll");
+				}
+				if (annotationName.equals(CACHE_LOOKUP)) {
+					return cannotBind(pageClass, field + " uses @CacheLookup");
+				}
+				if (annotationName.equals(FIND_BY)) findBy = annotation;
+			}
+			Set<Modifier> modifiers = field.getModifiers();
+			if (findBy == null) {
+				// PageFactory locates an unannotated WebElement field (but not List) by its name, as id or name
+				if (!field.asType().toString().equals(WEB_ELEMENT)) continue;
+				if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+					return cannotBind(pageClass, field + " has no @FindBy, so is located by id or name, but is private, static or final");
+				}
+				String name = field.getSimpleName().toString();
+				bindings.add(new String[] {name, byFactory("idorname", literal(name)), BINDING_PACKAGE + ".BoundElement"});
+				continue;
+			}
+
+
+			if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+				return cannotBind(pageClass, field + " is private, static or final");
+			}
+			String elementClass = elementClass(field.asType());
+			if (elementClass == null) {
+				return cannotBind(pageClass, field + " is neither a WebElement nor a List<WebElement>");
+			}
+			String by = by(field, findBy);
+			if (by == null) return null;
+			bindings.add(new String[] {field.getSimpleName().toString(), by, elementClass});
+		}
+		return bindings;
+	}
+
+	private List<String[]> cannotBind(TypeElement pageClass, String reason) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+				"No element binder generated for " + pageClass + " (it will be bound by PageFactory) as " + reason, pageClass);
+		return null;
+	}
+
+	private String elementClass(TypeMirror type) {
+		if (type.toString().equals(WEB_ELEMENT)) return BINDING_PACKAGE + ".BoundElement";
+		if (type instanceof DeclaredType) {
+			DeclaredType declared = (DeclaredType)type;
+			if (declared.asElement().toString().equals("java.util.List") && declared.getTypeArguments().size() == 1 &&
+					declared.getTypeArguments().get(0).toString().equals(WEB_ELEMENT)) {
+				return BINDING_PACKAGE + ".BoundElementList";
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * The By expression for the @FindBy - exactly one of its strategies (or how and using) must be set.
+	 */
+	private String by(VariableElement field, AnnotationMirror findBy) {
+		String how = null;
+		String using = null;
+		List<String> strategies = new ArrayList<>();
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : findBy.getElementValues().entrySet()) {
+			String attribute = value.getKey().getSimpleName().toString();
+			if (attribute.equals("how")) {
+				how = value.getValue().getValue().toString();
+			}
+			else if (attribute.equals("using")) {
+				using = (String)value.getValue().getValue();
+			}
+			else {
+				strategies.add(byFactory(attribute, literal((String)value.getValue().getValue())));
+			}
+		}
+		if (how != null && !how.equals("UNSET")) {
+			if (using == null) return invalid(field, "how is set without using");
+			strategies.add(byFactory(how, literal(using)));
+		}
+		if (strategies.size() != 1) return invalid(field, "it must have exactly one strategy, but has " + strategies.size());
+		if (strategies.get(0) == null) return invalid(field, "its strategy is not supported");
+		return strategies.get(0);
+	}
+
+	private String invalid(VariableElement field, String reason) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Invalid @FindBy on " + field + " : " + reason, field);
+		return null;
+	}
+
+	/*
+	 * Maps a @FindBy attribute, or a How constant, to the equivalent By - interned by Locators for XPath and CSS.
+	 */
+	private static String byFactory(String strategy, String literal) {
+		switch (strategy.replace("_", "").toLowerCase(Locale.ROOT)) {
+		case "classname" : return "org.openqa.selenium.By.className(" + literal + ")";
+		case "css" : return "com.sse.utilities.Locators.css(" + literal + ")";
+		case "id" : return "org.openqa.selenium.By.id(" + literal + ")";
+		case "idorname" : return "new org.openqa.selenium.support.pagefactory.ByIdOrName(" + literal + ")";
+		case "linktext" : return "org.openqa.selenium.By.linkText(" + literal + ")";
+		case "name" : return "org.openqa.selenium.By.name(" + literal + ")";
+		case "partiallinktext" : return "org.openqa.selenium.By.partialLinkText(" + literal + ")";
+		case "tagname" : return "org.openqa.selenium.By.tagName(" + literal + ")";
+		case "xpath" : return "com.sse.utilities.Locators.xpath(" + literal + ")";
+		default : return null;
+		}
+	}
+
+	private String literal(String value) {
+		return processingEnv.getElementUtils().getConstantExpression(value);
+	}
+
+	private void writeBinder(TypeElement pageClass, List<String[]> bindings) {
+		PackageElement pageClassPackage = processingEnv.getElementUtils().getPackageOf(pageClass);
+		String packageName = pageClassPackage.getQualifiedName().toString();
+		String pageName = pageClass.getSimpleName().toString();
+		String binderName = pageName + BINDER_SUFFIX;
+		try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(
+				(packageName.isEmpty() ? "" : packageName + ".") + binderName, pageClass).openWriter())) {
+			if (!packageName.isEmpty()) {
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Binds the @FindBy fields declared by {@link " + pageName + "}.");
+			out.println(" * <p>Generated by " + ElementBindingProcessor.class.getSimpleName() + " - do not edit.");
+			out.println(" */");
+			out.println("@javax.annotation.processing.Generated(\"" + ElementBindingProcessor.class.getName() + "\")");
+			out.println("public final class " + binderName + " implements " + BINDING_PACKAGE + ".ElementBinder<" + pageName + "> {");
+			for (String[] binding : bindings) {
+				out.println();
+				out.println("\t/**");
+				out.println("\t * Locates {@link " + pageName + "#" + binding[0] + "}.");
+				out.println("\t */");
+				out.println("\tpublic static final org.openqa.selenium.By " + constantName(binding[0]) + " = " + binding[1] + ";");
+			}
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic void bind(" + pageName + " page, org.openqa.selenium.SearchContext context) {");
+			for (String[] binding : bindings) {
+				out.println("\t\tpage." + binding[0] + " = new " + binding[2] + "(\"" + pageName + "." + binding[0] + "\", " +
+						constantName(binding[0]) + ", context);");
+			}
+			out.println("\t}");
+			out.println("}");
+		}
+		catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + binderName + " : " + e, pageClass);
+		}
+	}
+
+	/*
+	 * e.g. accountsTab -> ACCOUNTS_TAB
+	 */
+	private static String constantName(String fieldName) {
+		return fieldName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+	}
+}
@@ -11,10 +11,10 @@ import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.TimeoutException;
 
 import com.sse.pages.Pages;
 import com.sse.utilities.Browser;
-import com.sse.utilities.StringUtilities;
 import com.sse.utilities.WaitUtilities;
 
 import io.cucumber.java.Scenario;
@@ -190,13 +190,11 @@ public class ScenarioData implements Serializable {
 	 * @param urlKey keyvalue of the map.
 	 */
 	public void storeUrlToMyGeneralMap(String urlKey) {
-		Pages.scenarioData.getMyGeneralMap().put(urlKey, Browser.driver.getCurrentUrl());
-		int count = 0;
-		while(count<10) {
-			count++;
-			if(!StringUtilities.isNullEmptyOrWhiteSpace((String)Pages.scenarioData.getMyGeneralMap().get(urlKey)))
-				break;
-			WaitUtilities.sleep(1);
+		try {
+			Pages.scenarioData.getMyGeneralMap().put(urlKey, WaitUtilities.waitForCurrentUrl(10));
+		}
+		catch (TimeoutException e) {
+			log.warn("Current url still blank after 10 seconds " + e.getMessage());
 			Pages.scenarioData.getMyGeneralMap().put(urlKey, Browser.driver.getCurrentUrl());
 		}
 		log.info("Url stored as:\n"+urlKey+": "+Pages.scenarioData.getMyGeneralMap().get(urlKey));
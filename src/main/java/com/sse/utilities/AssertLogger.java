@@ -120,6 +120,27 @@ public final class AssertLogger {
 		}
 	}
 
+	/**
+	 * Asserts that a timing is within its limit, and logs the outcome to the run summary whether or not it passes.
+	 * <p>If RETHROW is true, then a timing over its limit fails the corresponding test.
+	 * @param descriptionOfAssertionMessage what was timed, e.g. "Accounts page load"
+	 * @param actualMillis the time taken (or percentile of times taken) in milliseconds
+	 * @param limitMillis the maximum time allowed in milliseconds
+	 */
+	public static void assertWithin(String descriptionOfAssertionMessage, long actualMillis, long limitMillis) {
+		String description = descriptionOfAssertionMessage + " took " + actualMillis / 1000.0 +
+				" seconds (limit " + limitMillis / 1000.0 + " seconds)";
+		try {
+			org.junit.Assert.assertTrue(description, actualMillis <= limitMillis);
+			log.info(description + " ... passed!");
+			RUN_SUMMARY.info(description + " ... passed");
+		}
+		catch (Throwable t) {
+			logThrowable(description, t);
+			if (RETHROW) throw t;
+		}
+	}
+
 	/**
 	 * @param descriptionOfAssertionMessage replica of assert message
 	 * @param t the Throwable to log
@@ -17,7 +17,10 @@ import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.sse.pages.binding.ElementCache;
 import com.sse.utilities.configuration.PropertiesHolder;
+import com.sse.utilities.timers.FlightRecorderEvents.BrowserEvent;
+import com.sse.utilities.timers.HierarchicalStopWatchController;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
 
@@ -36,32 +39,35 @@ public final class Browser {
 	 * The global default driver wait.
 	 */
 	public static WebDriverWait defaultDriverWait;
-    private static final long DEFAULT_WAIT_TIMEOUT_SECS = 61;
+    static final long DEFAULT_WAIT_TIMEOUT_SECS = 61;
     private static final long DEFAULT_SLEEP_TIMEOUT_MILLIS = 200;
 
 	/**
 	 * A driver wait to be used for very long wait times.
 	 */
 	public static WebDriverWait longDriverWait;
-	private static final long LONG_WAIT_TIMEOUT_SECS = 360;
+	static final long LONG_WAIT_TIMEOUT_SECS = 360;
 	private static final long LONG_SLEEP_TIMEOUT_MILLIS = 200;
 	/**
 	 * A driver wait to be used for short wait times.
 	 */
 	public static WebDriverWait shortDriverWait;
-	private static final long SHORT_WAIT_TIMEOUT_SECS = 7;
+	static final long SHORT_WAIT_TIMEOUT_SECS = 7;
 	private static final long SHORT_SLEEP_TIMEOUT_MILLIS = 200;
 
 	/**
 	 * Driver with 15 second wait time
 	 */
 	public static WebDriverWait driverWait15Seconds;
+	static final long WAIT_15_SECONDS = 15;
 	/**
 	 * Driver with 2 second wait time
 	 */
 	public static WebDriverWait driverWait2Seconds;
+	static final long WAIT_2_SECONDS = 2;
 
 	private static Logger log = LogManager.getLogger(Browser.class);
+	private static volatile boolean open;
 
 
 
@@ -107,8 +113,16 @@ public final class Browser {
 		defaultDriverWait  = new WebDriverWait(driver, DEFAULT_WAIT_TIMEOUT_SECS, DEFAULT_SLEEP_TIMEOUT_MILLIS);
 		longDriverWait  = new WebDriverWait(driver, LONG_WAIT_TIMEOUT_SECS, LONG_SLEEP_TIMEOUT_MILLIS);
 		shortDriverWait  = new WebDriverWait(driver, SHORT_WAIT_TIMEOUT_SECS, SHORT_SLEEP_TIMEOUT_MILLIS);
-		driverWait15Seconds = new WebDriverWait(driver, 15, 200);
-		driverWait2Seconds = new WebDriverWait(driver, 2, 200);
+		driverWait15Seconds = new WebDriverWait(driver, WAIT_15_SECONDS, 200);
+		driverWait2Seconds = new WebDriverWait(driver, WAIT_2_SECONDS, 200);
+		open = true;
+	}
+
+	/**
+	 * @return true if the browser has been initialised and not yet closed.
+	 */
+	public static boolean isOpen() {
+		return open;
 	}
 
 	/**
@@ -116,7 +130,17 @@ public final class Browser {
 	 * @param url the URL
 	 */
 	public static void goTo(String url) {
-		driver.get(url);
+		BrowserEvent event = new BrowserEvent();
+		event.begin();
+		HierarchicalStopWatchController.webDriverWatch.start();
+		try {
+			driver.get(url);
+		}
+		finally {
+			HierarchicalStopWatchController.webDriverWatch.stop();
+			ElementCache.invalidateAll();
+			commit(event, "navigate", url);
+		}
 	}
 
 	/**
@@ -143,6 +167,7 @@ public final class Browser {
 				driver.switchTo().window(handle);
 				driver.close();
 			}
+			open = false;
 		}
 	}
 
@@ -166,7 +191,17 @@ public final class Browser {
      * Refresh the current page.
      */
     public static void refreshPage(){
-    	driver.navigate().refresh();
+    	BrowserEvent event = new BrowserEvent();
+    	event.begin();
+    	HierarchicalStopWatchController.webDriverWatch.start();
+    	try {
+    		driver.navigate().refresh();
+    	}
+    	finally {
+    		HierarchicalStopWatchController.webDriverWatch.stop();
+    		ElementCache.invalidateAll();
+    		commit(event, "refresh", null);
+    	}
     }
 
     /**
@@ -182,6 +217,9 @@ public final class Browser {
      * @param filePath the path to the storage location
      */
     public static void screenShot(String filePath) {
+    	BrowserEvent event = new BrowserEvent();
+    	event.begin();
+    	HierarchicalStopWatchController.reportingWatch.start();
     	try {
     		TakesScreenshot ts = (TakesScreenshot)(driver);
     		File src = ts.getScreenshotAs(OutputType.FILE);
@@ -190,6 +228,22 @@ public final class Browser {
     	catch (Exception e) {
     		log.warn("Screenshot exception storing in filePath " + filePath,e);
 		}
+    	finally {
+    		HierarchicalStopWatchController.reportingWatch.stop();
+    		commit(event, "screenshot", filePath);
+    	}
+    }
+
+    /*
+     * Records the flight recorder event, if a recording wants it.
+     */
+    private static void commit(BrowserEvent event, String action, String target) {
+    	event.end();
+    	if (event.shouldCommit()) {
+    		event.action = action;
+    		event.target = target;
+    		event.commit();
+    	}
     }
 
     /**
@@ -0,0 +1,173 @@
+package com.sse.utilities;
+
+/**
+ * Translates an XPath to the equivalent CSS selector, where the XPath only uses what CSS can express with the
+ * same meaning : descendant (//) and child (/) steps from the document, element names and *, and predicates
+ * which test attributes - @a, @a='v', contains(@a,'v') and starts-with(@a,'v') - joined by "and". For example
+ * <pre>
+	//input[contains(@placeholder,'Search apps')]     input[placeholder*="Search apps"]
+	//*[@data-key='notification']                     *[data-key="notification"]
+ * </pre>
+ * Anything else - text(), positions, parent steps, "or", functions of the context node - has no CSS equivalent,
+ * and the XPath is not translated.
+ * <p>Attribute values in HTML may compare case-insensitively in CSS where they do not in XPath (e.g. type), so a
+ * translation is only a proposal until LocatorProfiler has found it matches the same elements in the page.
+ * @author atul
+ */
+final class CssTranslation {
+
+	private final String xpath;
+	private final StringBuilder css = new StringBuilder();
+	private int position;
+
+	private CssTranslation(String xpath) {
+		this.xpath = xpath;
+	}
+
+	/**
+	 * @param xpath an XPath
+	 * @return the equivalent CSS selector, or null if the XPath has none.
+	 */
+	static String translate(String xpath) {
+		try {
+			return new CssTranslation(xpath.trim()).path();
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private String path() {
+		if (!xpath.startsWith("//")) throw untranslatable();
+		while (position < xpath.length()) {
+			String combinator;
+			if (xpath.startsWith("//", position)) {
+				position += 2;
+				combinator = " ";
+			}
+			else if (xpath.startsWith("/", position)) {
+				position++;
+				combinator = " > ";
+			}
+			else {
+				throw untranslatable();
+			}
+			if (css.length() > 0) css.append(combinator);
+			step();
+		}
+		return css.toString();
+	}
+
+	private void step() {
+		if (at('*')) {
+			position++;
+			css.append('*');
+		}
+		else {
+			String name = name();
+			// An axis (e.g. ancestor::) or node test (e.g. text())
+			if (at(':') || at('(')) throw untranslatable();
+			css.append(name);
+		}
+		while (at('[')) {
+			position++;
+			term();
+			while (xpath.startsWith("and", position) && isSpaceOrAt(position + 3)) {
+				position += 3;
+				term();
+			}
+			expect(']');
+		}
+	}
+
+	private void term() {
+		skipSpaces();
+		if (at('@')) {
+			position++;
+			String attribute = name();
+			skipSpaces();
+			if (at('=')) {
+				position++;
+				skipSpaces();
+				css.append('[').append(attribute).append('=').append(Locators.cssLiteral(literal())).append(']');
+			}
+			else {
+				css.append('[').append(attribute).append(']');
+			}
+		}
+		else if (xpath.startsWith("contains(", position)) {
+			position += "contains(".length();
+			attributeFunction("*=");
+		}
+		else if (xpath.startsWith("starts-with(", position)) {
+			position += "starts-with(".length();
+			attributeFunction("^=");
+		}
+		else {
+			throw untranslatable();
+		}
+		skipSpaces();
+	}
+
+	/*
+	 * The rest of contains(@a,'v') or starts-with(@a,'v'). CSS matches nothing for an empty value where XPath
+	 * matches everything, so an empty value is not translated.
+	 */
+	private void attributeFunction(String operator) {
+		skipSpaces();
+		expect('@');
+		String attribute = name();
+		skipSpaces();
+		expect(',');
+		skipSpaces();
+		String value = literal();
+		skipSpaces();
+		expect(')');
+		if (value.isEmpty()) throw untranslatable();
+		css.append('[').append(attribute).append(operator).append(Locators.cssLiteral(value)).append(']');
+	}
+
+	private String name() {
+		int start = position;
+		if (position < xpath.length() && (Character.isLetter(xpath.charAt(position)) || xpath.charAt(position) == '_')) {
+			position++;
+			while (position < xpath.length() && (Character.isLetterOrDigit(xpath.charAt(position)) ||
+					xpath.charAt(position) == '_' || xpath.charAt(position) == '-')) {
+				position++;
+			}
+		}
+		if (position == start) throw untranslatable();
+		return xpath.substring(start, position);
+	}
+
+	private String literal() {
+		if (!at('\'') && !at('"')) throw untranslatable();
+		char quote = xpath.charAt(position);
+		int end = xpath.indexOf(quote, position + 1);
+		if (end < 0) throw untranslatable();
+		String value = xpath.substring(position + 1, end);
+		position = end + 1;
+		return value;
+	}
+
+	private boolean at(char c) {
+		return position < xpath.length() && xpath.charAt(position) == c;
+	}
+
+	private boolean isSpaceOrAt(int index) {
+		return index < xpath.length() && (Character.isWhitespace(xpath.charAt(index)) || xpath.charAt(index) == '@');
+	}
+
+	private void skipSpaces() {
+		while (position < xpath.length() && Character.isWhitespace(xpath.charAt(position))) position++;
+	}
+
+	private void expect(char c) {
+		if (!at(c)) throw untranslatable();
+		position++;
+	}
+
+	private static IllegalArgumentException untranslatable() {
+		return new IllegalArgumentException("No CSS equivalent");
+	}
+}
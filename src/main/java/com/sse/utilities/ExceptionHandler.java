@@ -80,9 +80,9 @@ public final class ExceptionHandler {
 
 	@SuppressWarnings({ "unused", "javadoc" })
 	public static void splash(String message, Throwable e) {
+		//ErrorSplash only returns once it has been displayed for its wait time, so no need to sleep here as well.
 		if (e == null) new ErrorSplash(6000, message, Color.GREEN);
 		else new ErrorSplash(6000, message + " : " + e, Color.RED);
-		WaitUtilities.sleep(15);
 	}
 
 	/**
@@ -0,0 +1,279 @@
+package com.sse.utilities;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+
+/**
+ * Fills in the fields of a Lightning edit form (e.g. the edit modal) from a label -&gt; value map with one script,
+ * rather than a clickable wait, clear, sendKeys and TAB per field - then reads them all back with one more.
+ * <p>Each label is found by the label forms of BasePage's *_BEGIN XPaths (TEXT_EDIT_BEGIN, CHECKBOX_EDIT_BEGIN,
+ * DATE_BEGIN, TEXT_BEGIN, TEXT_AREA_BEGIN - exact or contains() as each of them is), and its input by the matching
+ * *_END XPath, trying each form in turn within the form only. Text inputs, text areas and date
+ * inputs are set through the native value setter, so the framework sees the change, followed by the input, change
+ * and blur events which typing and TAB would have fired. Checkboxes are clicked if they are not already as required
+ * ("true" or "false").
+ * <p>Lookups, picklists and anything else which needs the user's interaction - or which could not be found - are
+ * left for the caller to fill interactively. Typical usage :
+ * <pre>
+	FormFiller.Result result = FormFiller.fill(EDIT_MODAL_XPATH, values);
+	for (String label : result.getInteractive().keySet()) ... fill it as before ...
+	Map&lt;String, String&gt; mismatches = FormFiller.verify(EDIT_MODAL_XPATH, result.getFilled());
+ * </pre>
+ * @author atul
+ */
+public final class FormFiller {
+	private static Logger log = LogManager.getLogger(FormFiller.class);
+
+	/*
+	 * The label XPath (relative to the form, %s being the label literal) and input XPath (relative to the label) of
+	 * each way a field is labelled, in the order tried - as BasePage's *_BEGIN and *_END XPaths.
+	 */
+	private static final String[][] LABEL_FORMS = {
+			// TEXT_EDIT_BEGIN, DATE_EDIT_BEGIN and TEXT_AREA_EDIT_BEGIN
+			{".//label[@data-aura-class='uiLabel']//span[text()=%s]", "../..//input | ../..//textarea"},
+			// CHECKBOX_EDIT_BEGIN
+			{".//label[@class='slds-checkbox__label']//span[text()=%s]", "../..//input"},
+			// DATE_BEGIN
+			{".//label[@class='slds-form-element__label'][text()=%s]", "..//input"},
+			// TEXT_BEGIN
+			{".//label[@class='slds-form-element__label slds-no-flex'][contains(text(),%s)]", "../..//input"},
+			// TEXT_AREA_BEGIN
+			{".//*[@class='slds-form-element__label'][contains(text(),%s)]", "../..//textarea"}
+	};
+
+	/*
+	 * Numbers are compared without currency symbols, grouping separators and spaces
+	 */
+	private static final String NUMBER_DECORATION = "[\\s,\u00a3$\u20ac%]";
+	private static final List<DateTimeFormatter> DATE_FORMATS = Arrays.asList(DateTimeFormatter.ofPattern("d/M/yyyy"),
+			DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH),
+			DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH));
+	private static final List<DateTimeFormatter> DATE_TIME_FORMATS = Arrays.asList(DateTimeFormatter.ofPattern("d/M/yyyy H:mm"),
+			DateTimeFormatter.ofPattern("d/M/yyyy, H:mm"), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+	/*
+	 * arguments[0] is the XPath of the form (or null for the whole page), arguments[1] a list of [label, value,
+	 * [[label XPath, input XPath], ...]]. The script returns null at once if there is no such form. Defines
+	 * resolve(field), returning [input, kind] where kind is 'text', 'date' or 'checkbox' - or [null, reason] if the
+	 * field must be filled interactively.
+	 */
+	private static final String RESOLVE_PRELUDE =
+			"var first = function(xpath, context) {" +
+			"  return document.evaluate(xpath, context, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+			"};" +
+			"var scope = arguments[0] ? first(arguments[0], document) : document;" +
+			"if (!scope) return null;" +
+			"var fields = arguments[1];" +
+			"var resolve = function(field) {" +
+			"  var forms = field[2], reason = 'label not found', input = null;" +
+			"  for (var i = 0; i < forms.length && !input; i++) {" +
+			"    var label = first(forms[i][0], scope);" +
+			"    if (!label) continue;" +
+			"    input = first(forms[i][1], label);" +
+			"    if (!input) reason = 'input not found';" +
+			"  }" +
+			"  if (!input) return [null, reason];" +
+			"  if (input.disabled || input.readOnly) return [null, 'not editable'];" +
+			"  if (input.getAttribute('role') === 'combobox' || input.getAttribute('aria-autocomplete') ||" +
+			"      input.closest('lightning-lookup, force-lookup, lightning-grouped-combobox, lightning-combobox, records-record-picker'))" +
+			"    return [null, 'lookup or picklist'];" +
+			"  if (input.tagName === 'TEXTAREA') return [input, 'text'];" +
+			"  if (input.tagName !== 'INPUT') return [null, 'lookup or picklist'];" +
+			"  var type = (input.getAttribute('type') || 'text').toLowerCase();" +
+			"  if (type === 'checkbox') return [input, 'checkbox'];" +
+			"  if (['text', 'email', 'tel', 'url', 'number', 'search', 'date', 'datetime-local', 'time'].indexOf(type) < 0)" +
+			"    return [null, type + ' input'];" +
+			"  return [input, input.closest('lightning-datepicker, .uiInputDate') || type.indexOf('date') === 0 ? 'date' : 'text'];" +
+			"};";
+
+	/*
+	 * Returns, for each field, [label, kind or null, reason or null] - or null if there is no such form.
+	 */
+	private static final String FILL_SCRIPT = RESOLVE_PRELUDE +
+			"var fire = function(e, type) { e.dispatchEvent(new Event(type, {bubbles: true, composed: true})); };" +
+			"return fields.map(function(field) {" +
+			"  var resolved = resolve(field), input = resolved[0];" +
+			"  if (!input) return [field[0], null, resolved[1]];" +
+			"  if (resolved[1] === 'checkbox') {" +
+			"    if (input.checked !== (String(field[1]).toLowerCase() === 'true')) input.click();" +
+			"  } else {" +
+			"    var prototype = input.tagName === 'TEXTAREA' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;" +
+			"    Object.getOwnPropertyDescriptor(prototype, 'value').set.call(input, field[1]);" +
+			"    fire(input, 'input');" +
+			"    fire(input, 'change');" +
+			"    input.dispatchEvent(new FocusEvent('blur'));" +
+			"    input.dispatchEvent(new FocusEvent('focusout', {bubbles: true, composed: true}));" +
+			"  }" +
+			"  return [field[0], resolved[1], null];" +
+			"});";
+
+	/*
+	 * Returns, for each field, [label, its value now ("true"/"false" for a checkbox), or null if it cannot be found]
+	 * - or null if there is no such form.
+	 */
+	private static final String READ_SCRIPT = RESOLVE_PRELUDE +
+			"return fields.map(function(field) {" +
+			"  var resolved = resolve(field), input = resolved[0];" +
+			"  if (!input) return [field[0], null];" +
+			"  return [field[0], resolved[1] === 'checkbox' ? String(input.checked) : input.value];" +
+			"});";
+
+	private FormFiller() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Fills in every field which can be filled without interaction, with one script.
+	 * @param formXpath the XPath of the form, e.g. the edit modal - or null for the whole page
+	 * @param values label -&gt; value, where the value of a checkbox is "true" or "false"
+	 * @return the fields filled, and those left to be filled interactively
+	 * @throws NoSuchElementException if formXpath is given but matches nothing
+	 */
+	public static Result fill(String formXpath, Map<String, String> values) {
+		Result result = new Result();
+		if (values.isEmpty()) return result;
+		long startNanos = System.nanoTime();
+		List<?> filled = (List<?>)((JavascriptExecutor)Browser.driver).executeScript(FILL_SCRIPT, formXpath, fields(values));
+		if (filled == null) throw new NoSuchElementException("No form to fill matches " + formXpath);
+		for (Object outcome : filled) {
+			List<?> field = (List<?>)outcome;
+			String label = (String)field.get(0);
+			if (field.get(1) != null) {
+				result.filled.put(label, values.get(label));
+			}
+			else {
+				result.interactive.put(label, (String)field.get(2));
+			}
+		}
+		log.debug("Filled " + result.filled.size() + " of " + values.size() + " fields in " +
+				(System.nanoTime() - startNanos) / 1_000_000L + " ms - to fill interactively : " + result.interactive);
+		return result;
+	}
+
+	/**
+	 * Reads back every field with one script, and compares it with the value expected. As Lightning may reformat a
+	 * field when it loses focus, numbers are compared by value (ignoring currency symbols, grouping separators and
+	 * spaces), and dates by the date they denote (e.g. 05/03/2024, 5/3/2024, 2024-03-05 and 5 Mar 2024 are the same).
+	 * @param formXpath the XPath of the form - or null for the whole page
+	 * @param expected label -&gt; expected value, where the value of a checkbox is "true" or "false"
+	 * @return label -&gt; a description of the difference, for each field which does not have its expected value
+	 * - empty if all do.
+	 * @throws NoSuchElementException if formXpath is given but matches nothing
+	 */
+	public static Map<String, String> verify(String formXpath, Map<String, String> expected) {
+		Map<String, String> mismatches = new LinkedHashMap<>();
+		if (expected.isEmpty()) return mismatches;
+		List<?> actual = (List<?>)((JavascriptExecutor)Browser.driver).executeScript(READ_SCRIPT, formXpath, fields(expected));
+		if (actual == null) throw new NoSuchElementException("No form to verify matches " + formXpath);
+		for (Object read : actual) {
+			List<?> field = (List<?>)read;
+			String label = (String)field.get(0);
+			String value = (String)field.get(1);
+			String expectedValue = expected.get(label);
+			if (value == null) {
+				mismatches.put(label, "expected '" + expectedValue + "' but the field could not be found");
+			}
+			else if (!sameValue(value, expectedValue)) {
+				mismatches.put(label, "expected '" + expectedValue + "' but was '" + value + "'");
+			}
+		}
+		return mismatches;
+	}
+
+	/*
+	 * Each field as [label, value, [[label XPath, input XPath], ...]] for the scripts.
+	 */
+	private static List<List<Object>> fields(Map<String, String> values) {
+		List<List<Object>> fields = new ArrayList<>(values.size());
+		for (Map.Entry<String, String> value : values.entrySet()) {
+			String literal = Locators.xpathLiteral(value.getKey());
+			List<List<String>> forms = new ArrayList<>(LABEL_FORMS.length);
+			for (String[] form : LABEL_FORMS) forms.add(Arrays.asList(String.format(form[0], literal), form[1]));
+			fields.add(Arrays.asList(value.getKey(), value.getValue() == null ? "" : value.getValue(), forms));
+		}
+		return fields;
+	}
+
+	private static boolean sameValue(String actual, String expected) {
+		String expectedValue = expected == null ? "" : expected.trim();
+		String actualValue = actual.trim();
+		if (actualValue.equals(expectedValue)) return true;
+		if ("true".equalsIgnoreCase(actualValue) || "false".equalsIgnoreCase(actualValue)) return actualValue.equalsIgnoreCase(expectedValue);
+		Object actualDate = parseDate(actualValue);
+		if (actualDate != null) return actualDate.equals(parseDate(expectedValue));
+		BigDecimal actualNumber = parseNumber(actualValue);
+		BigDecimal expectedNumber = parseNumber(expectedValue);
+		return actualNumber != null && expectedNumber != null && actualNumber.compareTo(expectedNumber) == 0;
+	}
+
+	/*
+	 * The LocalDate or LocalDateTime the value denotes, or null if it is neither
+	 */
+	private static Object parseDate(String value) {
+		for (DateTimeFormatter format : DATE_FORMATS) {
+			try {
+				return LocalDate.parse(value, format);
+			}
+			catch (DateTimeParseException e) {
+				// try the next format
+			}
+		}
+		for (DateTimeFormatter format : DATE_TIME_FORMATS) {
+			try {
+				return LocalDateTime.parse(value, format);
+			}
+			catch (DateTimeParseException e) {
+				// try the next format
+			}
+		}
+		return null;
+	}
+
+	private static BigDecimal parseNumber(String value) {
+		String digits = value.replaceAll(NUMBER_DECORATION, "");
+		try {
+			return digits.isEmpty() ? null : new BigDecimal(digits);
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The outcome of filling a form.
+	 */
+	public static final class Result {
+		private final Map<String, String> filled = new LinkedHashMap<>();
+		private final Map<String, String> interactive = new LinkedHashMap<>();
+
+		/**
+		 * @return label -&gt; value of each field filled.
+		 */
+		public Map<String, String> getFilled() {
+			return Collections.unmodifiableMap(filled);
+		}
+
+		/**
+		 * @return label -&gt; the reason it was not filled (e.g. "lookup or picklist", "label not found"), for each
+		 * field left to be filled interactively.
+		 */
+		public Map<String, String> getInteractive() {
+			return Collections.unmodifiableMap(interactive);
+		}
+	}
+}
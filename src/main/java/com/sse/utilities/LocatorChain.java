@@ -0,0 +1,246 @@
+package com.sse.utilities;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * An ordered chain of locator variants for the same field - e.g. the edit page XPaths from before and after a
+ * Salesforce release - tried together rather than one after another.
+ * <p>Each poll of the wait evaluates every variant in the page with one script, and returns the element found by
+ * the first which matches, so a stale variant costs nothing rather than a full timeout. The variant which matched
+ * is remembered and tried first from then on; it is also saved, per environment and org, in
+ * history/locator-chains/&lt;environment&gt;/&lt;org host&gt;.properties (outside target, so it survives mvn clean),
+ * so later runs start with it. Typical usage :
+ * <pre>
+	protected static final LocatorChain TEXT_FIELD = LocatorChain.of("BasePage.TEXT_FIELD",
+			LocatorTemplate.xpath(TEXT_BEGIN, TEXT_END), LocatorTemplate.xpath(TEXT_EDIT_BEGIN, TEXT_EDIT_END));
+	...
+	WebElement vatNumber = TEXT_FIELD.find("VAT Number");
+ * </pre>
+ * How often each variant matched, and how often a chain matched nothing, is logged at the end of the run.
+ * @author atul
+ */
+public final class LocatorChain {
+	private static Logger log = LogManager.getLogger(LocatorChain.class);
+
+	/*
+	 * arguments[0] is the XPath of each variant, in the order to try them.
+	 * Returns [index of the first variant which matched, its element], or null if none did.
+	 */
+	private static final String PROBE_SCRIPT =
+			"var xpaths = arguments[0];" +
+			"for (var i = 0; i < xpaths.length; i++) {" +
+			"  var e = document.evaluate(xpaths[i], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+			"  if (e) return [i, e];" +
+			"}" +
+			"return null;";
+
+	// Chain name -> chain
+	private static final Map<String, LocatorChain> chains = new LinkedHashMap<>();
+	// Chain name -> the variant (as LocatorTemplate.toString()) which last matched
+	private static final Properties remembered = new Properties();
+	private static File rememberedFile;
+
+	private final String name;
+	private final LocatorTemplate[] variants;
+	private volatile int preferred;
+	private final long[] hits;
+	private long misses;
+	private long switches;
+
+	private LocatorChain(String name, LocatorTemplate[] variants) {
+		this.name = name;
+		this.variants = variants.clone();
+		this.hits = new long[variants.length];
+	}
+
+	/**
+	 * @param name a name for the chain, unique within the run, e.g. "BasePage.TEXT_FIELD"
+	 * @param variants the variants, in the order to try them when none has been remembered
+	 * @return the chain
+	 * @throws IllegalArgumentException if there are no variants, or the name is already in use.
+	 */
+	public static LocatorChain of(String name, LocatorTemplate... variants) {
+		if (variants.length == 0) throw new IllegalArgumentException("Locator chain " + name + " has no variants");
+		LocatorChain chain = new LocatorChain(name, variants);
+		synchronized (LocatorChain.class) {
+			if (chains.containsKey(name)) throw new IllegalArgumentException("Locator chain " + name + " already exists");
+			chains.put(name, chain);
+			chain.applyRemembered();
+		}
+		return chain;
+	}
+
+	/**
+	 * Loads the variants which last matched in this environment and org.
+	 * @param environment the environment under test (e.g. QA)
+	 * @param orgUrl the URL of the org under test - its host identifies the org
+	 * @param directory the directory holding the remembered variants of each environment
+	 */
+	public static synchronized void load(String environment, String orgUrl, File directory) {
+		String org = "default";
+		try {
+			if (orgUrl != null && URI.create(orgUrl.trim()).getHost() != null) org = URI.create(orgUrl.trim()).getHost();
+		}
+		catch (IllegalArgumentException e) {
+			log.warn("Could not tell the org from " + orgUrl + " - remembering locator chain variants as " + org);
+		}
+		rememberedFile = new File(directory, environment + File.separator + org + ".properties");
+		remembered.clear();
+		if (rememberedFile.exists()) {
+			try (InputStream in = new FileInputStream(rememberedFile)) {
+				remembered.load(in);
+			}
+			catch (IOException e) {
+				log.warn("Could not read remembered locator chain variants " + rememberedFile, e);
+			}
+		}
+		for (LocatorChain chain : chains.values()) chain.applyRemembered();
+	}
+
+	/**
+	 * Saves the variants which last matched, for later runs against the same environment and org, and logs how
+	 * often each chain's variants matched.
+	 */
+	public static synchronized void save() {
+		for (LocatorChain chain : chains.values()) {
+			if (chain.misses > 0 || chain.total() > 0) log.info(chain.statistics());
+		}
+		if (rememberedFile == null) return; // i.e. never loaded
+		rememberedFile.getParentFile().mkdirs();
+		try (OutputStream out = new FileOutputStream(rememberedFile)) {
+			remembered.store(out, "The locator chain variant which last matched, by chain");
+		}
+		catch (IOException e) {
+			log.warn("Could not save remembered locator chain variants " + rememberedFile, e);
+		}
+	}
+
+	/**
+	 * Waits, for the default wait time, for any variant to match.
+	 * @param parameter the label, title etc.
+	 * @return the element found by the first variant which matched
+	 * @throws TimeoutException if no variant matched in time
+	 */
+	public WebElement find(String parameter) {
+		return find(parameter, (int)Browser.DEFAULT_WAIT_TIMEOUT_SECS);
+	}
+
+	/**
+	 * Waits for any variant to match.
+	 * @param parameter the label, title etc.
+	 * @param timeoutSeconds the maximum number of seconds to wait
+	 * @return the element found by the first variant which matched
+	 * @throws TimeoutException if no variant matched in time
+	 */
+	public WebElement find(String parameter, int timeoutSeconds) {
+		try {
+			return WaitUtilities.waitForElementPresentLocated(this, parameter, timeoutSeconds);
+		}
+		catch (TimeoutException e) {
+			synchronized (LocatorChain.class) {
+				misses++;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @param parameter the label, title etc.
+	 * @return the By of the variant currently tried first - the one which last matched, if any has.
+	 */
+	public By by(String parameter) {
+		return variants[preferred].by(parameter);
+	}
+
+	/**
+	 * @param parameter the label, title etc.
+	 * @return a condition returning the element found by the first variant which matches, evaluating every
+	 * variant with one script.
+	 */
+	ExpectedCondition<WebElement> located(final String parameter) {
+		final int first = preferred;
+		final List<String> xpaths = new ArrayList<>(variants.length);
+		final int[] order = new int[variants.length];
+		// The preferred variant, then the rest in their declared order
+		for (int i = 0; i < variants.length; i++) {
+			order[i] = i == 0 ? first : (i <= first ? i - 1 : i);
+			xpaths.add(variants[order[i]].xpath(parameter));
+		}
+		return new ExpectedCondition<WebElement>() {
+			@Override
+			public WebElement apply(WebDriver driver) {
+				List<?> result = (List<?>)((JavascriptExecutor)driver).executeScript(PROBE_SCRIPT, xpaths);
+				if (result == null) return null;
+				matched(order[((Number)result.get(0)).intValue()]);
+				return (WebElement)result.get(1);
+			}
+
+			@Override
+			public String toString() {
+				return "any of " + xpaths;
+			}
+		};
+	}
+
+	private void matched(int variant) {
+		synchronized (LocatorChain.class) {
+			hits[variant]++;
+			if (variant != preferred) {
+				switches++;
+				log.info("Locator chain " + name + " now tries variant " + (variant + 1) + " first : " + variants[variant]);
+				preferred = variant;
+				remembered.setProperty(name, variants[variant].toString());
+			}
+		}
+	}
+
+	private void applyRemembered() {
+		String variant = remembered.getProperty(name);
+		if (variant == null) return;
+		for (int i = 0; i < variants.length; i++) {
+			if (variants[i].toString().equals(variant)) {
+				preferred = i;
+				return;
+			}
+		}
+	}
+
+	private long total() {
+		long total = 0;
+		for (long variantHits : hits) total += variantHits;
+		return total;
+	}
+
+	private String statistics() {
+		StringBuilder statistics = new StringBuilder("Locator chain ").append(name).append(" : ");
+		for (int i = 0; i < variants.length; i++) {
+			statistics.append("variant ").append(i + 1).append(' ').append(hits[i]).append(" hits, ");
+		}
+		return statistics.append(misses).append(" misses, ").append(switches).append(" switches of variant").toString();
+	}
+
+	@Override
+	public String toString() {
+		return "Locator chain " + name;
+	}
+}
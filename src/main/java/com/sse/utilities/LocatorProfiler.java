@@ -0,0 +1,245 @@
+package com.sse.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Profiles how long each distinct locator takes to evaluate in the page, so that the deep descendant XPaths which
+ * are slow on the large Lightning DOM can be found and replaced.
+ * <p>On each page arrival (BasePage.recordArrival), every locator interned by {@link Locators} - which includes the
+ * @FindBy fields - is evaluated in the page by one script, repeatedly for a couple of milliseconds to get past the
+ * browser's timer resolution, and its time per evaluation recorded. Where an XPath has a CSS equivalent (see
+ * CssTranslation), the CSS selector is timed too, and checked to match exactly the same elements. The script stops
+ * after locatorProfilingBudgetMillis, and the next arrival carries on with the locators not yet reached.
+ * <p>With locatorProfilingApplyCss=true, an XPath whose CSS equivalent has matched the same (non-empty) elements
+ * on every page profiled, and is faster, is located by the CSS selector for the rest of the run (in searches from
+ * the driver - see Locators) - and by the XPath again should a later page find them different.
+ * <p>Enabled by locatorProfiling=true in configuration.properties. At the end of the run the locators are written,
+ * slowest first, with their proposed CSS selectors, to target/locator-profile.txt.
+ * @author atul
+ *
+ */
+public final class LocatorProfiler {
+	private static Logger log = LogManager.getLogger(LocatorProfiler.class);
+
+	/*
+	 * arguments[0] is a list of [kind, locator, css translation or null], arguments[1] the budget in ms.
+	 * Returns, for each locator reached, [microseconds, matches, css microseconds or -1, css matched the same elements].
+	 */
+	private static final String PROFILE_SCRIPT =
+			"var entries = arguments[0], budget = arguments[1], started = performance.now(), results = [];" +
+			"function time(find) {" +
+			"  var n = 0, t0 = performance.now(), t, found;" +
+			"  do { found = find(); n++; t = performance.now() - t0; } while (t < 2 && n < 50);" +
+			"  return [t * 1000 / n, found];" +
+			"}" +
+			"function byXpath(x) {" +
+			"  var s = document.evaluate(x, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), found = [];" +
+			"  for (var i = 0; i < s.snapshotLength; i++) found.push(s.snapshotItem(i));" +
+			"  return found;" +
+			"}" +
+			"function byCss(c) { return Array.prototype.slice.call(document.querySelectorAll(c)); }" +
+			"for (var i = 0; i < entries.length && performance.now() - started < budget; i++) {" +
+			"  var e = entries[i], result = [-1, 0, -1, false];" +
+			"  try {" +
+			"    var located = time(function() { return e[0] === 'xpath' ? byXpath(e[1]) : byCss(e[1]); });" +
+			"    result[0] = located[0];" +
+			"    result[1] = located[1].length;" +
+			"    if (e[2]) {" +
+			"      var css = time(function() { return byCss(e[2]); });" +
+			"      result[2] = css[0];" +
+			"      result[3] = css[1].length === located[1].length && css[1].every(function(n, j) { return n === located[1][j]; });" +
+			"    }" +
+			"  } catch (ignore) {}" +
+			"  results.push(result);" +
+			"}" +
+			"return results;";
+
+	private static final String XPATH = "xpath";
+	private static final String CSS = "css";
+
+	private static boolean enabled;
+	private static boolean applyCss;
+	private static long budgetMillis = 500;
+	// Locator -> its profile
+	private static final Map<String, LocatorProfile> profiles = new LinkedHashMap<>();
+	private static int nextLocator;
+
+	private LocatorProfiler() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * @param configuration the configuration properties
+	 */
+	public static synchronized void configure(Properties configuration) {
+		enabled = Boolean.parseBoolean(configuration.getProperty("locatorProfiling", "false"));
+		applyCss = Boolean.parseBoolean(configuration.getProperty("locatorProfilingApplyCss", "false"));
+		budgetMillis = Long.parseLong(configuration.getProperty("locatorProfilingBudgetMillis", "500").trim());
+	}
+
+	/**
+	 * Times the locators in the page just arrived at, if enabled. Never fails - if the page cannot be profiled,
+	 * it is simply skipped.
+	 * @param page the name of the page (usually its class)
+	 */
+	public static synchronized void profile(String page) {
+		if (!enabled || Browser.driver == null) return;
+		for (String xpath : Locators.internedXpaths()) addProfile(XPATH, xpath);
+		for (String cssSelector : Locators.internedCssSelectors()) addProfile(CSS, cssSelector);
+
+		List<LocatorProfile> candidates = new ArrayList<>();
+		for (LocatorProfile profile : profiles.values()) {
+			if (!profile.failed) candidates.add(profile);
+		}
+		if (candidates.isEmpty()) return;
+		// Start where the last page's budget ran out
+		List<LocatorProfile> ordered = new ArrayList<>(candidates.size());
+		for (int i = 0; i < candidates.size(); i++) ordered.add(candidates.get((nextLocator + i) % candidates.size()));
+		List<List<String>> entries = new ArrayList<>(ordered.size());
+		for (LocatorProfile profile : ordered) entries.add(Arrays.asList(profile.kind, profile.locator, profile.css));
+
+		long startNanos = System.nanoTime();
+		List<?> results;
+		try {
+			results = (List<?>)((JavascriptExecutor)Browser.driver).executeScript(PROFILE_SCRIPT, entries, Long.valueOf(budgetMillis));
+		}
+		catch (WebDriverException e) {
+			log.debug("Could not profile locators on " + page + " : " + e.getMessage());
+			return;
+		}
+		nextLocator = (nextLocator + results.size()) % candidates.size();
+		for (int i = 0; i < results.size(); i++) record(ordered.get(i), (List<?>)results.get(i));
+		log.debug("Profiled " + results.size() + " of " + candidates.size() + " locators on " + page + " in " +
+				(System.nanoTime() - startNanos) / 1_000_000L + " ms");
+	}
+
+	private static void addProfile(String kind, String locator) {
+		if (profiles.containsKey(locator)) return;
+		LocatorProfile profile = new LocatorProfile();
+		profile.kind = kind;
+		profile.locator = locator;
+		profile.css = kind.equals(XPATH) ? CssTranslation.translate(locator) : null;
+		profiles.put(locator, profile);
+	}
+
+	private static void record(LocatorProfile profile, List<?> result) {
+		double micros = ((Number)result.get(0)).doubleValue();
+		if (micros < 0) {
+			// The browser could not evaluate it - e.g. an XPath function it does not support
+			profile.failed = true;
+			return;
+		}
+		int matches = ((Number)result.get(1)).intValue();
+		profile.samples++;
+		profile.totalMicros += micros;
+		profile.maxMicros = Math.max(profile.maxMicros, micros);
+		if (matches > 0) profile.pagesMatched++;
+
+		double cssMicros = ((Number)result.get(2)).doubleValue();
+		if (profile.css == null || cssMicros < 0) return;
+		profile.cssSamples++;
+		profile.cssTotalMicros += cssMicros;
+		if (!Boolean.TRUE.equals(result.get(3))) {
+			profile.differingPages++;
+		}
+		else if (matches > 0) {
+			profile.equivalentPages++;
+		}
+		if (applyCss) {
+			boolean apply = profile.differingPages == 0 && profile.equivalentPages > 0 && profile.cssMean() < profile.mean();
+			if (apply != profile.applied) {
+				Locators.useCss(profile.locator, apply ? profile.css : null);
+				profile.applied = apply;
+				log.info((apply ? "Locating by CSS " + profile.css + " rather than XPath " : "Locating by XPath again : ") + profile.locator);
+			}
+		}
+	}
+
+	/**
+	 * Writes the locators profiled, slowest first, with their proposed CSS equivalents.
+	 * @param reportFile the file to write
+	 * @return a one line summary for the run summary, or null if nothing was profiled.
+	 */
+	public static synchronized String writeReport(File reportFile) {
+		List<LocatorProfile> ranked = new ArrayList<>();
+		int translated = 0;
+		int applied = 0;
+		for (LocatorProfile profile : profiles.values()) {
+			if (profile.samples == 0) continue;
+			ranked.add(profile);
+			if (profile.css != null && profile.differingPages == 0 && profile.equivalentPages > 0) translated++;
+			if (profile.applied) applied++;
+		}
+		if (ranked.isEmpty()) return null;
+		ranked.sort((a, b) -> Double.compare(b.mean(), a.mean()));
+
+		reportFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(reportFile, "UTF-8")) {
+			out.println("Locators by time to evaluate in the page, slowest first (microseconds per evaluation)");
+			out.println(String.format("%9s %9s %6s %8s %9s %-10s  %s", "mean", "max", "pages", "matched", "css mean", "css", "locator"));
+			for (LocatorProfile profile : ranked) {
+				out.println(String.format("%9.1f %9.1f %6d %8d %9s %-10s  %s", profile.mean(), profile.maxMicros, profile.samples,
+						profile.pagesMatched, profile.cssSamples == 0 ? "-" : String.format("%.1f", profile.cssMean()),
+						profile.cssStatus(), (profile.kind.equals(CSS) ? "css " : "") + profile.locator));
+				if (profile.css != null) out.println(String.format("%58s%s", "css : ", profile.css));
+			}
+			log.info("Locator profile written to " + reportFile);
+		}
+		catch (IOException e) {
+			log.warn("Could not write locator profile to " + reportFile, e);
+		}
+		LocatorProfile slowest = ranked.get(0);
+		return String.format("Locator profile : %d locators profiled, slowest %.0f microseconds (%s); %d CSS equivalents found, %d applied",
+				ranked.size(), slowest.mean(), slowest.locator, translated, applied);
+	}
+
+	/*
+	 * The evaluation times of one locator, and of its CSS equivalent.
+	 */
+	private static final class LocatorProfile {
+		String kind;
+		String locator;
+		String css;
+		boolean failed;
+		int samples;
+		double totalMicros;
+		double maxMicros;
+		int pagesMatched;
+		int cssSamples;
+		double cssTotalMicros;
+		int equivalentPages;
+		int differingPages;
+		boolean applied;
+
+		double mean() {
+			return samples == 0 ? 0 : totalMicros / samples;
+		}
+
+		double cssMean() {
+			return cssSamples == 0 ? 0 : cssTotalMicros / cssSamples;
+		}
+
+		/*
+		 * proposed - not yet seen to match the same elements on a page where it matched any
+		 */
+		String cssStatus() {
+			if (css == null) return "-";
+			if (applied) return "applied";
+			if (differingPages > 0) return "differs";
+			return equivalentPages > 0 ? "equivalent" : "proposed";
+		}
+	}
+}
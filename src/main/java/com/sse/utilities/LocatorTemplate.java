@@ -0,0 +1,118 @@
+package com.sse.utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.By;
+
+/**
+ * An XPath (and optionally CSS) locator with one parameter, such as a field label or page title, compiled to an
+ * interned, validated By the first time each parameter is used, and reused thereafter.
+ * <p>Templates are built from the BEGIN/END pairs used in the page classes. Where BEGIN ends and END starts with
+ * the same quote, the parameter is a string literal, and is quoted by the template - so that a label containing a
+ * quote (e.g. "Customer's Name") still gives a valid locator. Typical usage :
+ * <pre>
+	protected static final LocatorTemplate TEXT_VALUE = LocatorTemplate.xpath(TEXT_VALUE_BEGIN, TEXT_VALUE_END);
+	...
+	Browser.driver.findElement(TEXT_VALUE.by("VAT Number"));
+ * </pre>
+ * @author atul
+ */
+public final class LocatorTemplate {
+
+	private final String templateBegin;
+	private final String templateEnd;
+	private final String xpathBegin;
+	private final String xpathEnd;
+	private final boolean xpathQuoted;
+	private final String cssBegin;
+	private final String cssEnd;
+	private final boolean cssQuoted;
+	// Parameter -> {xpath, css (or null)}
+	private final Map<String, String[]> compiled = new ConcurrentHashMap<>();
+
+	private LocatorTemplate(String xpathBegin, String xpathEnd, String cssBegin, String cssEnd) {
+		this.templateBegin = xpathBegin;
+		this.templateEnd = xpathEnd;
+		this.xpathQuoted = isQuoted(xpathBegin, xpathEnd);
+		this.xpathBegin = xpathQuoted ? xpathBegin.substring(0, xpathBegin.length() - 1) : xpathBegin;
+		this.xpathEnd = xpathQuoted ? xpathEnd.substring(1) : xpathEnd;
+		this.cssQuoted = cssBegin != null && isQuoted(cssBegin, cssEnd);
+		this.cssBegin = cssQuoted ? cssBegin.substring(0, cssBegin.length() - 1) : cssBegin;
+		this.cssEnd = cssQuoted ? cssEnd.substring(1) : cssEnd;
+	}
+
+	/**
+	 * @param begin the XPath before the parameter, e.g. "//div/div/div/span[text()='"
+	 * @param end the XPath after the parameter, e.g. "']/../../div[2]/span//a"
+	 * @return the template
+	 */
+	public static LocatorTemplate xpath(String begin, String end) {
+		return new LocatorTemplate(begin, end, null, null);
+	}
+
+	/**
+	 * @param begin the CSS selector before the parameter, e.g. "a[title='"
+	 * @param end the CSS selector after the parameter, e.g. "'] > span"
+	 * @return a copy of this template which also has the equivalent CSS selector
+	 */
+	public LocatorTemplate withCss(String begin, String end) {
+		return new LocatorTemplate(templateBegin, templateEnd, begin, end);
+	}
+
+	/**
+	 * @param parameter the label, title etc.
+	 * @return the XPath for the parameter
+	 */
+	public String xpath(String parameter) {
+		return compile(parameter)[0];
+	}
+
+	/**
+	 * @param parameter the label, title etc.
+	 * @return the interned By.xpath for the parameter
+	 */
+	public By by(String parameter) {
+		return Locators.xpath(xpath(parameter));
+	}
+
+	/**
+	 * @param parameter the label, title etc.
+	 * @return the equivalent CSS selector for the parameter, or null if the template has none.
+	 */
+	public String css(String parameter) {
+		return compile(parameter)[1];
+	}
+
+	/**
+	 * @param parameter the label, title etc.
+	 * @return the interned By.cssSelector for the parameter, or null if the template has no CSS equivalent.
+	 */
+	public By cssBy(String parameter) {
+		String css = css(parameter);
+		return css == null ? null : Locators.css(css);
+	}
+
+	private String[] compile(String parameter) {
+		String[] locators = compiled.get(parameter);
+		if (locators == null) {
+			String xpath = xpathBegin + (xpathQuoted ? Locators.xpathLiteral(parameter) : parameter) + xpathEnd;
+			Locators.validateXpath(xpath);
+			String css = cssBegin == null ? null : cssBegin + (cssQuoted ? Locators.cssLiteral(parameter) : parameter) + cssEnd;
+			locators = new String[] {xpath, css};
+			if (compiled.size() < Locators.MAX_INTERNED) compiled.putIfAbsent(parameter, locators);
+		}
+		return locators;
+	}
+
+	private static boolean isQuoted(String begin, String end) {
+		if (begin.isEmpty() || end.isEmpty()) return false;
+		char quote = begin.charAt(begin.length() - 1);
+		return (quote == '\'' || quote == '"') && end.charAt(0) == quote;
+	}
+
+	@Override
+	public String toString() {
+		return templateBegin + "..." + templateEnd;
+	}
+}
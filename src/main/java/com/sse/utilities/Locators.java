@@ -0,0 +1,182 @@
+package com.sse.utilities;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Registry of interned locators, so that a page method run many times - e.g. on every poll of a wait - builds and
+ * checks each By once per run rather than on every call.
+ * <p>Each XPath is validated (parsed as XPath 1.0, as the browser does) the first time it is seen, so a malformed
+ * XPath fails at once with InvalidSelectorException rather than after a wait has timed out. Typical usage :
+ * <pre>
+	Browser.driver.findElement(Locators.xpath(TOASTMESSAGE));
+ * </pre>
+ * For XPaths built from a label or title, see {@link LocatorTemplate}.
+ * <p>When locator profiling applies CSS translations (see LocatorProfiler), an interned XPath found to be equivalent
+ * to a faster CSS selector is located by the CSS selector instead - its By still describes itself by the XPath. This
+ * applies only to searches from the driver : searched from an element, an XPath such as //x still searches the whole
+ * page whereas the CSS selector would search only within the element, so the XPath is used.
+ * @author atul
+ */
+public final class Locators {
+
+	/**
+	 * The most locators interned per registry - beyond this (e.g. XPaths built from generated record names)
+	 * locators are still validated but no longer kept.
+	 */
+	static final int MAX_INTERNED = 10_000;
+
+	private static final Map<String, InternedBy> xpaths = new ConcurrentHashMap<>();
+	private static final Map<String, InternedBy> cssSelectors = new ConcurrentHashMap<>();
+	// XPath is not thread-safe
+	private static final ThreadLocal<XPath> xpathParser = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+	private Locators() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * @param xpath an XPath
+	 * @return the interned By for the XPath
+	 * @throws InvalidSelectorException if the XPath is malformed
+	 */
+	public static By xpath(String xpath) {
+		InternedBy by = xpaths.get(xpath);
+		if (by == null) {
+			validateXpath(xpath);
+			by = intern(xpaths, xpath, new InternedBy(By.xpath(xpath)));
+		}
+		return by;
+	}
+
+	/**
+	 * @param cssSelector a CSS selector
+	 * @return the interned By for the selector
+	 */
+	public static By css(String cssSelector) {
+		InternedBy by = cssSelectors.get(cssSelector);
+		if (by == null) {
+			by = intern(cssSelectors, cssSelector, new InternedBy(By.cssSelector(cssSelector)));
+		}
+		return by;
+	}
+
+	/**
+	 * Quotes a value as an XPath string literal - in single quotes unless it contains one, in double quotes
+	 * unless it contains both, otherwise as a concat() of the two.
+	 * @param value the value, e.g. a field label
+	 * @return the XPath literal, e.g. 'VAT Number' or "Customer's Name"
+	 */
+	public static String xpathLiteral(String value) {
+		if (value.indexOf('\'') < 0) return "'" + value + "'";
+		if (value.indexOf('"') < 0) return "\"" + value + "\"";
+		StringBuilder literal = new StringBuilder("concat(");
+		String[] parts = value.split("'", -1);
+		for (int i = 0; i < parts.length; i++) {
+			if (i > 0) literal.append(", \"'\", ");
+			literal.append('\'').append(parts[i]).append('\'');
+		}
+		return literal.append(')').toString();
+	}
+
+	/**
+	 * Quotes a value as a CSS string literal.
+	 * @param value the value, e.g. a title attribute
+	 * @return the CSS literal, in double quotes with quotes and backslashes escaped
+	 */
+	public static String cssLiteral(String value) {
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	/**
+	 * @param xpath an XPath
+	 * @throws InvalidSelectorException if the XPath is malformed
+	 */
+	static void validateXpath(String xpath) {
+		try {
+			xpathParser.get().compile(xpath);
+		}
+		catch (XPathExpressionException e) {
+			throw new InvalidSelectorException("Invalid XPath " + xpath + " : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @return the XPaths interned so far.
+	 */
+	static Set<String> internedXpaths() {
+		return new HashSet<>(xpaths.keySet());
+	}
+
+	/**
+	 * @return the CSS selectors interned so far.
+	 */
+	static Set<String> internedCssSelectors() {
+		return new HashSet<>(cssSelectors.keySet());
+	}
+
+	/**
+	 * Locates an interned XPath by an equivalent CSS selector from now on.
+	 * @param xpath the interned XPath
+	 * @param cssSelector the CSS selector, or null to locate by the XPath again
+	 */
+	static void useCss(String xpath, String cssSelector) {
+		InternedBy by = xpaths.get(xpath);
+		if (by != null) by.locateBy(cssSelector == null ? by.original : By.cssSelector(cssSelector));
+	}
+
+	private static InternedBy intern(Map<String, InternedBy> registry, String locator, InternedBy by) {
+		if (registry.size() >= MAX_INTERNED) return by;
+		InternedBy interned = registry.putIfAbsent(locator, by);
+		return interned == null ? by : interned;
+	}
+
+	/*
+	 * An interned locator. Its identity (toString, and so equals and hashCode) is always the original locator's,
+	 * though it may locate by an equivalent one when searched from the driver.
+	 */
+	private static final class InternedBy extends By {
+		final By original;
+		private volatile By locator;
+
+		InternedBy(By original) {
+			this.original = original;
+			this.locator = original;
+		}
+
+		void locateBy(By equivalent) {
+			locator = equivalent;
+		}
+
+		@Override
+		public List<WebElement> findElements(SearchContext context) {
+			return locatorFor(context).findElements(context);
+		}
+
+		@Override
+		public WebElement findElement(SearchContext context) {
+			return locatorFor(context).findElement(context);
+		}
+
+		private By locatorFor(SearchContext context) {
+			return context instanceof WebElement ? original : locator;
+		}
+
+		@Override
+		public String toString() {
+			return original.toString();
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package com.sse.utilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.sse.utilities.timers.AbstractStopWatch;
+import com.sse.utilities.timers.HierarchicalStopWatchController;
+import com.sse.utilities.timers.TimingCategory;
+import com.sse.utilities.timers.WaitLatencyRecorder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An optional HTTP endpoint exposing live metrics of the run in Prometheus text format, so that a local
+ * Prometheus (or anything else which can scrape /metrics) can follow an overnight run while it is going.
+ * <p>Enabled by setting metricsPort in configuration.properties; metricsHost (default localhost) controls the
+ * address listened on. Exposes scenarios finished by status, the step each thread is on and for how long,
+ * whether the browser is open, time and count by timing category (wait, sleep, WebDriver, SOAP...),
+ * wait outcomes and JVM memory and threads.
+ * @author atul
+ */
+public final class MetricsEndpoint {
+	private static Logger log = LogManager.getLogger(MetricsEndpoint.class);
+
+	private static final String PREFIX = "l2i_";
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private static HttpServer server;
+	private static final long startMillis = System.currentTimeMillis();
+	// Cucumber status (passed, failed, skipped...) -> number of scenarios
+	private static final Map<String, AtomicLong> scenarios = new ConcurrentHashMap<>();
+	private static final AtomicLong steps = new AtomicLong();
+	// Thread name -> the step it is running
+	private static final Map<String, CurrentStep> currentSteps = new ConcurrentHashMap<>();
+
+	private static final class CurrentStep {
+		private final String scenario;
+		private final String step;
+		private final long startMillis = System.currentTimeMillis();
+
+		private CurrentStep(String scenario, String step) {
+			this.scenario = scenario;
+			this.step = step;
+		}
+	}
+
+	private MetricsEndpoint() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Starts the endpoint, if metricsPort is set.
+	 * @param configuration the configuration properties
+	 */
+	public static synchronized void start(Properties configuration) {
+		String port = configuration.getProperty("metricsPort", "").trim();
+		if (port.isEmpty() || server != null) return;
+		String host = configuration.getProperty("metricsHost", "localhost").trim();
+		try {
+			server = HttpServer.create(new InetSocketAddress(host, Integer.parseInt(port)), 0);
+			server.createContext("/metrics", MetricsEndpoint::handle);
+			server.start();
+			log.info("Metrics available at http://" + host + ":" + port + "/metrics");
+		}
+		catch (IOException e) {
+			log.warn("Could not start the metrics endpoint on " + host + ":" + port + " - continuing without it", e);
+			server = null;
+		}
+		catch (IllegalArgumentException e) {
+			// including NumberFormatException - not worth aborting the run over
+			log.warn("Invalid metricsPort " + port + " - continuing without the metrics endpoint : " + e.getMessage());
+			server = null;
+		}
+	}
+
+	/**
+	 * Stops the endpoint, if it was started.
+	 */
+	public static synchronized void stop() {
+		if (server == null) return;
+		server.stop(0);
+		server = null;
+	}
+
+	/**
+	 * Records the step the current thread is starting.
+	 * @param scenario the name of the scenario
+	 * @param step a description of the step
+	 */
+	public static void stepStarted(String scenario, String step) {
+		steps.incrementAndGet();
+		currentSteps.put(Thread.currentThread().getName(), new CurrentStep(scenario, step));
+	}
+
+	/**
+	 * Records a finished scenario.
+	 * @param status the scenario's status, e.g. PASSED
+	 */
+	public static void scenarioFinished(String status) {
+		currentSteps.remove(Thread.currentThread().getName());
+		scenarios.computeIfAbsent(status.toLowerCase(), s -> new AtomicLong()).incrementAndGet();
+	}
+
+	private static void handle(HttpExchange exchange) throws IOException {
+		byte[] body = render().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static String render() {
+		StringBuilder metrics = new StringBuilder();
+		long now = System.currentTimeMillis();
+
+		type(metrics, "run_uptime_seconds", "gauge", "Time since the run started");
+		sample(metrics, "run_uptime_seconds", "", (now - startMillis) / 1000.0);
+
+		type(metrics, "scenarios_total", "counter", "Scenarios finished, by status");
+		for (String status : new String[] {"passed", "failed", "skipped"}) {
+			scenarios.putIfAbsent(status, new AtomicLong());
+		}
+		for (Map.Entry<String, AtomicLong> entry : new TreeMap<>(scenarios).entrySet()) {
+			sample(metrics, "scenarios_total", label("status", entry.getKey()), entry.getValue().get());
+		}
+
+		type(metrics, "steps_total", "counter", "Steps started");
+		sample(metrics, "steps_total", "", steps.get());
+		type(metrics, "current_step_seconds", "gauge", "Time the step each thread is running has taken so far");
+		for (Map.Entry<String, CurrentStep> entry : currentSteps.entrySet()) {
+			CurrentStep current = entry.getValue();
+			sample(metrics, "current_step_seconds", label("thread", entry.getKey()) + "," + label("scenario", current.scenario)
+					+ "," + label("step", current.step), (now - current.startMillis) / 1000.0);
+		}
+
+		type(metrics, "browsers_active", "gauge", "Browsers currently open");
+		sample(metrics, "browsers_active", "", Browser.isOpen() ? 1 : 0);
+
+		// Each metric's samples must be grouped together, so the watches are visited once per metric.
+		type(metrics, "activity_seconds_total", "counter", "Time by timing category (WAIT, SLEEP, WEBDRIVER, SOAP...)");
+		for (AbstractStopWatch watch : watches()) {
+			sample(metrics, "activity_seconds_total", label("category", watch.getCategory().toString()), watch.getElapsedTime() / 1000.0);
+		}
+		type(metrics, "activity_total", "counter", "Number of timed activities (e.g. WebDriver navigations, SOAP calls) by timing category");
+		for (AbstractStopWatch watch : watches()) {
+			sample(metrics, "activity_total", label("category", watch.getCategory().toString()), watch.getStartCount());
+		}
+
+		type(metrics, "waits_total", "counter", "Waits made through WaitUtilities, by outcome");
+		for (Map.Entry<WaitLatencyRecorder.Outcome, Long> entry : WaitLatencyRecorder.getCountsByOutcome().entrySet()) {
+			sample(metrics, "waits_total", label("outcome", entry.getKey().toString().toLowerCase()), entry.getValue().longValue());
+		}
+
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+		type(metrics, "jvm_memory_used_bytes", "gauge", "JVM memory used");
+		sample(metrics, "jvm_memory_used_bytes", label("area", "heap"), heap.getUsed());
+		sample(metrics, "jvm_memory_used_bytes", label("area", "nonheap"), nonHeap.getUsed());
+		type(metrics, "jvm_memory_committed_bytes", "gauge", "JVM memory committed");
+		sample(metrics, "jvm_memory_committed_bytes", label("area", "heap"), heap.getCommitted());
+		sample(metrics, "jvm_memory_committed_bytes", label("area", "nonheap"), nonHeap.getCommitted());
+		type(metrics, "jvm_memory_max_bytes", "gauge", "JVM maximum heap");
+		sample(metrics, "jvm_memory_max_bytes", label("area", "heap"), heap.getMax());
+		type(metrics, "jvm_threads", "gauge", "JVM live threads");
+		sample(metrics, "jvm_threads", "", ManagementFactory.getThreadMXBean().getThreadCount());
+		return metrics.toString();
+	}
+
+	private static List<AbstractStopWatch> watches() {
+		List<AbstractStopWatch> watches = new ArrayList<>();
+		if (HierarchicalStopWatchController.getRun() == null) return watches; // i.e. controller not initialised
+		for (TimingCategory category : TimingCategory.values()) {
+			watches.add(HierarchicalStopWatchController.watch(category));
+		}
+		return watches;
+	}
+
+	private static void type(StringBuilder metrics, String name, String type, String help) {
+		metrics.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+		metrics.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder metrics, String name, String labels, double value) {
+		sample(metrics, name, labels, String.valueOf(value));
+	}
+
+	private static void sample(StringBuilder metrics, String name, String labels, long value) {
+		sample(metrics, name, labels, String.valueOf(value));
+	}
+
+	private static void sample(StringBuilder metrics, String name, String labels, String value) {
+		metrics.append(PREFIX).append(name);
+		if (!labels.isEmpty()) metrics.append('{').append(labels).append('}');
+		metrics.append(' ').append(value).append('\n');
+	}
+
+	private static String label(String name, String value) {
+		return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+	}
+}
@@ -0,0 +1,118 @@
+package com.sse.utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * Tracks the browser's in-flight server calls so that we can wait for Lightning to finish talking
+ * to Salesforce rather than sleeping for a worst-case time.
+ * <p>A small script is injected into the page which wraps XMLHttpRequest and window.fetch, counting
+ * requests in and out and noting when the last one started or finished. Aura (Lightning) actions are
+ * carried over XMLHttpRequest, so they are counted too.
+ * <p>Requests which never finish while the page is in use are not counted : the streaming API's
+ * long-poll (/cometd/, which carries notifications) and other streaming URLs (STREAMING_URL), and any
+ * request which has been open for longer than LONG_REQUEST_MILLIS. Otherwise the page would never be idle.
+ * <p>The script is (re)installed on every check as a page navigation or refresh discards it. Requests
+ * which were already in flight when it is installed cannot be seen, so a check immediately after a
+ * navigation should be preceded by some other wait (e.g. for the page title or an element).
+ * @author atul
+ */
+public final class NetworkActivityTracker {
+
+	// Requests open for longer than this are taken to be long-polls or streams, and no longer counted
+	private static final long LONG_REQUEST_MILLIS = 10_000;
+	// URLs of requests which are held open by design (the streaming API's long-poll, event streams)
+	private static final String STREAMING_URL = "/cometd/|/event/|eventsource|longpoll";
+
+	/*
+	 * arguments[0] is the quiet time in ms, arguments[1] LONG_REQUEST_MILLIS, arguments[2] STREAMING_URL.
+	 * Installs the tracker if necessary, and returns whether the page is idle.
+	 */
+	private static final String TRACKER_SCRIPT =
+			"var w = window;" +
+			"if (!w.__sseNetwork) {" +
+			"  var streaming = new RegExp(arguments[2], 'i');" +
+			"  var t = w.__sseNetwork = {pending: {}, next: 0, last: Date.now()};" +
+			"  var start = function(url) {" +
+			"    if (streaming.test(String(url || ''))) return null;" +
+			"    var id = ++t.next;" +
+			"    t.pending[id] = t.last = Date.now();" +
+			"    return id;" +
+			"  };" +
+			"  var done = function(id) {" +
+			"    if (id === null || !(id in t.pending)) return;" +
+			"    delete t.pending[id];" +
+			"    t.last = Date.now();" +
+			"  };" +
+			"  var open = XMLHttpRequest.prototype.open, send = XMLHttpRequest.prototype.send;" +
+			"  XMLHttpRequest.prototype.open = function(method, url) {" +
+			"    this.__sseUrl = url;" +
+			"    return open.apply(this, arguments);" +
+			"  };" +
+			"  XMLHttpRequest.prototype.send = function() {" +
+			"    var id = start(this.__sseUrl);" +
+			"    this.addEventListener('loadend', function() { done(id); });" +
+			"    try { return send.apply(this, arguments); } catch (e) { done(id); throw e; }" +
+			"  };" +
+			"  if (w.fetch) {" +
+			"    var f = w.fetch;" +
+			"    w.fetch = function(resource) {" +
+			"      var id = start(resource && resource.url ? resource.url : resource);" +
+			"      return f.apply(this, arguments).then(function(r) { done(id); return r; }, function(e) { done(id); throw e; });" +
+			"    };" +
+			"  }" +
+			"}" +
+			"var s = w.__sseNetwork, now = Date.now();" +
+			"for (var id in s.pending) if (now - s.pending[id] < arguments[1]) return false;" +
+			"return now - s.last >= arguments[0];";
+
+	// Returns how long ago the last counted request started or finished, or null if the tracker is not installed
+	private static final String LAST_ACTIVITY_SCRIPT =
+			"var s = window.__sseNetwork;" +
+			"return s ? Date.now() - s.last : null;";
+
+	private NetworkActivityTracker() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Installs the tracker if necessary and reports whether the page is network-idle.
+	 * @param driver the WebDriver whose current page should be checked
+	 * @param quietMillis how long there must have been no requests in flight
+	 * @return true if no requests are in flight (other than long-polls and streams) and none have started or
+	 * finished within quietMillis
+	 */
+	public static boolean isIdle(WebDriver driver, long quietMillis) {
+		return Boolean.TRUE.equals(((JavascriptExecutor)driver).executeScript(TRACKER_SCRIPT, Long.valueOf(quietMillis),
+				Long.valueOf(LONG_REQUEST_MILLIS), STREAMING_URL));
+	}
+
+	/**
+	 * @param driver the WebDriver whose current page should be checked
+	 * @return how many milliseconds ago the last request (other than long-polls and streams) started or finished,
+	 * timed by the browser - or null if the tracker is not installed in the current page.
+	 */
+	public static Long millisSinceLastActivity(WebDriver driver) {
+		Object millis = ((JavascriptExecutor)driver).executeScript(LAST_ACTIVITY_SCRIPT);
+		return millis instanceof Number ? Long.valueOf(((Number)millis).longValue()) : null;
+	}
+
+	/**
+	 * @param quietMillis how long there must have been no requests in flight
+	 * @return an ExpectedCondition which is satisfied once the page is network-idle.
+	 */
+	public static ExpectedCondition<Boolean> networkIdleFor(final long quietMillis) {
+		return new ExpectedCondition<Boolean>() {
+			@Override
+			public Boolean apply(WebDriver driver) {
+				return Boolean.valueOf(isIdle(driver, quietMillis));
+			}
+
+			@Override
+			public String toString() {
+				return "network idle for " + quietMillis + " ms";
+			}
+		};
+	}
+}
@@ -0,0 +1,203 @@
+package com.sse.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * A condition on the current page built from simple checks on XPath-located elements (visible, enabled,
+ * text, count) combined with allOf, anyOf and not.
+ * <p>The whole condition is compiled to a single JavaScript predicate, so waiting for "A visible AND B enabled"
+ * or "toast OR error message" costs one command per poll rather than one per check.
+ * <p>Typical usage :
+ * <pre>
+	WaitUtilities.waitFor(PageCondition.anyOf(
+			PageCondition.visible(TOASTMESSAGE),
+			PageCondition.visible(ERRORMESSAGE)));
+ * </pre>
+ * @author atul
+ */
+public final class PageCondition implements ExpectedCondition<Boolean> {
+
+	// Helpers available to every compiled predicate. a = the argument array.
+	private static final String PRELUDE =
+			"var a = arguments[0];" +
+			"var first = function(i) {" +
+			"  return document.evaluate(a[i], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+			"};" +
+			"var count = function(i) {" +
+			"  return document.evaluate(a[i], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;" +
+			"};" +
+			"var visible = function(e) {" +
+			"  return !!e && !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length)" +
+			"      && window.getComputedStyle(e).visibility !== 'hidden';" +
+			"};" +
+			"var text = function(e) {" +
+			"  return e ? (e.innerText || e.textContent || '').replace(/\\s+/g, ' ').trim() : null;" +
+			"};";
+
+	private interface Node {
+		/** Appends this node's JavaScript expression, adding any values it needs to args. */
+		void compile(StringBuilder js, List<Object> args);
+	}
+
+	private final Node node;
+	private final String description;
+	private String script;
+	private List<Object> scriptArgs;
+
+	private PageCondition(Node node, String description) {
+		this.node = node;
+		this.description = description;
+	}
+
+	/**
+	 * @param xpath the XPath of the element
+	 * @return a condition satisfied when the element exists and is displayed.
+	 */
+	public static PageCondition visible(final String xpath) {
+		return leaf("visible(first(%s))", "visible " + xpath, xpath);
+	}
+
+	/**
+	 * @param xpath the XPath of the element
+	 * @return a condition satisfied when the element exists, is displayed and is not disabled.
+	 */
+	public static PageCondition enabled(final String xpath) {
+		return leaf("(function(e) { return visible(e) && !e.disabled && e.getAttribute('aria-disabled') !== 'true'; })(first(%s))",
+				"enabled " + xpath, xpath);
+	}
+
+	/**
+	 * @param xpath the XPath of the element
+	 * @param value the text to look for (whitespace is normalised)
+	 * @return a condition satisfied when the element's text contains value.
+	 */
+	public static PageCondition textContains(final String xpath, final String value) {
+		return leaf("(function(t) { return t !== null && t.indexOf(%s) >= 0; })(text(first(%s)))",
+				"text of " + xpath + " contains '" + value + "'", value, xpath);
+	}
+
+	/**
+	 * @param xpath the XPath of the element
+	 * @param value the expected text (whitespace is normalised)
+	 * @return a condition satisfied when the element's text is exactly value.
+	 */
+	public static PageCondition textIs(final String xpath, final String value) {
+		return leaf("text(first(%2$s)) === %1$s", "text of " + xpath + " is '" + value + "'", value, xpath);
+	}
+
+	/**
+	 * @param xpath the XPath of the elements
+	 * @param expected the expected number of elements
+	 * @return a condition satisfied when exactly expected elements match the XPath.
+	 */
+	public static PageCondition countIs(final String xpath, final int expected) {
+		return leaf("count(%s) === %s", "count of " + xpath + " is " + expected, xpath, Integer.valueOf(expected));
+	}
+
+	/**
+	 * @param xpath the XPath of the elements
+	 * @param minimum the minimum number of elements
+	 * @return a condition satisfied when at least minimum elements match the XPath.
+	 */
+	public static PageCondition countAtLeast(final String xpath, final int minimum) {
+		return leaf("count(%s) >= %s", "count of " + xpath + " at least " + minimum, xpath, Integer.valueOf(minimum));
+	}
+
+	/**
+	 * @param conditions the conditions to combine
+	 * @return a condition satisfied when all of the passed conditions are.
+	 * @throws IllegalArgumentException if there are no conditions
+	 */
+	public static PageCondition allOf(final PageCondition... conditions) {
+		return combine(" && ", "all of", conditions);
+	}
+
+	/**
+	 * @param conditions the conditions to combine
+	 * @return a condition satisfied when any of the passed conditions is.
+	 * @throws IllegalArgumentException if there are no conditions
+	 */
+	public static PageCondition anyOf(final PageCondition... conditions) {
+		return combine(" || ", "any of", conditions);
+	}
+
+	/**
+	 * @param condition the condition to negate
+	 * @return a condition satisfied when the passed condition is not.
+	 */
+	public static PageCondition not(final PageCondition condition) {
+		return new PageCondition(new Node() {
+			@Override
+			public void compile(StringBuilder js, List<Object> args) {
+				js.append("!(");
+				condition.node.compile(js, args);
+				js.append(")");
+			}
+		}, "not (" + condition + ")");
+	}
+
+	/*
+	 * A check whose JavaScript is a format string - each %s (or %n$s) is replaced by a reference to the
+	 * corresponding value, which is passed as an argument rather than being quoted into the script.
+	 */
+	private static PageCondition leaf(final String format, String description, final Object... values) {
+		return new PageCondition(new Node() {
+			@Override
+			public void compile(StringBuilder js, List<Object> args) {
+				Object[] references = new Object[values.length];
+				for (int i = 0; i < values.length; i++) {
+					references[i] = "a[" + args.size() + "]";
+					args.add(values[i]);
+				}
+				js.append("(").append(String.format(format, references)).append(")");
+			}
+		}, description);
+	}
+
+	private static PageCondition combine(final String operator, String name, final PageCondition... conditions) {
+		// Would compile to "()", which the browser only rejects on the first poll of a wait
+		if (conditions.length == 0) throw new IllegalArgumentException(name + " needs at least one condition");
+		StringBuilder description = new StringBuilder(name).append(" (");
+		for (int i = 0; i < conditions.length; i++) {
+			description.append(i == 0 ? "" : ", ").append(conditions[i]);
+		}
+		description.append(")");
+		return new PageCondition(new Node() {
+			@Override
+			public void compile(StringBuilder js, List<Object> args) {
+				js.append("(");
+				for (int i = 0; i < conditions.length; i++) {
+					if (i > 0) js.append(operator);
+					conditions[i].node.compile(js, args);
+				}
+				js.append(")");
+			}
+		}, description.toString());
+	}
+
+	/**
+	 * Evaluates the whole condition in the page with a single script.
+	 */
+	@Override
+	public Boolean apply(WebDriver driver) {
+		if (script == null) {
+			StringBuilder js = new StringBuilder(PRELUDE).append("return !!");
+			List<Object> args = new ArrayList<>();
+			node.compile(js, args);
+			js.append(";");
+			scriptArgs = args;
+			script = js.toString();
+		}
+		return Boolean.valueOf(Boolean.TRUE.equals(((JavascriptExecutor)driver).executeScript(script, scriptArgs)));
+	}
+
+	@Override
+	public String toString() {
+		return description;
+	}
+}
@@ -0,0 +1,96 @@
+package com.sse.utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Times page loads for performance assertions, keeping every timing under a label
+ * so that repeated loads can be asserted on by percentile.
+ * <p>Typical usage :
+ * <pre>
+	long millis = PageLoadTimer.timeLoad("Accounts page load", () -&gt; { clickTab("Accounts"); waitForTab("Accounts"); });
+	recordArrival("Tab Accounts"); // as NavigationPanel.timeNavigationToTab does
+	AssertLogger.assertWithin("Accounts page load", millis, 3000);
+ * </pre>
+ * Anything done once the page has arrived (e.g. BasePage.recordArrival, which captures its timings and profiles its
+ * locators) belongs after the timed action, not in it.
+ * @author atul
+ */
+public final class PageLoadTimer {
+	private static Logger log = LogManager.getLogger(PageLoadTimer.class);
+
+	// Label -> timings in milliseconds
+	private static final Map<String, List<Long>> timings = new ConcurrentHashMap<>();
+
+	private PageLoadTimer() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Runs the action - a page load ending with a wait for the page to be network-idle - recording how long the load
+	 * took under the label. The load ends when its last server call did (see NetworkActivityTracker), so the quiet
+	 * period the wait needed to see that it was over, and the last poll, are not counted.
+	 * <p>If the page has no network tracker (i.e. the action did not wait for network idle), the action is timed in full.
+	 * @param label what is being timed, e.g. "Accounts page load"
+	 * @param action the page load to time
+	 * @return how long the page took to load, in milliseconds
+	 */
+	public static long timeLoad(String label, Runnable action) {
+		long startNanos = System.nanoTime();
+		action.run();
+		long millis = (System.nanoTime() - startNanos) / 1_000_000L;
+		Long sinceLastActivity = null;
+		try {
+			sinceLastActivity = NetworkActivityTracker.millisSinceLastActivity(Browser.driver);
+		}
+		catch (WebDriverException e) {
+			log.debug("Could not read the last network activity, so timing " + label + " in full : " + e.getMessage());
+		}
+		if (sinceLastActivity != null && sinceLastActivity.longValue() < millis) {
+			millis -= sinceLastActivity.longValue();
+		}
+		log.info(label + " took " + millis + " ms");
+		timings.computeIfAbsent(label, l -> Collections.synchronizedList(new ArrayList<>())).add(Long.valueOf(millis));
+		return millis;
+	}
+
+	/**
+	 * @param label the label the timings were recorded under
+	 * @param percentile the percentile required, e.g. 0.95
+	 * @return the nearest-rank percentile of the timings recorded under the label, in milliseconds.
+	 * @throws IllegalStateException if nothing has been timed under the label.
+	 */
+	public static long percentile(String label, double percentile) {
+		List<Long> sorted = getTimings(label);
+		if (sorted.isEmpty()) throw new IllegalStateException("Nothing has been timed as " + label);
+		Collections.sort(sorted);
+		return sorted.get(Math.max(0, (int)Math.ceil(percentile * sorted.size()) - 1)).longValue();
+	}
+
+	/**
+	 * @param label the label the timings were recorded under
+	 * @return a copy of the timings recorded under the label, in milliseconds - empty if there are none.
+	 */
+	public static List<Long> getTimings(String label) {
+		List<Long> labelTimings = timings.get(label);
+		if (labelTimings == null) return new ArrayList<>();
+		synchronized (labelTimings) {
+			return new ArrayList<>(labelTimings);
+		}
+	}
+
+	/**
+	 * Discards the timings recorded under the label, e.g. before a new series of repeated loads.
+	 * @param label the label the timings were recorded under
+	 */
+	public static void clear(String label) {
+		timings.remove(label);
+	}
+}
@@ -0,0 +1,173 @@
+package com.sse.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Captures the browser's own view of how long Salesforce took to deliver a page - Navigation Timing for
+ * full page loads, Resource Timing for the requests (mostly Aura actions) made since the previous capture,
+ * and Lightning's Experienced Page Time (EPT) where the page exposes it - each time a page is arrived at.
+ * <p>This separates time spent by the org from time spent by the framework: a regression here is
+ * Salesforce-side, whereas a regression only in the framework's timings is ours.
+ * <p>Enabled by pagePerformance=true in configuration.properties. Captures are made by the checkArrivalOnPage
+ * implementations (via BasePage.recordArrival) - so a full load's navigation timing, which can only be read once
+ * per document, is filed under the page which confirmed its arrival (e.g. LoginPage after Browser.goTo) rather
+ * than under the navigation itself. At the end of the run the samples are written
+ * to history/page-performance/&lt;environment&gt;/run-&lt;timestamp&gt;.csv - outside target, so that the history of
+ * runs survives mvn clean - and the percentiles per page and metric to target/page-performance.txt.
+ * @author atul
+ */
+public final class PagePerformance {
+	private static Logger log = LogManager.getLogger(PagePerformance.class);
+
+	/*
+	 * Returns [navigation or null, resources, ept or null] - all times in ms.
+	 * Navigation timing is only returned for a document not seen before (i.e. after a full load). Resource
+	 * entries are cleared once read so that each capture sees only the requests made since the last one.
+	 */
+	private static final String CAPTURE_SCRIPT =
+			"var p = window.performance, result = [null, null, null];" +
+			"if (!p || !p.getEntriesByType) return result;" +
+			"if (!window.__ssePerf) {" +
+			"  window.__ssePerf = true;" +
+			"  if (p.setResourceTimingBufferSize) p.setResourceTimingBufferSize(5000);" +
+			"  var n = p.getEntriesByType('navigation')[0];" +
+			"  if (n) result[0] = [n.responseStart - n.requestStart, n.domContentLoadedEventEnd, n.loadEventEnd];" +
+			"}" +
+			"var entries = p.getEntriesByType('resource'), count = 0, serverWait = 0, slowest = 0, first = -1, last = 0;" +
+			"for (var i = 0; i < entries.length; i++) {" +
+			"  var e = entries[i];" +
+			"  count++;" +
+			"  if (e.requestStart > 0) serverWait += Math.max(0, e.responseStart - e.requestStart);" +
+			"  slowest = Math.max(slowest, e.duration);" +
+			"  if (first < 0 || e.startTime < first) first = e.startTime;" +
+			"  last = Math.max(last, e.responseEnd);" +
+			"}" +
+			"if (p.clearResourceTimings) p.clearResourceTimings();" +
+			"result[1] = [count, serverWait, slowest, count > 0 ? last - first : 0];" +
+			"try {" +
+			"  var m = window.$A && window.$A.metricsService;" +
+			"  var t = m && m.getCurrentPageTransaction && m.getCurrentPageTransaction();" +
+			"  var ept = t && (t.ept || (t.config && t.config.context && t.config.context.ept));" +
+			"  if (ept) result[2] = ept;" +
+			"} catch (ignore) {}" +
+			"return result;";
+
+	private static final String[] NAVIGATION_METRICS = {"navigation.ttfb", "navigation.domContentLoaded", "navigation.load"};
+	private static final String[] RESOURCE_METRICS = {"resources.count", "resources.serverWait", "resources.slowest", "resources.span"};
+	private static final String EPT_METRIC = "ept";
+	private static final double[] PERCENTILES = {0.5, 0.9, 0.95};
+
+	private static boolean enabled;
+	private static String environment;
+	// Page -> metric -> samples
+	private static final Map<String, Map<String, List<Long>>> samples = new TreeMap<>();
+
+	private PagePerformance() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * @param configuration the configuration properties
+	 * @param environmentName the environment under test (e.g. QA)
+	 */
+	public static synchronized void configure(Properties configuration, String environmentName) {
+		enabled = Boolean.parseBoolean(configuration.getProperty("pagePerformance", "false"));
+		environment = environmentName;
+		samples.clear();
+	}
+
+	/**
+	 * Captures the timings of the page just arrived at, if enabled. Never fails - a page whose timings
+	 * cannot be read is simply not recorded.
+	 * @param page the name of the page (usually its class)
+	 */
+	public static void capture(String page) {
+		if (!enabled || Browser.driver == null) return;
+		List<?> result;
+		try {
+			result = (List<?>)((JavascriptExecutor)Browser.driver).executeScript(CAPTURE_SCRIPT);
+		}
+		catch (WebDriverException e) {
+			log.debug("Could not capture page performance for " + page + " : " + e.getMessage());
+			return;
+		}
+		synchronized (PagePerformance.class) {
+			record(page, NAVIGATION_METRICS, result.get(0));
+			record(page, RESOURCE_METRICS, result.get(1));
+			if (result.get(2) instanceof Number) {
+				add(page, EPT_METRIC, ((Number)result.get(2)).longValue());
+			}
+		}
+	}
+
+	/**
+	 * Writes this run's samples and the percentiles of each metric per page.
+	 * @param historyDirectory the directory holding the samples of each environment's runs
+	 * @param reportFile the file to write the percentiles to
+	 */
+	public static synchronized void writeReport(File historyDirectory, File reportFile) {
+		if (samples.isEmpty()) return;
+		File runFile = new File(historyDirectory, environment + File.separator +
+				"run-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".csv");
+		runFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(runFile, "UTF-8")) {
+			out.println("page,metric,millis");
+			for (Map.Entry<String, Map<String, List<Long>>> page : samples.entrySet()) {
+				for (Map.Entry<String, List<Long>> metric : page.getValue().entrySet()) {
+					for (Long value : metric.getValue()) out.println(page.getKey() + "," + metric.getKey() + "," + value);
+				}
+			}
+		}
+		catch (IOException e) {
+			log.warn("Could not write page performance samples to " + runFile, e);
+		}
+
+		reportFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(reportFile, "UTF-8")) {
+			out.println("Page performance in " + environment + " (ms; resources.count is a count)");
+			out.println(String.format("%-30s %-28s %6s %8s %8s %8s %8s", "page", "metric", "count", "p50", "p90", "p95", "max"));
+			for (Map.Entry<String, Map<String, List<Long>>> page : samples.entrySet()) {
+				for (Map.Entry<String, List<Long>> metric : page.getValue().entrySet()) {
+					List<Long> sorted = new ArrayList<>(metric.getValue());
+					Collections.sort(sorted);
+					StringBuilder line = new StringBuilder(String.format("%-30s %-28s %6d", page.getKey(), metric.getKey(), Integer.valueOf(sorted.size())));
+					for (double percentile : PERCENTILES) {
+						line.append(String.format(" %8d", sorted.get(Math.max(0, (int)Math.ceil(percentile * sorted.size()) - 1))));
+					}
+					out.println(line.append(String.format(" %8d", sorted.get(sorted.size() - 1))));
+				}
+			}
+			log.info("Page performance written to " + reportFile);
+		}
+		catch (IOException e) {
+			log.warn("Could not write page performance report to " + reportFile, e);
+		}
+	}
+
+	private static void record(String page, String[] metrics, Object values) {
+		if (!(values instanceof List)) return;
+		List<?> list = (List<?>)values;
+		for (int i = 0; i < metrics.length && i < list.size(); i++) {
+			if (list.get(i) instanceof Number) add(page, metrics[i], Math.round(((Number)list.get(i)).doubleValue()));
+		}
+	}
+
+	private static void add(String page, String metric, long millis) {
+		samples.computeIfAbsent(page, p -> new TreeMap<>()).computeIfAbsent(metric, m -> new ArrayList<>()).add(Long.valueOf(millis));
+	}
+}
@@ -0,0 +1,120 @@
+package com.sse.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * A set of possible outcomes to wait for at the same time, such as "home page arrived",
+ * "session error shown" or "maintenance page shown". Passed to WaitUtilities.waitForFirstOf, which
+ * returns the key of whichever outcome happens first so that the page can branch straight away
+ * rather than paying a separate wait for each possibility in turn.
+ * <p>All the outcomes are checked together with a single script in the page on each poll. Where
+ * several are satisfied on the same poll, the one added first wins, so add the outcomes which
+ * need handling (errors, interruptions) before the normal one.
+ * <p>Typical usage :
+ * <pre>
+	Arrival arrival = WaitUtilities.waitForFirstOf(RaceWait.&lt;Arrival&gt;between()
+			.orVisible(Arrival.SESSION_ERROR, SESSION_ERROR_XPATH)
+			.orVisible(Arrival.HOME, LOGO_XPATH), 20);
+ * </pre>
+ * @param <K> the type of key identifying each outcome - usually an enum
+ * @author atul
+ */
+public final class RaceWait<K> implements ExpectedCondition<K> {
+
+	/*
+	 * arguments[0] : array of [kind, value] pairs. Returns the index of the first satisfied, or -1.
+	 */
+	private static final String RACE_SCRIPT =
+			"var outcomes = arguments[0];" +
+			"var find = function(xpath) {" +
+			"  return document.evaluate(xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+			"};" +
+			"for (var i = 0; i < outcomes.length; i++) {" +
+			"  var kind = outcomes[i][0], value = outcomes[i][1];" +
+			"  if (kind === 'title' && document.title === value) return i;" +
+			"  if (kind === 'present' && find(value)) return i;" +
+			"  if (kind === 'visible') {" +
+			"    var e = find(value);" +
+			"    if (e && (e.offsetWidth || e.offsetHeight || e.getClientRects().length)" +
+			"        && window.getComputedStyle(e).visibility !== 'hidden') return i;" +
+			"  }" +
+			"}" +
+			"return -1;";
+
+	private final List<K> keys = new ArrayList<>();
+	private final List<List<String>> outcomes = new ArrayList<>();
+
+	private RaceWait() {
+	}
+
+	/**
+	 * @param <K> the type of key identifying each outcome
+	 * @return an empty race, to which outcomes are added with the or* methods.
+	 */
+	public static <K> RaceWait<K> between() {
+		return new RaceWait<>();
+	}
+
+	/**
+	 * Adds an outcome satisfied when the element found by the XPath is displayed.
+	 * @param key the key returned if this outcome happens first
+	 * @param xpath the XPath of the element
+	 * @return this RaceWait
+	 */
+	public RaceWait<K> orVisible(K key, String xpath) {
+		return add(key, "visible", xpath);
+	}
+
+	/**
+	 * Adds an outcome satisfied when the element found by the XPath exists, whether displayed or not.
+	 * @param key the key returned if this outcome happens first
+	 * @param xpath the XPath of the element
+	 * @return this RaceWait
+	 */
+	public RaceWait<K> orPresent(K key, String xpath) {
+		return add(key, "present", xpath);
+	}
+
+	/**
+	 * Adds an outcome satisfied when the page title is exactly the passed title.
+	 * @param key the key returned if this outcome happens first
+	 * @param title the expected page title
+	 * @return this RaceWait
+	 */
+	public RaceWait<K> orTitle(K key, String title) {
+		return add(key, "title", title);
+	}
+
+	private RaceWait<K> add(K key, String kind, String value) {
+		List<String> outcome = new ArrayList<>();
+		outcome.add(kind);
+		outcome.add(value);
+		keys.add(key);
+		outcomes.add(outcome);
+		return this;
+	}
+
+	/**
+	 * @return the key of the first satisfied outcome, or null if none is satisfied yet.
+	 */
+	@Override
+	public K apply(WebDriver driver) {
+		Object index = ((JavascriptExecutor)driver).executeScript(RACE_SCRIPT, outcomes);
+		int i = ((Number)index).intValue();
+		return i < 0 ? null : keys.get(i);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder description = new StringBuilder("first of");
+		for (int i = 0; i < keys.size(); i++) {
+			description.append(i == 0 ? " " : ", ").append(keys.get(i));
+		}
+		return description.toString();
+	}
+}
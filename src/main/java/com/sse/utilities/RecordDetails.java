@@ -0,0 +1,109 @@
+package com.sse.utilities;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+
+/**
+ * Reads every field of a Lightning record detail page with one script, rather than one findElement and getText
+ * (and, for checkboxes, a script for the ::after pseudo-element) per field.
+ * <p>Fields are found as the page classes find them one at a time : a label span (TEXT_VALUE_BEGIN) with its value
+ * in the second div of its grandparent (TEXT_VALUE_END etc.), and checkboxes by their assistive text label
+ * (CHECKBOX_VALUE_BEGIN/CHECKBOX_VALUE_END). Where a label appears more than once, the first in the page is read, as
+ * findElement would. Typical usage, in a storeDetails implementation :
+ * <pre>
+	Map&lt;String, RecordField&gt; details = RecordDetails.read();
+	account.setVatNumber(details.get("VAT Number").getText());
+	account.setActive(details.get("Active").getCheckboxState());
+ * </pre>
+ * @author atul
+ */
+public final class RecordDetails {
+	private static Logger log = LogManager.getLogger(RecordDetails.class);
+
+	/*
+	 * arguments[0] is the XPath of the element to read within, or null for the whole page.
+	 * Returns a list of [label, text, number, name, link text, href, checked] in page order, or null if there is no such element.
+	 */
+	private static final String EXTRACT_SCRIPT =
+			"var first = function(xpath, context) {" +
+			"  return document.evaluate(xpath, context, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+			"};" +
+			"var all = function(xpath, context) {" +
+			"  var s = document.evaluate(xpath, context, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), found = [];" +
+			"  for (var i = 0; i < s.snapshotLength; i++) found.push(s.snapshotItem(i));" +
+			"  return found;" +
+			"};" +
+			"var text = function(e) {" +
+			"  return e ? (e.innerText || e.textContent || '').replace(/\\s+/g, ' ').trim() : null;" +
+			"};" +
+			"var ownText = function(e) {" +
+			"  var t = '';" +
+			"  for (var n = e.firstChild; n; n = n.nextSibling) if (n.nodeType === 3) t += n.nodeValue;" +
+			"  return t.replace(/\\s+/g, ' ').trim();" +
+			"};" +
+			"var scope = arguments[0] ? first(arguments[0], document) : document;" +
+			"if (!scope) return null;" +
+			"var fields = Object.create(null), labels = [];" +
+			"all('.//div/div/div/span[text()]', scope).forEach(function(label) {" +
+			"  var name = ownText(label), valueDiv = first('../../div[2]', label), span = valueDiv && first('./span', valueDiv);" +
+			"  if (!name || fields[name] || !span) return;" +
+			"  var output = span.querySelector('[data-output-element-id=\"output-field\"]');" +
+			"  var number = span.querySelector('lightning-formatted-number'), fullName = span.querySelector('lightning-formatted-name');" +
+			"  var link = valueDiv.querySelector(':scope div a');" +
+			"  fields[name] = [name, text(output || span), number ? text(number) : null, fullName ? text(fullName) : null," +
+			"      link ? text(link) : null, link ? link.href : null, null];" +
+			"  labels.push(name);" +
+			"});" +
+			"all(\".//span[@class='slds-form-element__label slds-assistive-text']\", scope).forEach(function(label) {" +
+			"  var name = ownText(label), faux = first(\"../..//label/span[@class='slds-checkbox_faux']\", label);" +
+			"  if (!name || !faux || (fields[name] && fields[name][6] !== null)) return;" +
+			"  var checked = window.getComputedStyle(faux, '::after').getPropertyValue('content') === '\"\"';" +
+			"  if (fields[name]) {" +
+			"    fields[name][1] = null;" +
+			"    fields[name][6] = checked;" +
+			"  } else {" +
+			"    fields[name] = [name, null, null, null, null, null, checked];" +
+			"    labels.push(name);" +
+			"  }" +
+			"});" +
+			"return labels.map(function(name) { return fields[name]; });";
+
+	private RecordDetails() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Reads every field on the current page.
+	 * @return label -&gt; field, in page order - empty if there are none.
+	 */
+	public static Map<String, RecordField> read() {
+		return read(null);
+	}
+
+	/**
+	 * Reads every field within an element of the current page, e.g. a modal.
+	 * @param scopeXpath the XPath of the element to read within, or null to read the whole page
+	 * @return label -&gt; field, in page order - empty if there are none, or no element matches scopeXpath.
+	 */
+	public static Map<String, RecordField> read(String scopeXpath) {
+		long startNanos = System.nanoTime();
+		List<?> extracted = (List<?>)((JavascriptExecutor)Browser.driver).executeScript(EXTRACT_SCRIPT, scopeXpath);
+		if (extracted == null) {
+			log.debug("Nothing to read record details from, as nothing matches " + scopeXpath);
+			return Collections.emptyMap();
+		}
+		Map<String, RecordField> fields = new LinkedHashMap<>();
+		for (Object values : extracted) {
+			RecordField field = new RecordField((List<?>)values);
+			fields.put(field.getLabel(), field);
+		}
+		log.debug("Read " + fields.size() + " record fields in " + (System.nanoTime() - startNanos) / 1_000_000L + " ms");
+		return fields;
+	}
+}
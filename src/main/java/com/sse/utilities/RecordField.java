@@ -0,0 +1,110 @@
+package com.sse.utilities;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The value of one field of a Lightning record detail page, as read by {@link RecordDetails} - in each of the forms
+ * the page classes read a field in one at a time (text, number, name, link, checkbox).
+ * @author atul
+ */
+public final class RecordField {
+
+	private final String label;
+	private final String text;
+	private final String number;
+	private final String name;
+	private final String linkText;
+	private final String href;
+	private final Boolean checked;
+
+	/*
+	 * From the extractor script's [label, text, number, name, link text, href, checked].
+	 */
+	RecordField(List<?> values) {
+		this.label = (String)values.get(0);
+		this.text = (String)values.get(1);
+		this.number = (String)values.get(2);
+		this.name = (String)values.get(3);
+		this.linkText = (String)values.get(4);
+		this.href = (String)values.get(5);
+		this.checked = (Boolean)values.get(6);
+	}
+
+	/**
+	 * @return the label of the field, e.g. "VAT Number".
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * @return the text of the field's value, as TEXT_VALUE_BEGIN/TEXT_VALUE_END would read it - null for a checkbox.
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * @return the text of a number-format field (TEXT_VALUE_END_NUMBER), e.g. "1,234.50" - otherwise null.
+	 */
+	public String getNumber() {
+		return number;
+	}
+
+	/**
+	 * @return the value of a number-format field, ignoring grouping and currency symbols - or null if the field is
+	 * not a number, or is empty.
+	 */
+	public BigDecimal getNumberValue() {
+		if (number == null) return null;
+		String digits = number.replaceAll("[^0-9.\\-]", "");
+		try {
+			return digits.isEmpty() ? null : new BigDecimal(digits);
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the text of a name-format field (TEXT_VALUE_END_NAME) - otherwise null.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the text of the link in the field (LINK_VALUE_END) - or null if it has none.
+	 */
+	public String getLinkText() {
+		return linkText;
+	}
+
+	/**
+	 * @return the target of the link in the field - or null if it has none.
+	 */
+	public String getHref() {
+		return href;
+	}
+
+	/**
+	 * @return true if the field is a checkbox.
+	 */
+	public boolean isCheckbox() {
+		return checked != null;
+	}
+
+	/**
+	 * @return "true" if the field is a ticked checkbox, "false" if it is an unticked one (as
+	 * WebElementUtilities.determineCheckboxState) - or null if it is not a checkbox.
+	 */
+	public String getCheckboxState() {
+		return checked == null ? null : checked.toString();
+	}
+
+	@Override
+	public String toString() {
+		return label + " = " + (checked != null ? checked.toString() : text);
+	}
+}
@@ -0,0 +1,193 @@
+package com.sse.utilities;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+import com.sse.utilities.timers.HierarchicalStopWatchController;
+
+/**
+ * Waits for the text of an element to change by observing the DOM in the page (via a MutationObserver)
+ * rather than by polling getText() from Java.
+ * <p>The browser calls back the instant the text differs from the starting value, so a change is seen
+ * without any polling interval and without a stream of StaleElementReferenceExceptions while Lightning
+ * re-renders. The element can either be passed directly or re-resolved from an XPath after every DOM
+ * mutation, which copes with the element being replaced entirely.
+ * <p>The text is compared and returned as getText() would report it : the rendered text, with non-breaking
+ * spaces as spaces, runs of spaces within a line collapsed and each line trimmed - so a change to the line
+ * breaks is a change, as it was when polling getText().
+ * <p>Both the time taken for the text to change and the detection latency (the time between the change
+ * in the page and the result arriving back in Java) are recorded with the stop watch controller. The
+ * latency is the duration of the script call as timed in Java, less the time to the change as timed in
+ * the page - two durations, each on one clock, so it does not matter if the browser's clock (e.g. on a
+ * remote grid) differs from ours.
+ * @author atul
+ */
+public final class TextChangeObserver {
+	private static Logger log = LogManager.getLogger(TextChangeObserver.class);
+
+	/**
+	 * Outcome of an observation.
+	 */
+	public enum Status {
+		/** The text changed from the starting value */
+		CHANGED,
+		/** The text did not change within the time allowed */
+		TIMEOUT,
+		/** The observed element was removed from the page (only when observing a WebElement) */
+		STALE
+	}
+
+	/*
+	 * arguments : element, xpath, valueToChangeFrom (null = current value), timeoutMillis, callback
+	 * Calls back with [status, value, millisWaited] - millisWaited from the start of the script, on the page's clock
+	 */
+	private static final String OBSERVER_SCRIPT =
+			"var el = arguments[0], xpath = arguments[1], from = arguments[2], timeoutMillis = arguments[3];" +
+			"var callback = arguments[arguments.length - 1];" +
+			"var asText = function(s) {" +
+			"  return (s || '').replace(/\\u00a0/g, ' ').replace(/\\r\\n?/g, '\\n').split('\\n')" +
+			"      .map(function(line) { return line.replace(/[ \\t\\f\\v]+/g, ' ').trim(); }).join('\\n').trim();" +
+			"};" +
+			"var resolve = function() {" +
+			"  if (!xpath) return el;" +
+			"  return document.evaluate(xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+			"};" +
+			"var read = function() {" +
+			"  var e = resolve();" +
+			"  if (!e || !e.isConnected) return null;" +
+			"  return asText(e.innerText !== undefined ? e.innerText : e.textContent);" +
+			"};" +
+			"if (from === null) from = read();" +
+			"var start = performance.now(), finished = false, timer = null, observer = null;" +
+			"var finish = function(status, value) {" +
+			"  if (finished) return;" +
+			"  finished = true;" +
+			"  if (observer) observer.disconnect();" +
+			"  if (timer) clearTimeout(timer);" +
+			"  callback([status, value, performance.now() - start]);" +
+			"};" +
+			"var check = function() {" +
+			"  var v = read();" +
+			"  if (v === null) { if (!xpath) finish('STALE', null); return; }" +
+			"  if (v !== from) finish('CHANGED', v);" +
+			"};" +
+			"observer = new MutationObserver(check);" +
+			"observer.observe(document.documentElement, {childList: true, subtree: true, characterData: true});" +
+			"timer = setTimeout(function() { finish('TIMEOUT', read()); }, timeoutMillis);" +
+			"check();";
+
+	// Allowance on top of the observation time before WebDriver gives up on the async script itself.
+	private static final long SCRIPT_TIMEOUT_MARGIN_MILLIS = 5000;
+	// The W3C default script timeout, should the session not report its own
+	private static final long DEFAULT_SCRIPT_TIMEOUT_MILLIS = 30_000;
+	// The session's script timeout, restored after each observation (Selenium 3 cannot read back the current one)
+	private static Long sessionScriptTimeoutMillis;
+
+	private final Status status;
+	private final String value;
+
+	private TextChangeObserver(Status status, String value) {
+		this.status = status;
+		this.value = value;
+	}
+
+	/**
+	 * Observes the passed element until its text differs from valueToChangeFrom, or timeoutMillis passes.
+	 * <p>If the element goes stale, the observation is restarted with the same WebElement for the remaining
+	 * time - which for a PageFactory (@FindBy) element re-locates it.
+	 * @param element the element to observe
+	 * @param valueToChangeFrom the value it should change from, or null to use its current text
+	 * @param timeoutMillis the maximum time to observe for
+	 * @return the outcome of the observation
+	 */
+	public static TextChangeObserver observe(WebElement element, String valueToChangeFrom, long timeoutMillis) {
+		long startNanos = System.nanoTime();
+		TextChangeObserver result;
+		do {
+			long remaining = timeoutMillis - (System.nanoTime() - startNanos) / 1_000_000L;
+			result = runObserver(element, null, valueToChangeFrom, Math.max(0, remaining), startNanos);
+		} while (result.status == Status.STALE && (System.nanoTime() - startNanos) / 1_000_000L < timeoutMillis);
+		return result;
+	}
+
+	/**
+	 * Observes the element found by the passed XPath, re-resolving it after each DOM mutation, until its text
+	 * differs from valueToChangeFrom or timeoutMillis passes.
+	 * @param xpath the XPath locating the element to observe
+	 * @param valueToChangeFrom the value it should change from, or null to use its current text
+	 * @param timeoutMillis the maximum time to observe for
+	 * @return the outcome of the observation
+	 */
+	public static TextChangeObserver observe(String xpath, String valueToChangeFrom, long timeoutMillis) {
+		return runObserver(null, xpath, valueToChangeFrom, timeoutMillis, System.nanoTime());
+	}
+
+	private static TextChangeObserver runObserver(WebElement element, String xpath, String valueToChangeFrom,
+			long timeoutMillis, long startNanos) {
+		long previousTimeoutMillis = sessionScriptTimeoutMillis();
+		List<?> outcome;
+		long callNanos = System.nanoTime();
+		Browser.driver.manage().timeouts().setScriptTimeout(timeoutMillis + SCRIPT_TIMEOUT_MARGIN_MILLIS, TimeUnit.MILLISECONDS);
+		try {
+			outcome = (List<?>)((JavascriptExecutor)Browser.driver).executeAsyncScript(OBSERVER_SCRIPT,
+					element, xpath, valueToChangeFrom, Long.valueOf(timeoutMillis));
+		}
+		finally {
+			Browser.driver.manage().timeouts().setScriptTimeout(previousTimeoutMillis, TimeUnit.MILLISECONDS);
+		}
+		long callMillis = (System.nanoTime() - callNanos) / 1_000_000L;
+
+		Status status = Status.valueOf((String)outcome.get(0));
+		String value = (String)outcome.get(1);
+		if (status == Status.CHANGED) {
+			long waitedMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+			long detectionMillis = Math.max(0, callMillis - ((Number)outcome.get(2)).longValue());
+			log.debug("Text changed to '" + value + "' after " + waitedMillis + " ms (detection latency " + detectionMillis + " ms)");
+			HierarchicalStopWatchController.recordTextChange(waitedMillis, detectionMillis);
+		}
+		return new TextChangeObserver(status, value);
+	}
+
+	/*
+	 * The script timeout the session started with - which, as nothing else changes it, is the one to restore.
+	 */
+	private static synchronized long sessionScriptTimeoutMillis() {
+		if (sessionScriptTimeoutMillis == null) {
+			long timeoutMillis = DEFAULT_SCRIPT_TIMEOUT_MILLIS;
+			if (Browser.driver instanceof HasCapabilities) {
+				Object timeouts = ((HasCapabilities)Browser.driver).getCapabilities().getCapability("timeouts");
+				if (timeouts instanceof Map && ((Map<?, ?>)timeouts).get("script") instanceof Number) {
+					timeoutMillis = ((Number)((Map<?, ?>)timeouts).get("script")).longValue();
+				}
+			}
+			sessionScriptTimeoutMillis = Long.valueOf(timeoutMillis);
+		}
+		return sessionScriptTimeoutMillis.longValue();
+	}
+
+	@SuppressWarnings("javadoc")
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the new text if it changed, otherwise the text at the end of the observation (null if the element had gone).
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * @return true if the text changed within the time allowed.
+	 */
+	public boolean hasChanged() {
+		return status == Status.CHANGED;
+	}
+}
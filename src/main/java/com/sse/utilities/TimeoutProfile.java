@@ -0,0 +1,225 @@
+package com.sse.utilities;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Timeouts calibrated to the environment under test, learned from how long waits actually took in previous runs.
+ * <p>Every wait made through WaitUtilities is classed by the timeout it was written with (61 s default, 7 s short,
+ * a step's own 5 s etc.) - except waits which are expected to be quick and tolerate timing out (waitForPageToSettle
+ * and the like), which keep their configured timeout and are not recorded. The time each successful wait took is added to a histogram for that class, which is kept
+ * per environment between runs. Once a class has enough history, its timeout becomes the observed 99.9th percentile
+ * multiplied by a safety factor - so waits on a broken page fail quickly in a fast org, and a slow org is given
+ * longer than the hard-coded value (up to a limit) rather than producing false timeouts.
+ * <p>Enabled by timeoutProfiles=true in configuration.properties, with timeoutSafetyFactor and timeoutMaxStretch
+ * controlling the calibration. The history is held in history/timeout-profiles/&lt;environment&gt;.properties,
+ * outside target so that it survives mvn clean - the calibration needs the history of many runs.
+ * @author atul
+ */
+public final class TimeoutProfile {
+	private static Logger log = LogManager.getLogger(TimeoutProfile.class);
+
+	// Histogram bucket upper bounds grow by 20% from 25 ms, which covers up to the 360 s long wait and beyond.
+	private static final long FIRST_BUCKET_MILLIS = 25;
+	private static final double BUCKET_GROWTH = 1.2;
+	private static final int BUCKET_COUNT = 60;
+	private static final long[] BUCKET_UPPER_MILLIS = new long[BUCKET_COUNT];
+	static {
+		double upper = FIRST_BUCKET_MILLIS;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			BUCKET_UPPER_MILLIS[i] = Math.round(upper);
+			upper *= BUCKET_GROWTH;
+		}
+	}
+
+	private static final int MINIMUM_SAMPLES = 100;
+	// Once a class has this many samples, older history is halved on saving so recent runs dominate.
+	private static final long MAXIMUM_SAMPLES = 20000;
+	private static final long MINIMUM_TIMEOUT_MILLIS = 2000;
+	private static final double PERCENTILE = 0.999;
+
+	private static final String DEFAULT_SAFETY_FACTOR = "3";
+	private static final String DEFAULT_MAX_STRETCH = "2";
+
+	private static boolean enabled;
+	private static double safetyFactor;
+	private static double maxStretch;
+	private static File historyFile;
+	// Configured timeout seconds -> histogram of wait durations
+	private static final Map<Long, long[]> histograms = new TreeMap<>();
+	// Configured timeout seconds -> number of waits which timed out
+	private static final Map<Long, Long> timeouts = new TreeMap<>();
+	// Configured timeout seconds -> calibrated timeout millis, fixed for the run when the profile is loaded
+	private static final Map<Long, Long> calibrated = new TreeMap<>();
+
+	private TimeoutProfile() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Loads the timeout history for the environment and calculates the calibrated timeouts for this run.
+	 * @param configuration the configuration properties
+	 * @param environment the environment under test (e.g. QA)
+	 * @param directory the directory holding the history of each environment
+	 */
+	public static synchronized void load(Properties configuration, String environment, File directory) {
+		enabled = Boolean.parseBoolean(configuration.getProperty("timeoutProfiles", "false"));
+		safetyFactor = Double.parseDouble(configuration.getProperty("timeoutSafetyFactor", DEFAULT_SAFETY_FACTOR).trim());
+		maxStretch = Double.parseDouble(configuration.getProperty("timeoutMaxStretch", DEFAULT_MAX_STRETCH).trim());
+		historyFile = new File(directory, environment + ".properties");
+		histograms.clear();
+		timeouts.clear();
+		calibrated.clear();
+
+		if (historyFile.exists()) {
+			Properties history = new Properties();
+			try (InputStream in = new FileInputStream(historyFile)) {
+				history.load(in);
+			}
+			catch (IOException e) {
+				log.warn("Could not read timeout history " + historyFile + " - using configured timeouts", e);
+				return;
+			}
+			for (String key : history.stringPropertyNames()) {
+				if (key.endsWith(".buckets")) {
+					long[] histogram = new long[BUCKET_COUNT];
+					String[] counts = history.getProperty(key).split(",");
+					for (int i = 0; i < counts.length && i < BUCKET_COUNT; i++) {
+						histogram[i] = Long.parseLong(counts[i].trim());
+					}
+					histograms.put(Long.valueOf(key.substring(0, key.indexOf('.'))), histogram);
+				}
+				else if (key.endsWith(".timeouts")) {
+					timeouts.put(Long.valueOf(key.substring(0, key.indexOf('.'))), Long.valueOf(history.getProperty(key).trim()));
+				}
+			}
+		}
+
+		for (Long configuredSeconds : histograms.keySet()) {
+			Long calibratedMillis = calibrate(configuredSeconds.longValue());
+			if (calibratedMillis != null) {
+				calibrated.put(configuredSeconds, calibratedMillis);
+				log.info(environment + " timeout profile : " + configuredSeconds + " s wait -> " + calibratedMillis / 1000.0 + " s" +
+						(enabled ? "" : " (not applied as timeoutProfiles is not true)"));
+			}
+		}
+	}
+
+	/**
+	 * @param configuredSeconds the timeout a wait was written with
+	 * @return the timeout, in milliseconds, to use in this environment.
+	 */
+	public static synchronized long calibratedMillis(long configuredSeconds) {
+		Long calibratedMillis = enabled ? calibrated.get(Long.valueOf(configuredSeconds)) : null;
+		return calibratedMillis == null ? configuredSeconds * 1000 : calibratedMillis.longValue();
+	}
+
+	/**
+	 * Records how long a successful wait took.
+	 * @param configuredSeconds the timeout the wait was written with
+	 * @param elapsedMillis how long the wait took
+	 */
+	public static synchronized void recordSuccess(long configuredSeconds, long elapsedMillis) {
+		long[] histogram = histograms.get(Long.valueOf(configuredSeconds));
+		if (histogram == null) {
+			histogram = new long[BUCKET_COUNT];
+			histograms.put(Long.valueOf(configuredSeconds), histogram);
+		}
+		histogram[bucketOf(elapsedMillis)]++;
+	}
+
+	/**
+	 * Records a wait which timed out.
+	 * @param configuredSeconds the timeout the wait was written with
+	 */
+	public static synchronized void recordTimeout(long configuredSeconds) {
+		Long count = timeouts.get(Long.valueOf(configuredSeconds));
+		timeouts.put(Long.valueOf(configuredSeconds), Long.valueOf(count == null ? 1 : count.longValue() + 1));
+	}
+
+	/**
+	 * Saves the history, including this run's waits, for use by later runs against the same environment.
+	 */
+	public static synchronized void save() {
+		if (historyFile == null) return; // i.e. never loaded
+		Properties history = new Properties();
+		for (Map.Entry<Long, long[]> entry : histograms.entrySet()) {
+			long[] histogram = entry.getValue();
+			boolean halve = total(histogram) > MAXIMUM_SAMPLES;
+			StringBuilder counts = new StringBuilder();
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				if (halve) histogram[i] /= 2;
+				counts.append(i == 0 ? "" : ",").append(histogram[i]);
+			}
+			history.setProperty(entry.getKey() + ".buckets", counts.toString());
+			Long timeoutCount = timeouts.get(entry.getKey());
+			if (timeoutCount != null) {
+				history.setProperty(entry.getKey() + ".timeouts", String.valueOf(halve ? timeoutCount.longValue() / 2 : timeoutCount.longValue()));
+			}
+		}
+		historyFile.getParentFile().mkdirs();
+		try (OutputStream out = new FileOutputStream(historyFile)) {
+			history.store(out, "Observed wait durations by configured timeout (seconds). Bucket upper bounds start at "
+					+ FIRST_BUCKET_MILLIS + " ms and grow by " + BUCKET_GROWTH);
+		}
+		catch (IOException e) {
+			log.warn("Could not save timeout history " + historyFile, e);
+		}
+	}
+
+	/*
+	 * p99.9 x safety factor, no lower than MINIMUM_TIMEOUT_MILLIS and no higher than the configured timeout x maxStretch.
+	 * Null if there is not enough history. If more waits have timed out than the percentile allows for, the
+	 * history is unreliable (it cannot see how long those waits would have taken) so the configured timeout is the least used.
+	 */
+	private static Long calibrate(long configuredSeconds) {
+		long[] histogram = histograms.get(Long.valueOf(configuredSeconds));
+		long samples = total(histogram);
+		if (samples < MINIMUM_SAMPLES) return null;
+
+		long target = (long)Math.ceil(samples * PERCENTILE);
+		long cumulative = 0;
+		long percentileMillis = BUCKET_UPPER_MILLIS[BUCKET_COUNT - 1];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += histogram[i];
+			if (cumulative >= target) {
+				percentileMillis = BUCKET_UPPER_MILLIS[i];
+				break;
+			}
+		}
+
+		long configuredMillis = configuredSeconds * 1000;
+		long calibratedMillis = Math.round(percentileMillis * safetyFactor);
+		calibratedMillis = Math.max(calibratedMillis, Math.min(MINIMUM_TIMEOUT_MILLIS, configuredMillis));
+		calibratedMillis = Math.min(calibratedMillis, Math.round(configuredMillis * maxStretch));
+
+		Long timeoutCount = timeouts.get(Long.valueOf(configuredSeconds));
+		if (timeoutCount != null && timeoutCount.longValue() > samples * (1 - PERCENTILE)) {
+			calibratedMillis = Math.max(calibratedMillis, configuredMillis);
+		}
+		return Long.valueOf(calibratedMillis);
+	}
+
+	private static int bucketOf(long elapsedMillis) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			if (elapsedMillis <= BUCKET_UPPER_MILLIS[i]) return i;
+		}
+		return BUCKET_COUNT - 1;
+	}
+
+	private static long total(long[] histogram) {
+		long total = 0;
+		if (histogram != null) for (long count : histogram) total += count;
+		return total;
+	}
+}
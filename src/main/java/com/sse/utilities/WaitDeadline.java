@@ -0,0 +1,200 @@
+package com.sse.utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * A time budget shared by all waits performed on the current thread while it is open.
+ * <p>Deadlines nest - a deadline opened inside another can never outlive its parent, so a
+ * Cucumber step budget bounds every framework call made within it, and each framework call
+ * bounds the waits it makes in turn. WaitUtilities asks the current deadline how much of
+ * a wait's own timeout can still be spent, rather than always using the full timeout.
+ * <p>Typical usage :
+ * <pre>
+	try (WaitDeadline deadline = WaitDeadline.open("clickSave", 20000)) {
+		...waits in here share 20 seconds between them...
+	}
+ * </pre>
+ * @author atul
+ */
+public final class WaitDeadline implements AutoCloseable {
+	private static Logger log = LogManager.getLogger(WaitDeadline.class);
+
+	private static final ThreadLocal<WaitDeadline> CURRENT = new ThreadLocal<>();
+
+	private final String owner;
+	private final long budgetMillis;
+	private final long expiresAtNanos;
+	private final WaitDeadline parent;
+	private String mostRecentConsumer;
+
+	private WaitDeadline(String owner, long budgetMillis, long expiresAtNanos, WaitDeadline parent) {
+		this.owner = owner;
+		this.budgetMillis = budgetMillis;
+		this.expiresAtNanos = expiresAtNanos;
+		this.parent = parent;
+	}
+
+	/**
+	 * Opens a deadline on the current thread, which remains in force until closed.
+	 * <p>If a deadline is already open, the new one expires at whichever is earlier - its own
+	 * budget or the remaining budget of the enclosing deadline.
+	 * @param owner a description of what opened the deadline (e.g. a step or method name)
+	 * @param budgetMillis the time budget in milliseconds
+	 * @return the opened deadline, which must be closed (ideally via try-with-resources)
+	 */
+	public static WaitDeadline open(String owner, long budgetMillis) {
+		WaitDeadline parent = CURRENT.get();
+		long expiresAtNanos = System.nanoTime() + budgetMillis * 1_000_000L;
+		if (parent != null && parent.expiresAtNanos - expiresAtNanos < 0) {
+			expiresAtNanos = parent.expiresAtNanos;
+		}
+		WaitDeadline deadline = new WaitDeadline(owner, budgetMillis, expiresAtNanos, parent);
+		CURRENT.set(deadline);
+		return deadline;
+	}
+
+	/**
+	 * Discards any deadlines left open on the current thread - e.g. by a step which failed before
+	 * its deadline could be closed - so that they cannot constrain whatever runs next.
+	 */
+	public static void clear() {
+		WaitDeadline leftOver = CURRENT.get();
+		if (leftOver != null) {
+			log.warn("Discarding deadline left open : " + leftOver);
+			CURRENT.remove();
+		}
+	}
+
+	/**
+	 * @return the innermost deadline open on the current thread, or null if there is none.
+	 */
+	public static WaitDeadline current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Returns the number of milliseconds a wait may spend, given its own configured timeout.
+	 * <p>With no deadline open this is simply the requested time. Otherwise it is the lesser of
+	 * the requested time and the remaining budget, and the wait is recorded as the most recent
+	 * consumer of the budget so that a later timeout can name it.
+	 * @param waitDescription a description of the wait (e.g. the WaitUtilities method name and locator)
+	 * @param requestedMillis the timeout the wait would use on its own
+	 * @return the number of milliseconds the wait may use
+	 * @throws TimeoutException if the budget has already been exhausted
+	 */
+	public static long boundMillis(String waitDescription, long requestedMillis) {
+		WaitDeadline deadline = CURRENT.get();
+		if (deadline == null) return requestedMillis;
+		deadline.recordConsumer(waitDescription);
+		long remaining = deadline.remainingMillis();
+		if (remaining <= 0) throw deadline.exhausted(waitDescription, null);
+		return Math.min(requestedMillis, remaining);
+	}
+
+	/**
+	 * Similar to boundMillis, but never throws - used for sleeps, which should simply be cut short
+	 * once the budget has gone rather than fail.
+	 * @param requestedMillis the time the caller would like to sleep for
+	 * @return the number of milliseconds which may be slept, possibly 0
+	 */
+	public static long clampMillis(long requestedMillis) {
+		WaitDeadline deadline = CURRENT.get();
+		if (deadline == null) return requestedMillis;
+		return Math.max(0, Math.min(requestedMillis, deadline.remainingMillis()));
+	}
+
+	/**
+	 * Used by polling loops at the top of each iteration.
+	 * @param waitDescription a description of the wait doing the polling
+	 * @throws TimeoutException if a deadline is open and has been exhausted
+	 */
+	public static void checkRemaining(String waitDescription) {
+		boundMillis(waitDescription, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @return true if a deadline is open on the current thread and it has expired.
+	 */
+	public static boolean isCurrentExpired() {
+		WaitDeadline deadline = CURRENT.get();
+		return deadline != null && deadline.isExpired();
+	}
+
+	/**
+	 * Converts a TimeoutException thrown by a bounded wait into one which explains that the shared budget
+	 * was used up, naming the wait which consumed it and the owner of the deadline.
+	 * <p>If the wait timed out on its own terms (i.e. the deadline had not expired) the original
+	 * exception is returned unchanged.
+	 * @param waitDescription a description of the wait which timed out
+	 * @param e the original TimeoutException
+	 * @return the TimeoutException to throw
+	 */
+	public static TimeoutException explain(String waitDescription, TimeoutException e) {
+		WaitDeadline deadline = CURRENT.get();
+		if (deadline == null || !deadline.isExpired()) return e;
+		return deadline.exhausted(waitDescription, e);
+	}
+
+	/**
+	 * @return the number of milliseconds before this deadline expires (negative once expired).
+	 */
+	public long remainingMillis() {
+		return (expiresAtNanos - System.nanoTime()) / 1_000_000L;
+	}
+
+	/**
+	 * @return true if this deadline has expired.
+	 */
+	public boolean isExpired() {
+		return expiresAtNanos - System.nanoTime() <= 0;
+	}
+
+	@SuppressWarnings("javadoc")
+	public String getOwner() {
+		return owner;
+	}
+
+	/**
+	 * @return a description of the wait which most recently drew on this deadline, or null if none has.
+	 */
+	public String getMostRecentConsumer() {
+		return mostRecentConsumer;
+	}
+
+	/**
+	 * Closes this deadline, reinstating the enclosing one (if any) as the current deadline.
+	 */
+	@Override
+	public void close() {
+		if (CURRENT.get() != this) {
+			log.warn("Deadline for " + owner + " closed out of order");
+		}
+		CURRENT.set(parent);
+	}
+
+	private void recordConsumer(String waitDescription) {
+		// Recorded all the way up, so an outer deadline can also report who used up its time.
+		for (WaitDeadline d = this; d != null; d = d.parent) {
+			d.mostRecentConsumer = waitDescription;
+		}
+	}
+
+	private TimeoutException exhausted(String waitDescription, TimeoutException cause) {
+		// Report the deadline whose own budget was binding, which may be an enclosing one.
+		WaitDeadline binding = this;
+		while (binding.parent != null && binding.parent.expiresAtNanos == binding.expiresAtNanos) {
+			binding = binding.parent;
+		}
+		String message = "Time budget of " + binding.budgetMillis / 1000.0 + " seconds for " + binding.owner +
+				" exhausted by " + waitDescription;
+		log.warn(message);
+		return cause == null ? new TimeoutException(message) : new TimeoutException(message, cause);
+	}
+
+	@Override
+	public String toString() {
+		return "WaitDeadline[" + owner + ", remaining " + remainingMillis() + " ms]";
+	}
+}
@@ -0,0 +1,128 @@
+package com.sse.utilities;
+
+import org.openqa.selenium.TimeoutException;
+
+import com.sse.utilities.timers.FlightRecorderEvents.WaitEvent;
+import com.sse.utilities.timers.HierarchicalStopWatchController;
+import com.sse.utilities.timers.TraceExporter;
+import com.sse.utilities.timers.WaitLatencyRecorder;
+import com.sse.utilities.timers.WaitLatencyRecorder.Outcome;
+
+/**
+ * Times one WaitUtilities entry point - charging it to the wait stop watch and recording its latency
+ * and outcome against the page method which called it.
+ * <p>Where one WaitUtilities method calls another, only the outermost is recorded, so each wait
+ * a page asks for appears once in the report.
+ * <p>Each probe is also a flight recorder WaitEvent, recorded when a recording has the event enabled.
+ * @author atul
+ */
+final class WaitProbe {
+
+	private static final String WAIT_UTILITIES = WaitUtilities.class.getName();
+	private static final String PROXY_PREFIX = "Proxy element for: DefaultElementLocator ";
+	private static final String BOUND_PREFIX = "Bound element ";
+	private static final int MAX_LOCATOR_LENGTH = 200;
+
+	private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+	private final String method;
+	private final Object locator;
+	private final boolean outermost;
+	private final long startNanos;
+	private final WaitEvent event = new WaitEvent();
+	private Outcome outcome = Outcome.SATISFIED;
+	private boolean stopped;
+
+	private WaitProbe(String method, Object locator) {
+		this.method = method;
+		this.locator = locator;
+		this.outermost = depth.get()[0]++ == 0;
+		HierarchicalStopWatchController.waitWatch.start();
+		event.begin();
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Starts timing a wait.
+	 * @param method the WaitUtilities method
+	 * @param locator what is being waited for (WebElement, By, XPath, condition...) - may be null
+	 * @return the probe, to be stopped when the wait ends
+	 */
+	static WaitProbe start(String method, Object locator) {
+		return new WaitProbe(method, locator);
+	}
+
+	/**
+	 * Marks the wait as having ended with the passed exception.
+	 * @param <T> the type of exception
+	 * @param e the exception
+	 * @return e, so it can be rethrown with "throw probe.failed(e)"
+	 */
+	<T extends Throwable> T failed(T e) {
+		outcome = e instanceof TimeoutException ? Outcome.TIMED_OUT : Outcome.EXCEPTION;
+		return e;
+	}
+
+	/**
+	 * Marks the wait as having timed out, for waits which return normally when they run out of time.
+	 */
+	void timedOut() {
+		outcome = Outcome.TIMED_OUT;
+	}
+
+	/**
+	 * Stops timing the wait and records it. Further calls do nothing.
+	 */
+	void stop() {
+		if (stopped) return;
+		stopped = true;
+		long elapsedNanos = System.nanoTime() - startNanos;
+		event.end();
+		HierarchicalStopWatchController.waitWatch.stop();
+		depth.get()[0]--;
+		if (outermost) {
+			WaitLatencyRecorder.record(findCallSite(), method, describe(locator), outcome, elapsedNanos);
+		}
+		if (TraceExporter.isEnabled()) {
+			TraceExporter.span(method + " " + describe(locator), "WAIT", startNanos, elapsedNanos);
+		}
+		if (event.shouldCommit()) {
+			event.method = method;
+			event.locator = describe(locator);
+			event.callSite = findCallSite();
+			event.outcome = outcome.toString();
+			event.commit();
+		}
+	}
+
+	/*
+	 * The first frame outside WaitUtilities and this class, as SimpleClassName.method
+	 */
+	private static String findCallSite() {
+		for (StackTraceElement frame : new Throwable().getStackTrace()) {
+			String className = frame.getClassName();
+			if (className.equals(WAIT_UTILITIES) || className.equals(WaitProbe.class.getName())) continue;
+			return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+		}
+		return "(unknown)";
+	}
+
+	/*
+	 * A WebElement's toString includes the driver and session, so only the locator part is kept.
+	 */
+	private static String describe(Object locator) {
+		if (locator == null) return "-";
+		String description = String.valueOf(locator);
+		if (description.startsWith(PROXY_PREFIX)) {
+			description = description.substring(PROXY_PREFIX.length());
+		}
+		else if (description.startsWith(BOUND_PREFIX)) {
+			description = description.substring(BOUND_PREFIX.length());
+		}
+		int arrow = description.lastIndexOf("-> ");
+		if (arrow >= 0) {
+			description = description.substring(arrow + 3, description.endsWith("]") ? description.length() - 1 : description.length());
+		}
+		return description.length() > MAX_LOCATOR_LENGTH ? description.substring(0, MAX_LOCATOR_LENGTH) + "..." : description;
+	}
+}
@@ -5,9 +5,10 @@ import static org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElemen
 import static org.openqa.selenium.support.ui.ExpectedConditions.visibilityOf;
 import static org.openqa.selenium.support.ui.ExpectedConditions.visibilityOfElementLocated;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -25,7 +26,9 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Wait;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import com.sse.utilities.timers.L2IStopWatchController;
+import com.sse.utilities.timers.AbstractStopWatch;
+import com.sse.utilities.timers.HierarchicalStopWatchController;
+import com.sse.utilities.timers.SleepAudit;
 /**
  * A collection of utilities associated with waiting strategies.
  * Some are potentially UNTESTED and most are probably improvable, but this is a starting point!!!
@@ -33,10 +36,59 @@ import com.sse.utilities.timers.L2IStopWatchController;
  */
 public final class WaitUtilities {
 	private static Logger log = LogManager.getLogger(WaitUtilities.class);
+	private static final long DEADLINE_SLEEP_TIMEOUT_MILLIS = 200;
+	private static final long NETWORK_IDLE_SLEEP_TIMEOUT_MILLIS = 100;
+	private static final long NETWORK_QUIET_MILLIS = 500;
+	private static final long RACE_SLEEP_TIMEOUT_MILLIS = 100;
+	private static final int SETTLE_TIMEOUT_SECONDS = 10;
+	private static final int REFRESH_ARRIVAL_TIMEOUT_SECONDS = 4;
 	
 	private WaitUtilities() {
 	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
 	}	
+
+    /**
+     * Waits on a condition using the passed (usually shared) driver wait, unless a {@link WaitDeadline} is open
+     * with less time remaining than the wait's own timeout - in which case only the remaining budget is used.
+     * <p>A TimeoutException caused by the budget running out names this wait as the one which consumed it.
+     * <p>The timeout itself is the one calibrated for the environment by {@link TimeoutProfile} (the configured
+     * timeout unless profiles are enabled), and the time taken is recorded to calibrate later runs.
+     * @param configuredWait the driver wait to use when the full timeout is available
+     * @param configuredSeconds the timeout of configuredWait in seconds
+     * @param condition the condition to wait for
+     * @param waitDescription a description of the wait for reporting
+     * @return the value returned by the condition
+     */
+    private static <T> T until(Wait<WebDriver> configuredWait, long configuredSeconds,
+    		Function<? super WebDriver, T> condition, String waitDescription) {
+    	return until(configuredWait, configuredSeconds, condition, waitDescription, true);
+    }
+
+    /*
+     * As until(), but for a wait which is expected to be quick and tolerates timing out (e.g. waitForPageToSettle)
+     * when profiled is false : it uses its configured timeout and is not recorded, so that it neither is shortened
+     * by nor pulls down the calibrated timeout of the real waits which share its number of seconds.
+     */
+    private static <T> T until(Wait<WebDriver> configuredWait, long configuredSeconds,
+    		Function<? super WebDriver, T> condition, String waitDescription, boolean profiled) {
+    	long calibratedMillis = profiled ? TimeoutProfile.calibratedMillis(configuredSeconds) : configuredSeconds * 1000;
+    	long boundMillis = WaitDeadline.boundMillis(waitDescription, calibratedMillis);
+    	Wait<WebDriver> wait = configuredWait;
+    	if (boundMillis != configuredSeconds * 1000) {
+    		wait = new WebDriverWait(Browser.driver, configuredSeconds, DEADLINE_SLEEP_TIMEOUT_MILLIS)
+    				.withTimeout(Duration.ofMillis(boundMillis));
+    	}
+    	long startNanos = System.nanoTime();
+    	try {
+    		T result = wait.until(condition);
+    		if (profiled) TimeoutProfile.recordSuccess(configuredSeconds, (System.nanoTime() - startNanos) / 1_000_000L);
+    		return result;
+    	}
+    	catch (TimeoutException e) {
+    		if (profiled && !WaitDeadline.isCurrentExpired()) TimeoutProfile.recordTimeout(configuredSeconds);
+    		throw WaitDeadline.explain(waitDescription, e);
+    	}
+    }
 	
     /**
      * Tries to wait for an Element to be clickable.
@@ -46,27 +98,35 @@ public final class WaitUtilities {
      * @param waitTimeInSeconds number of seconds to wait for element to be clickable.
      */
     public static void waitForElementToBeClickableSafe(WebElement element, int waitTimeInSeconds) {
-    	L2IStopWatchController.waitWatch.start();
-        WaitUtilities.waitForElementWithSleep(element, waitTimeInSeconds);
-        int count = 0;
-        boolean continueOn = false;
-        while (!continueOn)
-        {
-            try
-            {
-                waitForWebElementToBeClickable(element, waitTimeInSeconds);
-                continueOn = true;
-            }
-            catch (StaleElementReferenceException e)
-            {
-                count++;
-                if (count == 16)
-                    throw new RuntimeException("StaleElementReferenceException not going away when waiting for element to become clickable.", e);
-                // Do not remove
-                sleepMillis(250);
-            }
-        }
-    	L2IStopWatchController.waitWatch.stop();
+    	WaitProbe probe = WaitProbe.start("waitForElementToBeClickableSafe", element);
+    	try {
+	        WaitUtilities.waitForElementWithSleep(element, waitTimeInSeconds);
+	        int count = 0;
+	        boolean continueOn = false;
+	        while (!continueOn)
+	        {
+	            WaitDeadline.checkRemaining("waitForElementToBeClickableSafe " + element);
+	            try
+	            {
+	                waitForWebElementToBeClickable(element, waitTimeInSeconds);
+	                continueOn = true;
+	            }
+	            catch (StaleElementReferenceException e)
+	            {
+	                count++;
+	                if (count == 16)
+	                    throw new RuntimeException("StaleElementReferenceException not going away when waiting for element to become clickable.", e);
+	                // Do not remove
+	                sleepMillis(250);
+	            }
+	        }
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
     }
 
 
@@ -81,12 +141,15 @@ public final class WaitUtilities {
      * @param element the WebElement
      */
     public static void waitForElementVisible(WebElement element) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementVisible", element);
     	try {
-    		Browser.defaultDriverWait.until(visibilityOf(element));
+    		until(Browser.defaultDriverWait, Browser.DEFAULT_WAIT_TIMEOUT_SECS, visibilityOf(element), "waitForElementVisible " + element);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -100,12 +163,15 @@ public final class WaitUtilities {
      * @param element the WebElement
      */
     public static void waitShortForElementVisible(WebElement element) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitShortForElementVisible", element);
     	try {
-    		Browser.shortDriverWait.until(visibilityOf(element));
+    		until(Browser.shortDriverWait, Browser.SHORT_WAIT_TIMEOUT_SECS, visibilityOf(element), "waitShortForElementVisible " + element);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -119,16 +185,19 @@ public final class WaitUtilities {
      * @param element the WebElement
      */
     public static void waitForElementInvisible(WebElement element) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementInvisible", element);
     	try {
 	    	List<WebElement> list = new ArrayList<>();
 	    	list.add(element);
 	    	//LONGTERM invisibilityOf(element) is in current Selenium API but perhaps a different version???
 	    	//To be investigated much later!
-	    	Browser.defaultDriverWait.until(invisibilityOfAllElements(list));
+	    	until(Browser.defaultDriverWait, Browser.DEFAULT_WAIT_TIMEOUT_SECS, invisibilityOfAllElements(list), "waitForElementInvisible " + element);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -142,16 +211,19 @@ public final class WaitUtilities {
      * @param element the WebElement
      */
     public static void waitLongForElementInvisible(WebElement element) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitLongForElementInvisible", element);
     	try {
     		List<WebElement> list = new ArrayList<>();
     		list.add(element);
     		//LONGTERM invisibilityOf(element) is in current Selenium API but perhaps a different version???
     		//To be investigated much later!
-    		Browser.longDriverWait.until(invisibilityOfAllElements(list));
+    		until(Browser.longDriverWait, Browser.LONG_WAIT_TIMEOUT_SECS, invisibilityOfAllElements(list), "waitLongForElementInvisible " + element);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -165,16 +237,19 @@ public final class WaitUtilities {
      * @param element the WebElement
      */
     public static void waitShortForElementInvisible(WebElement element) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitShortForElementInvisible", element);
     	try {
 	    	List<WebElement> list = new ArrayList<>();
 	    	list.add(element);
 	    	//LONGTERM invisibilityOf(element) is in current Selenium API but perhaps a different version???
 	    	//To be investigated much later!
-	    	Browser.shortDriverWait.until(invisibilityOfAllElements(list));
+	    	until(Browser.shortDriverWait, Browser.SHORT_WAIT_TIMEOUT_SECS, invisibilityOfAllElements(list), "waitShortForElementInvisible " + element);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -187,12 +262,15 @@ public final class WaitUtilities {
      * @param locator the By locator
      */
     public static void waitForElementVisibleLocated(By locator) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementVisibleLocated", locator);
     	try {
-    		Browser.defaultDriverWait.until(visibilityOfElementLocated(locator));
+    		until(Browser.defaultDriverWait, Browser.DEFAULT_WAIT_TIMEOUT_SECS, visibilityOfElementLocated(locator), "waitForElementVisibleLocated " + locator);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -205,12 +283,15 @@ public final class WaitUtilities {
      */
 
     public static void waitForElementPresentLocated(By locator) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementPresentLocated", locator);
     	try {
-    		Browser.defaultDriverWait.until(presenceOfElementLocated(locator));
+    		until(Browser.defaultDriverWait, Browser.DEFAULT_WAIT_TIMEOUT_SECS, presenceOfElementLocated(locator), "waitForElementPresentLocated " + locator);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -223,12 +304,15 @@ public final class WaitUtilities {
      * @param locator the By locator
      */
     public static void waitLongForElementPresentLocated(By locator) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitLongForElementPresentLocated", locator);
     	try {
-    		Browser.longDriverWait.until(presenceOfElementLocated(locator));
+    		until(Browser.longDriverWait, Browser.LONG_WAIT_TIMEOUT_SECS, presenceOfElementLocated(locator), "waitLongForElementPresentLocated " + locator);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -241,12 +325,15 @@ public final class WaitUtilities {
      * @param locator the By locator
      */
     public static void waitLongForElementVisibleLocated(By locator) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitLongForElementVisibleLocated", locator);
     	try {
-    		Browser.longDriverWait.until(visibilityOfElementLocated(locator));
+    		until(Browser.longDriverWait, Browser.LONG_WAIT_TIMEOUT_SECS, visibilityOfElementLocated(locator), "waitLongForElementVisibleLocated " + locator);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -259,12 +346,15 @@ public final class WaitUtilities {
      * @param locator the By locator
      */
     public static void waitShortForElementVisibleLocated(By locator) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitShortForElementVisibleLocated", locator);
     	try {
-    		Browser.shortDriverWait.until(visibilityOfElementLocated(locator));
+    		until(Browser.shortDriverWait, Browser.SHORT_WAIT_TIMEOUT_SECS, visibilityOfElementLocated(locator), "waitShortForElementVisibleLocated " + locator);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -274,12 +364,15 @@ public final class WaitUtilities {
      * @param locator the By locator
      */
     public static void waitShortForElementInvisibleLocated(By locator) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitShortForElementInvisibleLocated", locator);
     	try {
-    		Browser.shortDriverWait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+    		until(Browser.shortDriverWait, Browser.SHORT_WAIT_TIMEOUT_SECS, ExpectedConditions.invisibilityOfElementLocated(locator), "waitShortForElementInvisibleLocated " + locator);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -293,17 +386,34 @@ public final class WaitUtilities {
 
     /**
      * Makes the current Thread sleep for a number of milliseconds.
+     * <p>The sleep is unconditional, so is recorded by the SleepAudit - wherever it is called from.
+     * Prefer a condition-based wait wherever there is something to wait for.
      * @param timeMillis - time in milliseconds
      */
     public static void sleepMillis(long timeMillis) {
-    	L2IStopWatchController.waitWatch.start();
+    	pause(timeMillis, true);
+    }
+
+    /*
+     * The interval between two checks of a condition in one of this class's polling loops - part of the wait,
+     * so timed as waiting and not recorded by the SleepAudit. Use sleepMillis for anything else.
+     */
+    private static void pollInterval(long timeMillis) {
+    	pause(timeMillis, false);
+    }
+
+    private static void pause(long timeMillis, boolean unconditional) {
+		long clampedMillis = WaitDeadline.clampMillis(timeMillis);
+		if (unconditional) SleepAudit.recordSleep(clampedMillis);
+		AbstractStopWatch watch = unconditional ? HierarchicalStopWatchController.sleepWatch : HierarchicalStopWatchController.waitWatch;
+    	watch.start();
     	try {
-    		Thread.sleep(timeMillis);
+    		Thread.sleep(clampedMillis);
     	}
     	catch (InterruptedException ie) {
     		log.warn("InterruptedException thrown during sleep",ie);
     	}
-   		L2IStopWatchController.waitWatch.stop();
+   		watch.stop();
     }
 
     /**
@@ -312,12 +422,15 @@ public final class WaitUtilities {
      * @param textToBePresent text in the element
      */
     public static void waitForElementInvisible(WebElement element, String textToBePresent) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementInvisible", element);
     	try {
-    		Browser.defaultDriverWait.until(ExpectedConditions.not(ExpectedConditions.textToBePresentInElement(element, textToBePresent)));
+    		until(Browser.defaultDriverWait, Browser.DEFAULT_WAIT_TIMEOUT_SECS, ExpectedConditions.not(ExpectedConditions.textToBePresentInElement(element, textToBePresent)), "waitForElementInvisible " + element);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -327,12 +440,15 @@ public final class WaitUtilities {
      * @param webElementBy the By locator for the given element.
      */
     public static void waitForElementInvisibleBy(By webElementBy) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementInvisibleBy", webElementBy);
     	try {
-    		Browser.defaultDriverWait.until(ExpectedConditions.invisibilityOfElementLocated(webElementBy));
+    		until(Browser.defaultDriverWait, Browser.DEFAULT_WAIT_TIMEOUT_SECS, ExpectedConditions.invisibilityOfElementLocated(webElementBy), "waitForElementInvisibleBy " + webElementBy);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -341,12 +457,198 @@ public final class WaitUtilities {
      * @param title the page title
      */
     public static void waitForPageTitle(String title) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForPageTitle", title);
+    	try {
+    		until(Browser.defaultDriverWait, Browser.DEFAULT_WAIT_TIMEOUT_SECS, ExpectedConditions.titleContains(title), "waitForPageTitle " + title);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
+    }
+
+    /**
+     * Waits until the browser has had no XHR/fetch (and therefore Aura) requests in flight for quietMillis.
+     * <p>Use this after actions such as Save or switching tabs instead of sleeping, so that we only wait
+     * as long as Lightning is actually busy talking to the server.
+     * @param quietMillis how long the page must have been free of server calls
+     * @param timeoutSeconds the maximum number of seconds to wait
+     * @see NetworkActivityTracker
+     */
+    public static void waitForNetworkIdle(long quietMillis, int timeoutSeconds) {
+    	waitForNetworkIdle(quietMillis, timeoutSeconds, true);
+    }
+
+    private static void waitForNetworkIdle(long quietMillis, int timeoutSeconds, boolean profiled) {
+    	WaitProbe probe = WaitProbe.start("waitForNetworkIdle", "quiet " + quietMillis + " ms");
+    	try {
+    		Wait<WebDriver> waitLocal = new WebDriverWait(Browser.driver, timeoutSeconds, NETWORK_IDLE_SLEEP_TIMEOUT_MILLIS);
+    		until(waitLocal, timeoutSeconds, NetworkActivityTracker.networkIdleFor(quietMillis),
+    				"waitForNetworkIdle " + quietMillis + " ms", profiled);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
+    }
+
+    /**
+     * Waits for a default quiet period of network inactivity, using the default wait time.
+     * @see #waitForNetworkIdle(long, int)
+     */
+    public static void waitForNetworkIdle() {
+    	waitForNetworkIdle(NETWORK_QUIET_MILLIS, (int)Browser.DEFAULT_WAIT_TIMEOUT_SECS);
+    }
+
+    /**
+     * Waits for a composite condition on the page, evaluated with one script per poll however many checks it contains.
+     * @param condition the condition to wait for
+     * @param timeoutSeconds the maximum number of seconds to wait
+     * @see PageCondition
+     */
+    public static void waitFor(PageCondition condition, int timeoutSeconds) {
+    	WaitProbe probe = WaitProbe.start("waitFor", condition);
+    	try {
+    		Wait<WebDriver> waitLocal = new WebDriverWait(Browser.driver, timeoutSeconds, RACE_SLEEP_TIMEOUT_MILLIS);
+    		until(waitLocal, timeoutSeconds, condition, "waitFor " + condition);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
+    }
+
+    /**
+     * Waits for a composite condition on the page using the default wait time.
+     * @param condition the condition to wait for
+     * @see #waitFor(PageCondition, int)
+     */
+    public static void waitFor(PageCondition condition) {
+    	waitFor(condition, (int)Browser.DEFAULT_WAIT_TIMEOUT_SECS);
+    }
+
+    /**
+     * Waits for any variant of a locator chain to match, evaluating all of them with one script per poll.
+     * @param chain the locator chain
+     * @param parameter the label, title etc.
+     * @param timeoutSeconds the maximum number of seconds to wait
+     * @return the element found by the first variant which matched
+     * @see LocatorChain
+     */
+    public static WebElement waitForElementPresentLocated(LocatorChain chain, String parameter, int timeoutSeconds) {
+    	WaitProbe probe = WaitProbe.start("waitForElementPresentLocated", chain + " " + parameter);
+    	try {
+    		Wait<WebDriver> waitLocal = new WebDriverWait(Browser.driver, timeoutSeconds, RACE_SLEEP_TIMEOUT_MILLIS);
+    		return until(waitLocal, timeoutSeconds, chain.located(parameter), "waitForElementPresentLocated " + chain + " " + parameter);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
+    }
+
+    /**
+     * Gives the page a chance to settle (e.g. re-render after a refresh or a failed click) by waiting until
+     * it is network-idle - but for no longer than SETTLE_TIMEOUT_SECONDS, and without failing if it never is.
+     * <p>Use this in place of a fixed sleep where there is no specific element to wait for.
+     */
+    public static void waitForPageToSettle() {
+    	try {
+    		waitForNetworkIdle(NETWORK_QUIET_MILLIS, SETTLE_TIMEOUT_SECONDS, false);
+    	}
+    	catch (TimeoutException e) {
+    		log.debug("Page still not settled after " + SETTLE_TIMEOUT_SECONDS + " seconds, continuing : " + e.getMessage());
+    	}
+    }
+
+    /**
+     * Waits for the browser to report a non-blank current URL.
+     * @param timeoutSeconds the maximum number of seconds to wait
+     * @return the current URL
+     */
+    public static String waitForCurrentUrl(int timeoutSeconds) {
+    	WaitProbe probe = WaitProbe.start("waitForCurrentUrl", null);
+    	try {
+    		Wait<WebDriver> waitLocal = new WebDriverWait(Browser.driver, timeoutSeconds);
+    		return until(waitLocal, timeoutSeconds, new ExpectedCondition<String>() {
+    			@Override
+    			public String apply(WebDriver driver) {
+    				String url = driver.getCurrentUrl();
+    				return StringUtilities.isNullEmptyOrWhiteSpace(url) ? null : url;
+    			}
+
+    			@Override
+    			public String toString() {
+    				return "non-blank current URL";
+    			}
+    		}, "waitForCurrentUrl");
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
+    }
+
+    /**
+     * After an action which may or may not raise an alert (e.g. logout with unsaved changes), waits until either
+     * an alert appears or the element specified by the locator has gone - i.e. the page has moved on without one.
+     * <p>Returns quietly after timeoutSeconds if neither happens.
+     * @param locator locates an element which disappears when the action has taken effect
+     * @param timeoutSeconds the maximum number of seconds to wait
+     */
+    public static void waitForAlertOrElementGone(By locator, int timeoutSeconds) {
+    	WaitProbe probe = WaitProbe.start("waitForAlertOrElementGone", locator);
+    	try {
+    		Wait<WebDriver> waitLocal = new WebDriverWait(Browser.driver, timeoutSeconds, RACE_SLEEP_TIMEOUT_MILLIS);
+    		until(waitLocal, timeoutSeconds, ExpectedConditions.or(ExpectedConditions.alertIsPresent(),
+    				ExpectedConditions.invisibilityOfElementLocated(locator)), "waitForAlertOrElementGone " + locator, false);
+    	}
+    	catch (TimeoutException e) {
+    		probe.failed(e);
+    		log.debug("Neither alert nor disappearance of " + locator + " after " + timeoutSeconds + " seconds : " + e.getMessage());
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
+    }
+
+    /**
+     * Waits for whichever of several outcomes happens first and returns its key, so that the caller can
+     * branch immediately - e.g. a page which may show an error dialog, an interstitial or the page itself.
+     * <p>All the outcomes are checked in a single poll of the page.
+     * @param <K> the type of key identifying each outcome
+     * @param race the outcomes to wait for
+     * @param timeoutSeconds the maximum number of seconds to wait
+     * @return the key of the first outcome to happen
+     * @throws TimeoutException if none of the outcomes happens within timeoutSeconds
+     * @see RaceWait
+     */
+    public static <K> K waitForFirstOf(RaceWait<K> race, int timeoutSeconds) {
+    	WaitProbe probe = WaitProbe.start("waitForFirstOf", race);
     	try {
-    		Browser.defaultDriverWait.until(ExpectedConditions.titleContains(title));
+    		Wait<WebDriver> waitLocal = new WebDriverWait(Browser.driver, timeoutSeconds, RACE_SLEEP_TIMEOUT_MILLIS);
+    		K outcome = until(waitLocal, timeoutSeconds, race, "waitForFirstOf " + race);
+    		log.debug("waitForFirstOf " + race + " : " + outcome);
+    		return outcome;
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -356,7 +658,7 @@ public final class WaitUtilities {
      * UNTESTED but initially unclear if it works.
      */
     public static void waitForPageToLoad() {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForPageToLoad", null);
     	try {
     		ExpectedCondition<Boolean> pageLoadCondition = new
                 ExpectedCondition<Boolean>() {
@@ -365,10 +667,13 @@ public final class WaitUtilities {
                         return Boolean.valueOf("complete".equals(((JavascriptExecutor)driver).executeScript("return document.readyState")));
                     }
                 };
-                Browser.defaultDriverWait.until(pageLoadCondition);
+                until(Browser.defaultDriverWait, Browser.DEFAULT_WAIT_TIMEOUT_SECS, pageLoadCondition, "waitForPageToLoad");
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -379,12 +684,15 @@ public final class WaitUtilities {
      */
     public static void waitForUrlToContain(String partialURL) {
     	log.info("Waiting for URL to contain the string : " + partialURL);
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForUrlToContain", partialURL);
     	try {
-    		Browser.longDriverWait.until(ExpectedConditions.urlContains(partialURL));
+    		until(Browser.longDriverWait, Browser.LONG_WAIT_TIMEOUT_SECS, ExpectedConditions.urlContains(partialURL), "waitForUrlToContain " + partialURL);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -395,13 +703,17 @@ public final class WaitUtilities {
      */
     public static void waitForWebElementToBeClickable(WebElement webElement, int waitTimeInSeconds){
         int sleepTimeOutMillis = 250;
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForWebElementToBeClickable", webElement);
     	try {
     		Wait<WebDriver> waitLocal = new WebDriverWait(Browser.driver, waitTimeInSeconds, sleepTimeOutMillis);
-    		waitLocal.until(ExpectedConditions.elementToBeClickable(webElement));
+    		until(waitLocal, waitTimeInSeconds, ExpectedConditions.elementToBeClickable(webElement),
+    				"waitForWebElementToBeClickable " + webElement);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -411,16 +723,18 @@ public final class WaitUtilities {
      * @param waitTimeInSeconds how long to wait
      */
     public static void waitForWebElementToBeClickableByLocator(By locator, int waitTimeInSeconds){
-    	L2IStopWatchController.waitWatch.start();
-    	try {
+    	WaitProbe probe = WaitProbe.start("waitForWebElementToBeClickableByLocator", locator);
+    	// Both the visibility and clickable waits share waitTimeInSeconds, rather than 61 seconds plus waitTimeInSeconds.
+    	try (WaitDeadline deadline = WaitDeadline.open("waitForWebElementToBeClickableByLocator " + locator, waitTimeInSeconds * 1000L)) {
     		waitForElementVisibleLocated(locator);
     		WebElement waitForElement=Browser.driver.findElement(locator);
     		waitForWebElementToBeClickable(waitForElement,waitTimeInSeconds);
     	}catch(Exception e) {
+    		probe.failed(e);
     		log.warn(e.getClass()+" Exception caught!!! Waiting for element to be clickable failed!!! >> "+locator);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -429,24 +743,28 @@ public final class WaitUtilities {
      * @param textToFind the text which a page should contain
      */
     public static void waitforTextToAppear(String textToFind) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitforTextToAppear", textToFind);
     	try {
 	        if (!doesElementExist(By.cssSelector("body"), 2000))
 	            throw new RuntimeException("Cannot find 'body' region on the page");
 
 	        boolean textFound = false;
 	        for (int count = 0; count < 12; count++) {
+	            WaitDeadline.checkRemaining("waitforTextToAppear " + textToFind);
 	            textFound = Browser.driver.findElement(By.cssSelector("body")).getText().contains(textToFind);
 	            if (textFound) {
 	                break;
 	            }
-	            sleepMillis(250);
+	            pollInterval(250);
 	        }
 	        if (!textFound)
 	            throw new RuntimeException("Searching for string '" + textToFind + "' on the current page but it appears to not be present.");
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -457,31 +775,39 @@ public final class WaitUtilities {
      * @return true if the Element exists, false otherwise.
      */
     public static boolean doesElementExist(By webElementBy, int timeInMilliseconds) {
-    	L2IStopWatchController.waitWatch.start();
-        // Wait for a maximum specified amount of time for an element to exist and return true or false depending on the outcome
-
-        int timeElapsedInMilliseconds = 0;
-        boolean elementFound = false;
-
-        // Unavoidable thread sleep - to give the screen time to update
-        sleepMillis(500);
-
-        while (timeElapsedInMilliseconds < timeInMilliseconds)
-        {
-            try {
-        		List<WebElement> elements = Browser.driver.findElements(webElementBy);
-                elementFound = elements.size() > 0;
-                break;
-                //TODO There is a bug here! the catch block cannot ever be entered. 
-                // It is used in 5+ places apparently without issue, so need to review this!!!!! 
-            }
-            catch (@SuppressWarnings("unused") NoSuchElementException ex) {
-            	sleepMillis(250);
-                timeElapsedInMilliseconds += 250;
-            }
-        }
-        L2IStopWatchController.waitWatch.stop();
-        return elementFound;
+    	WaitProbe probe = WaitProbe.start("doesElementExist", webElementBy);
+    	try {
+	        // Wait for a maximum specified amount of time for an element to exist and return true or false depending on the outcome
+
+	        int timeElapsedInMilliseconds = 0;
+	        boolean elementFound = false;
+
+	        // Unavoidable thread sleep - to give the screen time to update
+	        sleepMillis(500);
+
+	        while (timeElapsedInMilliseconds < timeInMilliseconds)
+	        {
+	            WaitDeadline.checkRemaining("doesElementExist " + webElementBy);
+	            try {
+	        		List<WebElement> elements = Browser.driver.findElements(webElementBy);
+	                elementFound = elements.size() > 0;
+	                break;
+	                //TODO There is a bug here! the catch block cannot ever be entered. 
+	                // It is used in 5+ places apparently without issue, so need to review this!!!!! 
+	            }
+	            catch (@SuppressWarnings("unused") NoSuchElementException ex) {
+	            	pollInterval(250);
+	                timeElapsedInMilliseconds += 250;
+	            }
+	        }
+	        return elementFound;
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
     }
 
     /**
@@ -492,11 +818,17 @@ public final class WaitUtilities {
      * @return true if the Element exists, false otherwise.
      */
     public static boolean doesElementExist(By webElementBy) {
-    	L2IStopWatchController.waitWatch.start();
-
-		List<WebElement> elements = Browser.driver.findElements(webElementBy);
-        L2IStopWatchController.waitWatch.stop();
-		return elements.size() > 0;
+    	WaitProbe probe = WaitProbe.start("doesElementExist", webElementBy);
+    	try {
+    		List<WebElement> elements = Browser.driver.findElements(webElementBy);
+    		return elements.size() > 0;
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
     }
 
     /**
@@ -507,7 +839,7 @@ public final class WaitUtilities {
      * @return true if the Element exists, false otherwise.
      */
     public static boolean doesElementExist(String xpath) {
-    	By webElementBy = By.xpath(xpath);
+    	By webElementBy = Locators.xpath(xpath);
     	return doesElementExist(webElementBy);
     }
 
@@ -538,24 +870,28 @@ public final class WaitUtilities {
      * @throws RuntimeException if the element is still NOT enabled after the wait time
      */
 	public static void waitForElementToBeEnabled(WebElement element, int timeInMilliseconds) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementToBeEnabled", element);
     	try {
 	        int timeElapsedInMilliseconds = 0;
 	        while (timeElapsedInMilliseconds < timeInMilliseconds)
 	        {
+	            WaitDeadline.checkRemaining("waitForElementToBeEnabled " + element);
 	            try {
 	            	if (element.isEnabled()) return;
 	            }
 	            catch (@SuppressWarnings("unused") NoSuchElementException | StaleElementReferenceException ex) {
 	                //keep looping as the element may appear or not be stale...
 	            }
-	            sleepMillis(250);
+	            pollInterval(250);
 	            timeElapsedInMilliseconds += 250;
 	        }
 	        throw new RuntimeException("Element + " + element + " is still NOT enabled after waiting for " + timeElapsedInMilliseconds + " ms");
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -569,24 +905,28 @@ public final class WaitUtilities {
      * @throws RuntimeException if the element is still enabled after the wait time
      */
     public static void waitForElementToBeNotEnabled(WebElement element, int timeInMilliseconds) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementToBeNotEnabled", element);
     	try {
 	        int timeElapsedInMilliseconds = 0;
 	        while (timeElapsedInMilliseconds < timeInMilliseconds)
 	        {
+	            WaitDeadline.checkRemaining("waitForElementToBeNotEnabled " + element);
 	            try {
 	            	if (!element.isEnabled()) return;
 	            }
 	            catch (@SuppressWarnings("unused") NoSuchElementException|StaleElementReferenceException ex) {
 	            	return;
 	            }
-	            sleepMillis(250);
+	            pollInterval(250);
 	            timeElapsedInMilliseconds += 250;
 	        }
 	        throw new RuntimeException("Element + " + element + " is still enabled after waiting for " + timeElapsedInMilliseconds + " ms");
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -604,25 +944,29 @@ public final class WaitUtilities {
 	public static void refreshUntilWebElementVisibleAndContainsText
 		(final WebElement elemt, final List<String> searchTexts, final int numberOfRefreshes,
 			long millisBetweenRefreshes, String elementDescription) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("refreshUntilWebElementVisibleAndContainsText", elemt);
     	try {
 			refreshUntilWebElementVisible(elemt, numberOfRefreshes, elementDescription);
 
 			if (searchTexts == null || searchTexts.isEmpty()) return;
 			for (int i = 0; i < numberOfRefreshes; i++) {
+				WaitDeadline.checkRemaining("refreshUntilWebElementVisibleAndContainsText " + elementDescription);
 				for (String search : searchTexts) {
 					if (elemt.getText().contains(search)) {
 						return;
 					}
 				}
-				sleepMillis(millisBetweenRefreshes);
+				pollInterval(millisBetweenRefreshes);
 				log.info("About to refresh page to wait for element to contain text : " + searchTexts.toString());
 				Browser.refreshPage();
 			}
 			throw new RuntimeException(elementDescription + " not containing text '" + searchTexts + "' after " + numberOfRefreshes + " refreshes. Current element text : " + elemt.getText());
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
 	}
 
@@ -637,14 +981,14 @@ public final class WaitUtilities {
 	public static void refreshUntilWebElementVisible(final WebElement elemt, final int numberOfRefreshes,
 			String elementDescription) {
 		boolean okToContinue = false; // i.e. assume we need to keep refreshing until something nice happens.
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("refreshUntilWebElementVisible", elemt);
     	try {
     		WebDriverException mostRecentException = null;
 			for (int i = 0; i < numberOfRefreshes; i++) {
 				try {
 					log.info("About to refresh page to wait for element to become visible : " + elementDescription);
 					Browser.refreshPage();
-					Browser.driverWait15Seconds.until(visibilityOf(elemt));
+					until(Browser.driverWait15Seconds, Browser.WAIT_15_SECONDS, visibilityOf(elemt), "refreshUntilWebElementVisible " + elementDescription);
 					okToContinue = true;
 					break;
 				}
@@ -655,8 +999,11 @@ public final class WaitUtilities {
 			if (!okToContinue)
 				throw mostRecentException;
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
 	}
 
@@ -671,14 +1018,14 @@ public final class WaitUtilities {
 	public static void refreshUntilWebElementVisible(By locator, final int numberOfRefreshes,
 			String elementDescription) {
 		boolean okToContinue = false; // i.e. assume we need to keep refreshing until something nice happens.
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("refreshUntilWebElementVisible", locator);
     	try {
     		WebDriverException mostRecentException = null;
 			for (int i = 0; i < numberOfRefreshes; i++) {
 				try {
 					log.info("About to refresh page to wait for element to become visible : " + elementDescription);
 					Browser.refreshPage();
-					Browser.driverWait15Seconds.until(visibilityOfElementLocated(locator));
+					until(Browser.driverWait15Seconds, Browser.WAIT_15_SECONDS, visibilityOfElementLocated(locator), "refreshUntilWebElementVisible " + locator);
 					okToContinue = true;
 					break;
 				}
@@ -689,8 +1036,11 @@ public final class WaitUtilities {
 			if (!okToContinue)
 				throw mostRecentException;
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
 	}
 
@@ -704,7 +1054,7 @@ public final class WaitUtilities {
 	@SuppressWarnings("null")
 	public static void refreshUntilPageTitleCorrect(String title, final int numberOfRefreshes, String elementDescription) {
 		boolean okToContinue = false; // i.e. assume we need to keep refreshing until something nice happens.
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("refreshUntilPageTitleCorrect", title);
     	try {
     		TimeoutException mostRecentException = null;
 			for (int i = 0; i < numberOfRefreshes; i++) {
@@ -722,8 +1072,11 @@ public final class WaitUtilities {
 			if (!okToContinue)
 				throw mostRecentException;
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
 	}
 
@@ -736,20 +1089,26 @@ public final class WaitUtilities {
 	 * @throws RuntimeException if the Element does not cease to exist after several refreshes
 	 */
 	public static void refreshUntilWebElementDoesNotExist(final String xpath, final int numberOfRefreshes, String elementDescription) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("refreshUntilWebElementDoesNotExist", xpath);
     	try {
 			for (int i = 0; i < numberOfRefreshes; i++) {
+				WaitDeadline.checkRemaining("refreshUntilWebElementDoesNotExist " + xpath);
 				log.info("About to refresh page to wait for element to not exist. Xpath : " + xpath);
 				Browser.refreshPage();
-				sleep(4); //After refreshing a page, most things will not exist to start with!
+				//After refreshing a page, most things will not exist to start with - so let it load and settle first
+				waitForPageToLoad();
+				waitForPageToSettle();
 				if (!doesElementExist(xpath)) {
 					return;
 				}
 			}
 			throw new RuntimeException(elementDescription + " still exists after " + numberOfRefreshes + " refreshes. Current element xpath : " + xpath);
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
 	}
 
@@ -762,47 +1121,55 @@ public final class WaitUtilities {
 	 * @throws RuntimeException if the Element does not exist after several refreshes
 	 */
 	public static void refreshUntilWebElementExists(final String xpath, final int numberOfRefreshes, String elementDescription) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("refreshUntilWebElementExists", xpath);
     	try {
 			for (int i = 0; i < numberOfRefreshes; i++) {
+				WaitDeadline.checkRemaining("refreshUntilWebElementExists " + xpath);
 				log.info("About to refresh page to wait for element to exist. Xpath : " + xpath);
 				Browser.refreshPage();
-				sleep(4); //After refreshing a page, most things will not exist to start with!
-				if (doesElementExist(xpath)) {
+				//After refreshing a page, most things will not exist to start with - so give it a moment to appear
+				waitForPageToLoad();
+				if (existsWithin(xpath, REFRESH_ARRIVAL_TIMEOUT_SECONDS)) {
 					return;
 				}
 			}
 			throw new RuntimeException(elementDescription + " does not exist after " + numberOfRefreshes + " refreshes. Current element xpath : " + xpath);
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
 	}
 
     /**
-	 * Monitors the text value each second of an Element over 'seconds' seconds. If
-	 * it changes, the method returns once the change is detected. Otherwise it will
+	 * Monitors the text value of an Element over 'seconds' seconds. If
+	 * it changes, the method returns the instant the change is detected. Otherwise it will
 	 * return after the time limit has elapsed. It will also simply return in the
 	 * event of any Exception.
+	 * <p>The element is observed within the page (see TextChangeObserver) rather than polled.
 	 *
 	 * @param element the WebElement whose text value should change
 	 * @param seconds the maximum number of seconds to wait
 	 */
 	public static void returnIfTextValueChangesOrAfterSpecificTime(WebElement element, int seconds) {
-    	L2IStopWatchController.waitWatch.start();
-    	try {
-			String initialValue = element.getText();
-			log.debug(new Date() + "INITIAL VALUE = " + initialValue);
-			for (int i = 0; i < seconds; i++) {
-				sleep(1);
-				String currentValue = element.getText();
-				log.debug("CURRENT VALUE = " + currentValue);
-				if (!initialValue.equals(currentValue))
-					return;
-			}
+    	WaitProbe probe = WaitProbe.start("returnIfTextValueChangesOrAfterSpecificTime", element);
+    	try {
+    		long timeoutMillis = WaitDeadline.clampMillis(seconds * 1000L);
+			TextChangeObserver observed = TextChangeObserver.observe(element, null, timeoutMillis);
+			log.debug("returnIfTextValueChangesOrAfterSpecificTime " + observed.getStatus() + " : " + observed.getValue());
+			if (!observed.hasChanged()) probe.timedOut();
+    	}
+    	catch (WebDriverException e) {
+    		probe.failed(e);
+    		log.debug("returnIfTextValueChangesOrAfterSpecificTime returning after " + e);
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
     	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -811,34 +1178,74 @@ public final class WaitUtilities {
 	 * If it changes within the time interval, the method returns the new value once the change is detected.
 	 * Otherwise it will throw a RuntimeException.
 	 *
+	 * <p>The element is observed within the page (see TextChangeObserver), so the change is seen
+	 * as soon as it happens. If the element is replaced it is located again (for @FindBy elements).
+	 *
 	 * @param element the WebElement under scrutiny
 	 * @param valueToChangeFrom the text value which the WebElement should change from.
 	 * @param seconds the number of seconds to retry for.
 	 * @return the new value the element's text value has changed to.
 	 */
 	public static String returnNewTextValueOnceChangedFromValue(WebElement element, String valueToChangeFrom, int seconds) {
-		final int loopSleepMillis = 250;
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("returnNewTextValueOnceChangedFromValue", element);
     	try {
-			for (int i = 0; i < 1000/loopSleepMillis * seconds; i++) {
-				try {
-					String currentValue = element.getText();
-					log.debug("CURRENT VALUE = " + currentValue);
-					if (!valueToChangeFrom.equals(currentValue))
-						return currentValue;
-					sleepMillis(loopSleepMillis);
-				}
-				catch (StaleElementReferenceException e) {
-					log.warn("StaleElementReferenceException caught, will try again... " + e);
-				}
-			}
+			long timeoutMillis = WaitDeadline.boundMillis("returnNewTextValueOnceChangedFromValue " + element, seconds * 1000L);
+			TextChangeObserver observed = TextChangeObserver.observe(element, valueToChangeFrom, timeoutMillis);
+			if (observed.hasChanged())
+				return observed.getValue();
+			WaitDeadline.checkRemaining("returnNewTextValueOnceChangedFromValue " + element);
 			throw new RuntimeException(element + " has not changed value from '" + valueToChangeFrom + "' after " + seconds + " seconds.");
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
+    	finally {
+    		probe.stop();
+    	}
+	}
+
+	/**
+	 * As returnNewTextValueOnceChangedFromValue(WebElement, String, int), but the element is located by XPath
+	 * within the page after every change to the DOM - so it makes no difference if Lightning replaces the
+	 * element altogether while re-rendering.
+	 *
+	 * @param xpath the XPath of the element under scrutiny
+	 * @param valueToChangeFrom the text value which the element should change from.
+	 * @param seconds the number of seconds to wait for.
+	 * @return the new value the element's text value has changed to.
+	 */
+	public static String returnNewTextValueOnceChangedFromValue(String xpath, String valueToChangeFrom, int seconds) {
+    	WaitProbe probe = WaitProbe.start("returnNewTextValueOnceChangedFromValue", xpath);
+    	try {
+			long timeoutMillis = WaitDeadline.boundMillis("returnNewTextValueOnceChangedFromValue " + xpath, seconds * 1000L);
+			TextChangeObserver observed = TextChangeObserver.observe(xpath, valueToChangeFrom, timeoutMillis);
+			if (observed.hasChanged())
+				return observed.getValue();
+			WaitDeadline.checkRemaining("returnNewTextValueOnceChangedFromValue " + xpath);
+			throw new RuntimeException(xpath + " has not changed value from '" + valueToChangeFrom + "' after " + seconds + " seconds.");
+    	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
 	}
 
+    /*
+     * Whether an element matching the XPath appears within the time allowed - returning as soon as one does.
+     */
+    private static boolean existsWithin(String xpath, int timeoutSeconds) {
+    	try {
+    		Wait<WebDriver> waitLocal = new WebDriverWait(Browser.driver, timeoutSeconds);
+    		until(waitLocal, timeoutSeconds, ExpectedConditions.presenceOfElementLocated(Locators.xpath(xpath)), "existsWithin " + xpath, false);
+    		return true;
+    	}
+    	catch (@SuppressWarnings("unused") TimeoutException e) {
+    		return false;
+    	}
+    }
+
     /**
      * Waits for up to 'seconds' a WebElement to not be displayed. <br>
      * Useful for e.g. Address search element
@@ -846,22 +1253,26 @@ public final class WaitUtilities {
      * @param seconds the number of seconds to wait for
      */
     public static void waitToVanish(WebElement element, int seconds) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitToVanish", element);
     	try {
 	    	if (!doesElementExist(element)) {
 	    		//Just in case we're too early!
 	    		sleep(1);
 	    	}
 	    	for (int i = 0; i < seconds; i++) {
+				WaitDeadline.checkRemaining("waitToVanish " + element);
 				if (!element.isDisplayed()) {
 					return;
 				}
-				sleep(1);
+				pollInterval(1000);
 			}
 			throw new RuntimeException(element + " not disappearing after " + seconds + " seconds. Current element text : " + element.getText());
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
@@ -883,32 +1294,38 @@ public final class WaitUtilities {
      * @param waitLimitSeconds the max limit of waiting
      */
     public static void waitForElementWithSleep(WebElement element, int waitLimitSeconds) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitForElementWithSleep", element);
     	try {
 	        int seconds = 0;
 	        while (seconds < waitLimitSeconds)
 	        {
+	        	WaitDeadline.checkRemaining("waitForElementWithSleep " + element);
 	        	if(doesElementExist(element))
 	        		return;
-	        	sleepMillis(1000);
+	        	pollInterval(1000);
 	        	seconds++;
 	        }
 	        throw new RuntimeException("Element + " + element + " is still not exist after waiting for " +waitLimitSeconds+ " second(s)");
     	}
+    	catch (RuntimeException e) {
+    		throw probe.failed(e);
+    	}
     	finally {
-    		L2IStopWatchController.waitWatch.stop();
+    		probe.stop();
     	}
     }
 
     /**
      * that method waits and trying to click until a time limit specified
+     * <p>The time limit covers all retries, not just each individual clickable wait.
      * @param element the element we are waiting and trying to click
      * @param waitTimeLimitInSeconds the time limit of waiting
      */
     public static void waitUntilClick(WebElement element, int waitTimeLimitInSeconds) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitUntilClick", element);
     	 int count = 0;
          boolean continueOn = false;
+         try (WaitDeadline deadline = WaitDeadline.open("waitUntilClick " + element, waitTimeLimitInSeconds * 1000L)) {
          while (!continueOn) {
         	 try{
         		 MouseHoverUtilities.hover(element);
@@ -917,26 +1334,34 @@ public final class WaitUtilities {
         		 continueOn = true;
         	 }catch (Exception e){
         		 count++;
-        		 if (count == 40)
+        		 if (count == 40 || deadline.isExpired())
         			 ExceptionHandler.handleException("Issue clicking to WebElement: "+element, e, WaitUtilities.class);
 
         		 sleepMillis(1000);
         	 }
 
          }
-
-         L2IStopWatchController.waitWatch.stop();
+         }
+         catch (RuntimeException | Error e) {
+        	 probe.failed(e);
+        	 throw e;
+         }
+         finally {
+        	 probe.stop();
+         }
     }
 
     /**
      * that method waits and trying to click until a time limit specified
+     * <p>The time limit covers all retries, not just each individual clickable wait.
      * @param webElementBy the By Locator of the element we are waiting and trying to click
      * @param waitTimeLimitInSeconds the time limit of waiting
      */
     public static void waitUntilClick(By webElementBy, int waitTimeLimitInSeconds) {
-    	L2IStopWatchController.waitWatch.start();
+    	WaitProbe probe = WaitProbe.start("waitUntilClick", webElementBy);
     	 int count = 0;
          boolean continueOn = false;
+         try (WaitDeadline deadline = WaitDeadline.open("waitUntilClick " + webElementBy, waitTimeLimitInSeconds * 1000L)) {
          while (!continueOn) {
         	 try{
         		 WebElement element=Browser.driver.findElement(webElementBy);
@@ -946,15 +1371,21 @@ public final class WaitUtilities {
         		 continueOn = true;
         	 } catch (Exception e){
         		 count++;
-        		 if (count == 20)
+        		 if (count == 20 || deadline.isExpired())
         			 ExceptionHandler.handleException("Issue clicking to WebElement: "+webElementBy, e, WaitUtilities.class);
 
         		 sleepMillis(500);
         	 }
 
          }
-
-         L2IStopWatchController.waitWatch.stop();
+         }
+         catch (RuntimeException | Error e) {
+        	 probe.failed(e);
+        	 throw e;
+         }
+         finally {
+        	 probe.stop();
+         }
     }
 
 
@@ -9,6 +9,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.sse.utilities.credentials.SecretHandler;
+import com.sse.utilities.timers.FlightRecorderEvents.SoapEvent;
+import com.sse.utilities.timers.HierarchicalStopWatchController;
 import com.sforce.soap.enterprise.Connector;
 import com.sforce.soap.enterprise.EnterpriseConnection;
 import com.sforce.soap.enterprise.GetUserInfoResult;
@@ -59,11 +61,19 @@ public final class ConnectionUtilities {
 	private static void logout(String role) {
 		EnterpriseConnection enterpriseConnection = enterpriseConnectionMap.get(role);
 		if (enterpriseConnection != null) {
+			SoapEvent event = new SoapEvent();
+			event.begin();
+			boolean succeeded = false;
+			HierarchicalStopWatchController.soapWatch.start();
 			try {
 				enterpriseConnection.logout();
+				succeeded = true;
 				log.info("Successfully logged out of Salesforce API for role : " + role);
 			} catch (ConnectionException ce) {
 				log.error("Could not log out of Salesforce API for role : " + role, ce); //no further action, just assume that the session timeout will eventually clear the session.
+			} finally {
+				HierarchicalStopWatchController.soapWatch.stop();
+				commit(event, "logout", role, succeeded);
 			}
 		}
 	}
@@ -77,27 +87,55 @@ public final class ConnectionUtilities {
 	 *                             valid connection
 	 */
 	public static EnterpriseConnection getConnection(String role) throws ConnectionException {
-		EnterpriseConnection enterpriseConnection = enterpriseConnectionMap.get(role);
-		if (enterpriseConnection == null) {
-			enterpriseConnection = loginAndCreateConnection(role);
-			enterpriseConnectionMap.put(role, enterpriseConnection);
-		} else {
-			try {
-				enterpriseConnection.getUserInfo();
-			} catch (UnexpectedErrorFault uef) {
-				log.warn("UnexpectedErrorFault generated");
-				if (uef.getExceptionCode() == ExceptionCode.INVALID_SESSION_ID) {
-					log.warn("UnexpectedErrorFault generated as session invalid. Reauthenticating...");
-					// Re-authenticate the user
-					enterpriseConnection = loginAndCreateConnection(role);
-					enterpriseConnectionMap.put(role, enterpriseConnection);
-				} else {
-					log.error("UnexpectedErrorFault generated. Exception code : " + uef.getExceptionCode());
-					throw uef;
+		SoapEvent event = new SoapEvent();
+		event.begin();
+		boolean succeeded = false;
+		HierarchicalStopWatchController.soapWatch.start();
+		try {
+			EnterpriseConnection enterpriseConnection = enterpriseConnectionMap.get(role);
+			if (enterpriseConnection == null) {
+				enterpriseConnection = loginAndCreateConnection(role);
+				enterpriseConnectionMap.put(role, enterpriseConnection);
+			} else {
+				SoapEvent validation = new SoapEvent();
+				validation.begin();
+				try {
+					enterpriseConnection.getUserInfo();
+					commit(validation, "validate session", role, true);
+				} catch (UnexpectedErrorFault uef) {
+					commit(validation, "validate session", role, false);
+					log.warn("UnexpectedErrorFault generated");
+					if (uef.getExceptionCode() == ExceptionCode.INVALID_SESSION_ID) {
+						log.warn("UnexpectedErrorFault generated as session invalid. Reauthenticating...");
+						// Re-authenticate the user
+						enterpriseConnection = loginAndCreateConnection(role);
+						enterpriseConnectionMap.put(role, enterpriseConnection);
+					} else {
+						log.error("UnexpectedErrorFault generated. Exception code : " + uef.getExceptionCode());
+						throw uef;
+					}
 				}
 			}
+			succeeded = true;
+			return enterpriseConnection;
+		}
+		finally {
+			HierarchicalStopWatchController.soapWatch.stop();
+			commit(event, "getConnection", role, succeeded);
+		}
+	}
+
+	/*
+	 * Records the flight recorder event, if a recording wants it.
+	 */
+	private static void commit(SoapEvent event, String operation, String role, boolean succeeded) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			event.role = role;
+			event.succeeded = succeeded;
+			event.commit();
 		}
-		return enterpriseConnection;
 	}
 
 	/**
@@ -159,10 +197,21 @@ public final class ConnectionUtilities {
 		String passwordProperty = "Password" + roleSuffix + environment;
 		String userName = currentEnvironmentProperties.getProperty(userNameProperty);
 		String password = SecretHandler.decrypt(currentEnvironmentProperties.getProperty(passwordProperty));
-		EnterpriseConnection connection = login(userName, password, url);
-		connection.setDuplicateRuleHeader(true, false, true);
-		
-		GetUserInfoResult userInfo = connection.getUserInfo();
+		SoapEvent event = new SoapEvent();
+		event.begin();
+		boolean succeeded = false;
+		EnterpriseConnection connection;
+		GetUserInfoResult userInfo;
+		try {
+			connection = login(userName, password, url);
+			connection.setDuplicateRuleHeader(true, false, true);
+
+			userInfo = connection.getUserInfo();
+			succeeded = true;
+		}
+		finally {
+			commit(event, "login", role, succeeded);
+		}
 
 		log.debug("UserID: " + userInfo.getUserId());
 		log.info("User Full Name: " + userInfo.getUserFullName());
@@ -242,8 +291,21 @@ public final class ConnectionUtilities {
 		String passwordProperty = "Password" + roleSuffix + environment;
 		String userName = currentEnvironmentProperties.getProperty(userNameProperty);
 		String password = SecretHandler.decrypt(currentEnvironmentProperties.getProperty(passwordProperty));
-		LoginResult loginResult = loginAndReturnLoginResult(userName, password, url);
-		MetadataConnection metadataConnection = getMetadataConnection(loginResult);
+		LoginResult loginResult;
+		MetadataConnection metadataConnection;
+		SoapEvent event = new SoapEvent();
+		event.begin();
+		boolean succeeded = false;
+		HierarchicalStopWatchController.soapWatch.start();
+		try {
+			loginResult = loginAndReturnLoginResult(userName, password, url);
+			metadataConnection = getMetadataConnection(loginResult);
+			succeeded = true;
+		}
+		finally {
+			HierarchicalStopWatchController.soapWatch.stop();
+			commit(event, "metadata login", role, succeeded);
+		}
 
 		GetUserInfoResult userInfo = loginResult.getUserInfo();
 
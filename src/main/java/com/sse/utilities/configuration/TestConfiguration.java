@@ -5,6 +5,10 @@ import java.io.IOException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import com.sse.utilities.Browser;
+import com.sse.utilities.LocatorChain;
+import com.sse.utilities.PagePerformance;
+import com.sse.utilities.TimeoutProfile;
+import com.sse.utilities.timers.TimingBaseline;
 
 /**
  * Contains details of the overall configuration.
@@ -27,6 +31,12 @@ public final class TestConfiguration {
 	 * <br>Excludes trailing separator ("\\" on Windows)
 	 */
 	public static String scenarioDataStoreDirectory;
+	/**
+	 * Top-level directory location for the history carried from run to run (timeout profiles, timing baselines,
+	 * locator chain variants, sleep totals, page performance samples), each kept by environment.
+	 * <br>Outside target, so that it survives mvn clean. Excludes trailing separator ("\\" on Windows)
+	 */
+	public static final String HISTORY_DIRECTORY = USER_DIR + File.separator + "history";
 
 	private TestConfiguration() {
 	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
@@ -67,6 +77,14 @@ public final class TestConfiguration {
 
 		File directory = new File(scenarioDataStoreDirectory);
 		if (!directory.exists()) directory.mkdirs();
+
+		TimeoutProfile.load(PropertiesHolder.configurationProperties, environment,
+				new File(HISTORY_DIRECTORY + File.separator + "timeout-profiles"));
+		PagePerformance.configure(PropertiesHolder.configurationProperties, environment);
+		LocatorChain.load(environment, PropertiesHolder.environmentProperties.getProperty("URL." + environment),
+				new File(HISTORY_DIRECTORY + File.separator + "locator-chains"));
+		TimingBaseline.load(PropertiesHolder.configurationProperties, environment,
+				new File(HISTORY_DIRECTORY + File.separator + "timing-baseline"));
 		if (initialiseBrowser) Browser.initialise();
 
 	}
@@ -1,62 +1,75 @@
 package com.sse.utilities.timers;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Superclass of other "stop watch" classes - used to accumulate the elapsed time
  * of different types of activity within the automation suite.
+ * <p>Each watch times one {@link TimingCategory}. Starting and stopping is tracked per thread by
+ * the controller, which charges the time to whatever scenario/step is running on that thread, so
+ * a watch may be used from several threads at once. This watch simply accumulates the totals.
  * @author atul
  *
  */
 public class AbstractStopWatch {
 
-	protected StopWatchController controller;
-	protected long elapsedTime = 0;
-	protected long mostRecentStartTime = 0;
-	protected long mostRecentStopTime = 0;
-	protected int startCount = 0;
-	protected boolean started = false;
+	protected final StopWatchController controller;
+	protected final TimingCategory category;
+	private final AtomicLong elapsedNanos = new AtomicLong();
+	private final AtomicInteger startCount = new AtomicInteger();
 
 	/**
 	 * Constructor which take a reference to the "parent" StopWatch controller
 	 * @param controller the StopWatch Controller.
+	 * @param category the category of activity timed by this watch
 	 */
-	public AbstractStopWatch(StopWatchController controller) {
+	public AbstractStopWatch(StopWatchController controller, TimingCategory category) {
 		this.controller = controller;
+		this.category = category;
 	}
 
 	/**
-	 * Start the stop watch.
-	 * If it's already started, do nothing - otherwise notify the controller so that
-	 * it can stop other watches.
+	 * Start the stop watch on the current thread.
+	 * <p>Starts nest - the controller pauses whichever watch was running on this thread
+	 * until this one is stopped.
 	 */
 	public void start() {
-		if (started) return;
-		started = true;
-		startCount++;
-		mostRecentStartTime = System.currentTimeMillis();
+		startCount.incrementAndGet();
 		controller.startNotified(this);
 	}
 
 	/**
-	 * Stop the stop watch.
-	 * If it's already stopped, do nothing - otherwise notify the controller so that
-	 * it can start the default watch.
+	 * Stop the stop watch on the current thread, resuming whichever watch it interrupted.
+	 * If it's not running on this thread, do nothing.
 	 */
 	public void stop() {
-		if (!started) return;
-		started = false;
-		mostRecentStopTime = System.currentTimeMillis();
-		elapsedTime += mostRecentStopTime - mostRecentStartTime;
 		controller.stopNotified(this);
 	}
 
-	@SuppressWarnings("javadoc")
+	/**
+	 * Adds time to this watch - called by the controller.
+	 * @param nanos the time to add in nanoseconds
+	 */
+	void addElapsedNanos(long nanos) {
+		elapsedNanos.addAndGet(nanos);
+	}
+
+	/**
+	 * @return the total elapsed time in milliseconds, across all threads.
+	 */
 	public long getElapsedTime() {
-		return elapsedTime;
+		return elapsedNanos.get() / 1_000_000L;
 	}
 
 	@SuppressWarnings("javadoc")
 	public int getStartCount() {
-		return startCount;
+		return startCount.get();
+	}
+
+	@SuppressWarnings("javadoc")
+	public TimingCategory getCategory() {
+		return category;
 	}
 
 }
@@ -0,0 +1,21 @@
+package com.sse.utilities.timers;
+
+/**
+ * Stop watch for any category of activity without a stop watch class of its own
+ * (e.g. SOAP API calls, WebDriver commands, reporting).
+ * @author atul
+ *
+ */
+public class CategoryStopWatch extends AbstractStopWatch {
+
+	/**
+	 * Instantiates a new stop watch.
+	 *
+	 * @param controller the stop watch controller
+	 * @param category the category of activity timed by this watch
+	 */
+	public CategoryStopWatch(StopWatchController controller, TimingCategory category) {
+		super(controller, category);
+	}
+
+}
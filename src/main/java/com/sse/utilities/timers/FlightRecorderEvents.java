@@ -0,0 +1,117 @@
+package com.sse.utilities.timers;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for framework activity - waits, browser navigation and screenshots, SOAP calls
+ * and scenarios - so that a recording shows what the suite was doing alongside GC, allocation and thread data.
+ * <p>The events are off unless a recording enables them, as the l2i.jfc settings in src/test/resources do.
+ * When off, creating, beginning and ending an event costs next to nothing, and the fields are only filled in
+ * once shouldCommit() says the event will be recorded. Typical usage :
+ * <pre>
+	FlightRecorderEvents.BrowserEvent event = new FlightRecorderEvents.BrowserEvent();
+	event.begin();
+	...
+	event.end();
+	if (event.shouldCommit()) {
+		event.action = "navigate";
+		event.target = url;
+		event.commit();
+	}
+ * </pre>
+ * @author atul
+ *
+ */
+public final class FlightRecorderEvents {
+
+	private static final String CATEGORY = "L2I";
+
+	private FlightRecorderEvents() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * A wait made through WaitUtilities.
+	 */
+	@Name("com.sse.Wait")
+	@Label("Wait")
+	@Category({CATEGORY, "Wait"})
+	@Description("A wait made through WaitUtilities")
+	@StackTrace(false)
+	public static final class WaitEvent extends Event {
+		@SuppressWarnings("javadoc")
+		@Label("Method")
+		public String method;
+		@SuppressWarnings("javadoc")
+		@Label("Locator")
+		public String locator;
+		@SuppressWarnings("javadoc")
+		@Label("Call Site")
+		public String callSite;
+		@SuppressWarnings("javadoc")
+		@Label("Outcome")
+		public String outcome;
+	}
+
+	/**
+	 * A browser navigation, refresh or screenshot.
+	 */
+	@Name("com.sse.Browser")
+	@Label("Browser")
+	@Category({CATEGORY, "Browser"})
+	@Description("A browser navigation, refresh or screenshot")
+	@StackTrace(false)
+	public static final class BrowserEvent extends Event {
+		@SuppressWarnings("javadoc")
+		@Label("Action")
+		public String action;
+		@SuppressWarnings("javadoc")
+		@Label("Target")
+		public String target;
+	}
+
+	/**
+	 * A Salesforce SOAP API call made by ConnectionUtilities.
+	 */
+	@Name("com.sse.Soap")
+	@Label("SOAP Call")
+	@Category({CATEGORY, "SOAP"})
+	@Description("A Salesforce SOAP API call made by ConnectionUtilities")
+	@StackTrace(false)
+	public static final class SoapEvent extends Event {
+		@SuppressWarnings("javadoc")
+		@Label("Operation")
+		public String operation;
+		@SuppressWarnings("javadoc")
+		@Label("Role")
+		public String role;
+		@SuppressWarnings("javadoc")
+		@Label("Succeeded")
+		public boolean succeeded;
+	}
+
+	/**
+	 * A Cucumber scenario, from its Before hook to its After hook.
+	 */
+	@Name("com.sse.Scenario")
+	@Label("Scenario")
+	@Category({CATEGORY, "Cucumber"})
+	@Description("A Cucumber scenario, from its Before hook to its After hook")
+	@StackTrace(false)
+	public static final class ScenarioEvent extends Event {
+		@SuppressWarnings("javadoc")
+		@Label("Feature")
+		public String feature;
+		@SuppressWarnings("javadoc")
+		@Label("Scenario")
+		public String scenario;
+		@SuppressWarnings("javadoc")
+		@Label("Status")
+		public String status;
+	}
+}
@@ -0,0 +1,346 @@
+package com.sse.utilities.timers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Controller of all stopwatches, charging time to a tree of run, feature, scenario, step and activity.
+ * <p>Each thread has its own stack of open timing nodes and of running stop watches, so timings are correct
+ * when scenarios run in parallel. Whenever a watch starts or stops, or a node begins or ends, the time since
+ * the previous change on that thread is charged to the innermost open node under the category of the innermost
+ * running watch - or to the Java category if no watch is running. All times use System.nanoTime.
+ * <p>Watches nest: a sleep within a wait is charged to Sleep, and the wait resumes when the sleep stops.
+ * <p>On shut down, the time is summarised by category for the run, then broken down per scenario and per step.
+ * @author atul
+ *
+ */
+public class HierarchicalStopWatchController implements StopWatchController {
+	private static Logger log = LogManager.getLogger(HierarchicalStopWatchController.class);
+
+	/**
+	 * Default StopWatch for when Java is doing something.
+	 */
+	public static AbstractStopWatch javaWatch;
+	/**
+	 * StopWatch for when the suite is waiting.
+	 */
+	public static AbstractStopWatch waitWatch;
+	/**
+	 * StopWatch for unconditional sleeps.
+	 */
+	public static AbstractStopWatch sleepWatch;
+	/**
+	 * StopWatch for WebDriver commands (navigation etc.).
+	 */
+	public static AbstractStopWatch webDriverWatch;
+	/**
+	 * StopWatch for Salesforce SOAP API calls.
+	 */
+	public static AbstractStopWatch soapWatch;
+	/**
+	 * StopWatch for database calls.
+	 */
+	public static AbstractStopWatch jdbcWatch;
+	/**
+	 * StopWatch for reporting (screenshots, report files etc.).
+	 */
+	public static AbstractStopWatch reportingWatch;
+
+	private static HierarchicalStopWatchController instance;
+	private static final Map<TimingCategory, AbstractStopWatch> watches = new ConcurrentHashMap<>();
+
+	private static int textChangeCount;
+	private static long textChangeWaitMillis;
+	private static long textChangeDetectionMillis;
+	private static long maxTextChangeDetectionMillis;
+
+	private TimingNode run;
+	private final ThreadLocal<ThreadTiming> threadTiming = new ThreadLocal<ThreadTiming>() {
+		@Override
+		protected ThreadTiming initialValue() {
+			return new ThreadTiming(run);
+		}
+	};
+
+	/*
+	 * The open nodes and running watches of one thread, and when time was last charged.
+	 */
+	private static final class ThreadTiming {
+		private final Deque<TimingNode> nodes = new ArrayDeque<>();
+		// The number of running watches when each open node began, so that watches left running can be discarded.
+		private final Deque<Integer> watchDepths = new ArrayDeque<>();
+		private final Deque<AbstractStopWatch> runningWatches = new ArrayDeque<>();
+		// When each running watch started, for the trace
+		private final Deque<Long> watchStartNanos = new ArrayDeque<>();
+		private long markNanos = System.nanoTime();
+
+		ThreadTiming(TimingNode run) {
+			nodes.push(run);
+			watchDepths.push(Integer.valueOf(0));
+		}
+	}
+
+	@Override
+	public void initialise() {
+		run = new TimingNode(TimingLevel.RUN, "run", null);
+		threadTiming.remove();
+		watches.clear();
+		javaWatch = register(new JavaStopWatch(this));
+		waitWatch = register(new WaitingStopWatch(this));
+		sleepWatch = register(new CategoryStopWatch(this, TimingCategory.SLEEP));
+		webDriverWatch = register(new CategoryStopWatch(this, TimingCategory.WEBDRIVER));
+		soapWatch = register(new CategoryStopWatch(this, TimingCategory.SOAP));
+		jdbcWatch = register(new CategoryStopWatch(this, TimingCategory.JDBC));
+		reportingWatch = register(new CategoryStopWatch(this, TimingCategory.REPORTING));
+		instance = this;
+	}
+
+	private static AbstractStopWatch register(AbstractStopWatch watch) {
+		watches.put(watch.getCategory(), watch);
+		return watch;
+	}
+
+	/**
+	 * Returns the stop watch for a category, creating one for a category which has none yet.
+	 * @param category the category of activity
+	 * @return the stop watch timing that category
+	 */
+	public static AbstractStopWatch watch(TimingCategory category) {
+		AbstractStopWatch watch = watches.get(category);
+		if (watch == null) {
+			watches.putIfAbsent(category, new CategoryStopWatch(instance, category));
+			watch = watches.get(category);
+		}
+		return watch;
+	}
+
+	@Override
+	public void startNotified(AbstractStopWatch watch) {
+		ThreadTiming timing = threadTiming.get();
+		charge(timing);
+		timing.runningWatches.push(watch);
+		timing.watchStartNanos.push(Long.valueOf(timing.markNanos));
+	}
+
+	@Override
+	public void stopNotified(AbstractStopWatch watch) {
+		ThreadTiming timing = threadTiming.get();
+		if (!timing.runningWatches.contains(watch)) return;
+		charge(timing);
+		// Stop the most recent start of this watch, along with anything started within it and not stopped.
+		while (timing.runningWatches.peek() != watch) {
+			timing.runningWatches.pop();
+			timing.watchStartNanos.pop();
+		}
+		timing.runningWatches.pop();
+		long startNanos = timing.watchStartNanos.pop().longValue();
+		// Waits are traced by WaitProbe, which knows what was waited for.
+		if (watch.getCategory() != TimingCategory.WAIT) {
+			TraceExporter.span(watch.getCategory().toString(), watch.getCategory().toString(), startNanos, timing.markNanos - startNanos);
+		}
+	}
+
+	/*
+	 * Charges the time since the last change on this thread to the innermost node, under the running watch.
+	 */
+	private void charge(ThreadTiming timing) {
+		long now = System.nanoTime();
+		long elapsed = now - timing.markNanos;
+		timing.markNanos = now;
+		AbstractStopWatch watch = timing.runningWatches.isEmpty() ? javaWatch : timing.runningWatches.peek();
+		timing.nodes.peek().charge(watch.getCategory(), elapsed);
+		watch.addElapsedNanos(elapsed);
+	}
+
+	/**
+	 * Begins timing a scenario on the current thread, within its feature. Anything left open by a previous scenario is ended.
+	 * @param feature the name of the feature
+	 * @param scenario the name of the scenario
+	 */
+	public static void beginScenario(String feature, String scenario) {
+		if (instance == null) return; // i.e. controller wasn't initialised in any BeforeClass method
+		ThreadTiming timing = instance.threadTiming.get();
+		instance.endTo(timing, TimingLevel.FEATURE);
+		if (timing.nodes.peek().getLevel() == TimingLevel.FEATURE && !timing.nodes.peek().getName().equals(feature)) {
+			instance.endTo(timing, TimingLevel.RUN);
+		}
+		if (timing.nodes.peek().getLevel() == TimingLevel.RUN) {
+			instance.push(timing, instance.run.sharedChild(TimingLevel.FEATURE, feature));
+		}
+		instance.push(timing, timing.nodes.peek().newChild(TimingLevel.SCENARIO, scenario));
+	}
+
+	/**
+	 * Ends timing the current scenario (and any step or activity within it) on the current thread.
+	 */
+	public static void endScenario() {
+		end(TimingLevel.SCENARIO);
+	}
+
+	/**
+	 * Begins timing a step of the current scenario on the current thread.
+	 * @param step a description of the step
+	 */
+	public static void beginStep(String step) {
+		if (instance == null) return;
+		ThreadTiming timing = instance.threadTiming.get();
+		instance.endTo(timing, TimingLevel.SCENARIO);
+		instance.push(timing, timing.nodes.peek().newChild(TimingLevel.STEP, step));
+	}
+
+	/**
+	 * Ends timing the current step on the current thread.
+	 */
+	public static void endStep() {
+		end(TimingLevel.STEP);
+	}
+
+	/**
+	 * Begins timing a named activity within the current step, for use with try-with-resources :
+	 * <pre>
+		try (TimingScope scope = HierarchicalStopWatchController.activity("login")) {
+			...
+		}
+	 * </pre>
+	 * @param name a description of the activity
+	 * @return a scope which ends the activity when closed
+	 */
+	public static TimingScope activity(String name) {
+		if (instance != null) {
+			ThreadTiming timing = instance.threadTiming.get();
+			instance.push(timing, timing.nodes.peek().newChild(TimingLevel.ACTIVITY, name));
+		}
+		return new TimingScope();
+	}
+
+	/**
+	 * Closes an activity begun by {@link HierarchicalStopWatchController#activity(String)}.
+	 */
+	public static final class TimingScope implements AutoCloseable {
+		@Override
+		public void close() {
+			end(TimingLevel.ACTIVITY);
+		}
+	}
+
+	/**
+	 * @return the root of the timing tree, or null if the controller has not been initialised.
+	 */
+	public static TimingNode getRun() {
+		return instance == null ? null : instance.run;
+	}
+
+	/**
+	 * @return the innermost open timing node of the current thread, or null if the controller has not been initialised.
+	 */
+	public static TimingNode currentNode() {
+		return instance == null ? null : instance.threadTiming.get().nodes.peek();
+	}
+
+	/*
+	 * Ends the innermost open node at the passed level, and any nodes open within it.
+	 */
+	private static void end(TimingLevel level) {
+		if (instance == null) return;
+		ThreadTiming timing = instance.threadTiming.get();
+		int count = 0;
+		for (TimingNode node : timing.nodes) {
+			count++;
+			if (node.getLevel() == level) {
+				instance.charge(timing);
+				for (int i = 0; i < count; i++) {
+					instance.pop(timing);
+				}
+				return;
+			}
+		}
+	}
+
+	private void push(ThreadTiming timing, TimingNode node) {
+		charge(timing);
+		timing.nodes.push(node);
+		timing.watchDepths.push(Integer.valueOf(timing.runningWatches.size()));
+	}
+
+	/*
+	 * Ends open nodes until the innermost is at the passed level or above, discarding any watches they left running.
+	 */
+	private void endTo(ThreadTiming timing, TimingLevel level) {
+		charge(timing);
+		while (timing.nodes.peek().getLevel().compareTo(level) > 0) {
+			pop(timing);
+		}
+	}
+
+	private void pop(ThreadTiming timing) {
+		TimingNode node = timing.nodes.pop();
+		node.end();
+		TraceExporter.span(node.getName(), node.getLevel().toString(), node.getStartNanos(), node.getElapsedNanos());
+		int depth = timing.watchDepths.pop().intValue();
+		while (timing.runningWatches.size() > depth) {
+			timing.runningWatches.pop();
+			timing.watchStartNanos.pop();
+		}
+	}
+
+	/**
+	 * Records a text change detected by TextChangeObserver, for reporting at shut down.
+	 * @param waitedMillis how long was waited before the change
+	 * @param detectionMillis the delay between the change in the page and it being seen in Java
+	 */
+	public static synchronized void recordTextChange(long waitedMillis, long detectionMillis) {
+		textChangeCount++;
+		textChangeWaitMillis += waitedMillis;
+		textChangeDetectionMillis += detectionMillis;
+		maxTextChangeDetectionMillis = Math.max(maxTextChangeDetectionMillis, detectionMillis);
+	}
+
+	@Override
+	public void shutDown() {
+		if (instance == null) return; //i.e. controller wasn't initialised in any BeforeClass method
+		endTo(threadTiming.get(), TimingLevel.RUN);
+		run.end();
+
+		for (TimingCategory category : TimingCategory.values()) {
+			AbstractStopWatch watch = watches.get(category);
+			if (watch != null && watch.getStartCount() + watch.getElapsedTime() > 0) {
+				log.info(category + " time : " + watch.getElapsedTime()/1000.0 + " seconds (Count : " + watch.getStartCount() + ")");
+			}
+		}
+		if (textChangeCount > 0) {
+			log.info("Text changes : " + textChangeCount + " waited " + textChangeWaitMillis/1000.0 + " seconds, detection latency average "
+					+ textChangeDetectionMillis/textChangeCount + " ms, max " + maxTextChangeDetectionMillis + " ms");
+		}
+
+		for (TimingNode feature : run.getChildren()) {
+			for (TimingNode scenario : feature.getChildren()) {
+				log.info(feature.getName() + " : " + scenario.getName() + " - " + summarise(scenario));
+				for (TimingNode step : scenario.getChildren()) {
+					log.info("    " + step.getName() + " - " + summarise(step));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param node a timing node
+	 * @return a one line summary of the node's elapsed time and its breakdown by category.
+	 */
+	public static String summarise(TimingNode node) {
+		StringBuilder summary = new StringBuilder(String.valueOf(node.getElapsedNanos() / 1_000_000L / 1000.0)).append(" seconds (");
+		Map<TimingCategory, Long> totals = node.getTotalsByCategory();
+		boolean first = true;
+		for (TimingCategory category : TimingCategory.values()) {
+			Long nanos = totals.get(category);
+			if (nanos == null || nanos.longValue() == 0) continue;
+			summary.append(first ? "" : ", ").append(category).append(" ").append(nanos.longValue() / 1_000_000L / 1000.0);
+			first = false;
+		}
+		return summary.append(")").toString();
+	}
+}
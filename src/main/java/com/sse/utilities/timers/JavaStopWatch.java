@@ -15,7 +15,7 @@ public class JavaStopWatch extends AbstractStopWatch {
 	 * @param controller the controller
 	 */
 	public JavaStopWatch(StopWatchController controller) {
-		super(controller);
+		super(controller, TimingCategory.JAVA);
 	}
 
 }
@@ -0,0 +1,275 @@
+package com.sse.utilities.timers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Samples the runner JVM at each scenario boundary - heap after GC, bytes allocated, GC count and pause time,
+ * and live threads - so that a slow leak over a long run can be pinned on the scenarios which cause it.
+ * <p>By default the heap after GC is the heap pools' usage after their most recent collection. With
+ * jvmResourceForceGc=true it is measured after a System.gc(), which gives the live heap exactly for the cost of
+ * two full collections per scenario - worth it when chasing a leak, but not on every run. Allocation is measured per thread, so it includes the WebDriver client's
+ * threads but not threads which ended during the scenario.
+ * <p>At the end of the run every scenario's sample is written out, followed by :
+ * <ul>
+ * <li>a warning if the heap after GC, or the live thread count, grew monotonically over the run - i.e. its
+ * lowest value in each quarter of the run was no lower than in the quarter before, and grew overall by more than
+ * jvmHeapGrowthWarningMegabytes (or by more than a few threads);</li>
+ * <li>the scenarios after which the heap after GC jumped by more than jvmHeapJumpMegabytes, and those which
+ * left more live threads behind than they started with.</li>
+ * </ul>
+ * @author atul
+ *
+ */
+public final class JvmResourceMonitor {
+	private static Logger log = LogManager.getLogger(JvmResourceMonitor.class);
+
+	private static final long MEGABYTE = 1024L * 1024L;
+	private static final int REPORTED_JUMPS = 10;
+	// Thread pools (e.g. the WebDriver client's) may legitimately grow a little as a run warms up
+	private static final int THREAD_GROWTH_WARNING = 4;
+
+	private static boolean forceGc;
+	private static final ThreadLocal<Snapshot> scenarioStart = new ThreadLocal<>();
+	private static final List<ScenarioSample> samples = new ArrayList<>();
+
+	private JvmResourceMonitor() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * @param force true to force a GC at each scenario boundary before measuring the heap.
+	 */
+	public static void setForceGc(boolean force) {
+		forceGc = force;
+	}
+
+	/**
+	 * Takes the sample at the start of a scenario run on the current thread.
+	 */
+	public static void startScenario() {
+		scenarioStart.set(Snapshot.take(true));
+	}
+
+	/**
+	 * Takes the sample at the end of the scenario and records the difference from its start.
+	 * @param scenarioName a name identifying the scenario
+	 */
+	public static void endScenario(String scenarioName) {
+		Snapshot start = scenarioStart.get();
+		if (start == null) return;
+		scenarioStart.remove();
+		Snapshot end = Snapshot.take(false);
+
+		ScenarioSample sample = new ScenarioSample();
+		sample.scenario = scenarioName;
+		sample.durationMillis = (end.nanos - start.nanos) / 1_000_000L;
+		sample.heapAfterGcBytes = end.heapAfterGcBytes;
+		sample.allocatedBytes = end.allocatedBytesSince(start);
+		sample.gcCount = end.gcCount - start.gcCount;
+		sample.gcMillis = end.gcMillis - start.gcMillis;
+		sample.threads = end.threads;
+		sample.threadDelta = end.threads - start.threads;
+		synchronized (samples) {
+			sample.heapDeltaBytes = end.heapAfterGcBytes -
+					(samples.isEmpty() ? start.heapAfterGcBytes : samples.get(samples.size() - 1).heapAfterGcBytes);
+			samples.add(sample);
+		}
+		log.info(scenarioName + " : " + sample.describe());
+	}
+
+	/**
+	 * Writes every scenario's sample, then analyses them for growth over the run and jumps in particular scenarios.
+	 * @param reportFile the file to write
+	 * @param heapGrowthWarningBytes the overall heap after GC growth above which monotonic growth is reported
+	 * @param heapJumpBytes the heap after GC growth in one scenario above which the scenario is named
+	 * @return a description of each finding, to be reported in the run summary - empty if there were none.
+	 */
+	public static List<String> writeReport(File reportFile, long heapGrowthWarningBytes, long heapJumpBytes) {
+		List<ScenarioSample> run;
+		synchronized (samples) {
+			run = new ArrayList<>(samples);
+		}
+		List<String> findings = new ArrayList<>();
+		if (run.isEmpty()) return findings;
+
+		long[] heap = new long[run.size()];
+		long[] threads = new long[run.size()];
+		for (int i = 0; i < run.size(); i++) {
+			heap[i] = run.get(i).heapAfterGcBytes;
+			threads[i] = run.get(i).threads;
+		}
+		long heapGrowth = monotonicGrowth(heap);
+		if (heapGrowth > heapGrowthWarningBytes) {
+			findings.add("Heap after GC grew steadily through the run, by " + heapGrowth / MEGABYTE + " MB over " +
+					run.size() + " scenarios - a likely leak");
+		}
+		long threadGrowth = monotonicGrowth(threads);
+		if (threadGrowth > THREAD_GROWTH_WARNING) {
+			findings.add("Live threads grew steadily through the run, by " + threadGrowth + " over " +
+					run.size() + " scenarios - a likely thread leak");
+		}
+
+		List<ScenarioSample> heapJumps = new ArrayList<>();
+		List<ScenarioSample> threadJumps = new ArrayList<>();
+		for (ScenarioSample sample : run) {
+			if (sample.heapDeltaBytes > heapJumpBytes) heapJumps.add(sample);
+			if (sample.threadDelta > 0) threadJumps.add(sample);
+		}
+		heapJumps.sort((a, b) -> Long.compare(b.heapDeltaBytes, a.heapDeltaBytes));
+		threadJumps.sort((a, b) -> Integer.compare(b.threadDelta, a.threadDelta));
+		for (int i = 0; i < heapJumps.size() && i < REPORTED_JUMPS; i++) {
+			findings.add("Heap after GC jumped by " + heapJumps.get(i).heapDeltaBytes / MEGABYTE + " MB in " + heapJumps.get(i).scenario);
+		}
+		for (int i = 0; i < threadJumps.size() && i < REPORTED_JUMPS; i++) {
+			findings.add("Live threads rose by " + threadJumps.get(i).threadDelta + " in " + threadJumps.get(i).scenario);
+		}
+
+		reportFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(reportFile, "UTF-8")) {
+			out.println("JVM resources per scenario (heap after GC" + (forceGc ? ", measured after a forced GC" : "") + ")");
+			out.println(String.format("%9s %9s %9s %10s %9s %5s %8s %7s %6s  %s", "secs", "heap MB", "delta MB",
+					"alloc MB", "MB/s", "GCs", "GC ms", "threads", "delta", "scenario"));
+			for (ScenarioSample sample : run) {
+				double seconds = Math.max(1, sample.durationMillis) / 1000.0;
+				out.println(String.format("%9.1f %9d %+9d %10d %9.1f %5d %8d %7d %+6d  %s", seconds,
+						sample.heapAfterGcBytes / MEGABYTE, sample.heapDeltaBytes / MEGABYTE, sample.allocatedBytes / MEGABYTE,
+						sample.allocatedBytes / (double)MEGABYTE / seconds, sample.gcCount, sample.gcMillis,
+						sample.threads, sample.threadDelta, sample.scenario));
+			}
+			out.println();
+			out.println(findings.isEmpty() ? "No growth or jumps found" : "Findings");
+			for (String finding : findings) out.println(finding);
+			log.info("JVM resource report written to " + reportFile);
+		}
+		catch (IOException e) {
+			log.warn("Could not write JVM resource report to " + reportFile, e);
+		}
+		return findings;
+	}
+
+	/*
+	 * The growth of the lowest value from the first quarter of the run to the last, provided the lowest value in
+	 * each quarter is no lower than in the one before - 0 otherwise, or if there are too few values to tell.
+	 * Using the lowest value ignores garbage which a later scenario clears up, and transient threads.
+	 */
+	private static long monotonicGrowth(long[] values) {
+		final int quarters = 4;
+		if (values.length < quarters * 2) return 0;
+		long previousFloor = Long.MIN_VALUE;
+		long firstFloor = 0;
+		for (int q = 0; q < quarters; q++) {
+			long floor = Long.MAX_VALUE;
+			for (int i = q * values.length / quarters; i < (q + 1) * values.length / quarters; i++) {
+				floor = Math.min(floor, values[i]);
+			}
+			if (floor < previousFloor) return 0;
+			if (q == 0) firstFloor = floor;
+			previousFloor = floor;
+		}
+		return previousFloor - firstFloor;
+	}
+
+	/*
+	 * The JVM's resource usage at one instant.
+	 */
+	private static final class Snapshot {
+		long nanos;
+		long heapAfterGcBytes;
+		long gcCount;
+		long gcMillis;
+		int threads;
+		// Thread id -> bytes allocated by the thread so far (empty if the JVM cannot tell)
+		Map<Long, Long> allocatedBytes = new HashMap<>();
+
+		/*
+		 * At the start of a scenario the GC counters are read after any forced GC, and at the end before it,
+		 * so that the forced GCs are not counted as the scenario's.
+		 */
+		static Snapshot take(boolean atStart) {
+			Snapshot snapshot = new Snapshot();
+			if (!atStart) snapshot.readCounters();
+			if (forceGc) System.gc();
+			snapshot.heapAfterGcBytes = heapAfterGc();
+			snapshot.threads = ManagementFactory.getThreadMXBean().getThreadCount();
+			if (atStart) snapshot.readCounters();
+			return snapshot;
+		}
+
+		private void readCounters() {
+			nanos = System.nanoTime();
+			for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+				gcCount += Math.max(0, collector.getCollectionCount());
+				gcMillis += Math.max(0, collector.getCollectionTime());
+			}
+			ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+			if (threadBean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean)threadBean;
+				if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+					long[] ids = threadBean.getAllThreadIds();
+					long[] bytes = allocationBean.getThreadAllocatedBytes(ids);
+					for (int i = 0; i < ids.length; i++) {
+						if (bytes[i] >= 0) allocatedBytes.put(Long.valueOf(ids[i]), Long.valueOf(bytes[i]));
+					}
+				}
+			}
+		}
+
+		/*
+		 * Threads which did not exist at the start count in full.
+		 */
+		long allocatedBytesSince(Snapshot start) {
+			long total = 0;
+			for (Map.Entry<Long, Long> entry : allocatedBytes.entrySet()) {
+				Long before = start.allocatedBytes.get(entry.getKey());
+				total += Math.max(0, entry.getValue().longValue() - (before == null ? 0 : before.longValue()));
+			}
+			return total;
+		}
+
+		private static long heapAfterGc() {
+			if (forceGc) return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+			long used = 0;
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				MemoryUsage afterGc = pool.getCollectionUsage();
+				if (pool.getType() == MemoryType.HEAP && afterGc != null) used += afterGc.getUsed();
+			}
+			return used;
+		}
+	}
+
+	/*
+	 * The resource usage of one scenario.
+	 */
+	private static final class ScenarioSample {
+		String scenario;
+		long durationMillis;
+		long heapAfterGcBytes;
+		long heapDeltaBytes;
+		long allocatedBytes;
+		long gcCount;
+		long gcMillis;
+		int threads;
+		int threadDelta;
+
+		String describe() {
+			return "heap after GC " + heapAfterGcBytes / MEGABYTE + " MB (" + String.format("%+d", Long.valueOf(heapDeltaBytes / MEGABYTE)) +
+					"), allocated " + allocatedBytes / MEGABYTE + " MB, " + gcCount + " GCs taking " + gcMillis + " ms, " +
+					threads + " live threads (" + String.format("%+d", Integer.valueOf(threadDelta)) + ")";
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.sse.utilities.timers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations with fixed bucket bounds, from 1 ms to 5 minutes.
+ * <p>Recording is a bucket search over a small fixed array and a few atomic increments - no allocation and
+ * no locking - so it is cheap enough to call on every wait. Percentiles are reported as the upper bound of
+ * the bucket they fall in, which is accurate enough to rank waits against each other.
+ * @author atul
+ *
+ */
+public final class LatencyHistogram {
+
+	private static final long[] BUCKET_UPPER_MILLIS = {
+			1, 2, 5, 10, 20, 50, 100, 200, 500,
+			1000, 2000, 5000, 10000, 20000, 30000, 60000, 120000, 300000, Long.MAX_VALUE };
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_UPPER_MILLIS.length);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Records one duration.
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		long millis = nanos / 1_000_000L;
+		int bucket = 0;
+		while (millis >= BUCKET_UPPER_MILLIS[bucket]) bucket++;
+		buckets.incrementAndGet(bucket);
+		count.incrementAndGet();
+		totalNanos.addAndGet(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * @return the number of durations recorded.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the sum of the durations recorded, in milliseconds.
+	 */
+	public long getTotalMillis() {
+		return totalNanos.get() / 1_000_000L;
+	}
+
+	/**
+	 * @return the longest duration recorded, in milliseconds.
+	 */
+	public long getMaxMillis() {
+		return maxNanos.get() / 1_000_000L;
+	}
+
+	/**
+	 * @param percentile the percentile required, e.g. 0.99
+	 * @return the upper bound, in milliseconds, of the bucket holding the percentile (never more than the maximum recorded).
+	 */
+	public long getPercentileMillis(double percentile) {
+		long target = (long)Math.ceil(count.get() * percentile);
+		long cumulative = 0;
+		for (int i = 0; i < BUCKET_UPPER_MILLIS.length; i++) {
+			cumulative += buckets.get(i);
+			if (cumulative >= target && cumulative > 0) return Math.min(BUCKET_UPPER_MILLIS[i], getMaxMillis());
+		}
+		return getMaxMillis();
+	}
+}
@@ -0,0 +1,202 @@
+package com.sse.utilities.timers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Audit of unconditional sleeps (WaitUtilities.sleep/sleepMillis) - attributing each to the line of code
+ * which asked for it and totalling it per scenario.
+ * <p>Every sleepMillis is audited, including those made within WaitUtilities; only the intervals between
+ * checks in WaitUtilities' polling loops (its private pollInterval) are part of a conditional wait and are not.
+ * <p>At the end of a run the audit is written out, and each scenario's total is compared with the previous
+ * run's so that new unconditional sleeps are caught rather than silently adding to the "Wait time". Only scenarios
+ * which passed are compared and saved, as one which failed early has slept less than it would have.
+ * <p>Sleeps are attributed to the scenario running on the sleeping thread, so scenarios may run in parallel.
+ * @author atul
+ *
+ */
+public final class SleepAudit {
+	private static Logger log = LogManager.getLogger(SleepAudit.class);
+
+	private static final String WAIT_UTILITIES = "com.sse.utilities.WaitUtilities";
+	private static final List<String> SLEEP_METHODS = Arrays.asList("sleep", "sleepMillis", "pause");
+	private static final String OUTSIDE_SCENARIO = "(outside any scenario)";
+
+	// Call site -> {count, total millis}
+	private static final Map<String, long[]> callSiteTotals = new LinkedHashMap<>();
+	// Scenario -> total millis, from 0 when it starts
+	private static final Map<String, Long> scenarioTotals = new LinkedHashMap<>();
+	// Scenarios which did not pass, and so are not compared with the previous run
+	private static final Set<String> incompleteScenarios = new HashSet<>();
+	private static final ThreadLocal<String> currentScenario = ThreadLocal.withInitial(() -> OUTSIDE_SCENARIO);
+
+	private SleepAudit() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Records a sleep against the calling line of code and the current scenario.
+	 * <p>Called by WaitUtilities.sleepMillis.
+	 * @param millis the length of the sleep
+	 */
+	public static synchronized void recordSleep(long millis) {
+		if (millis <= 0) return;
+		String callSite = findCallSite();
+
+		long[] totals = callSiteTotals.get(callSite);
+		if (totals == null) {
+			totals = new long[2];
+			callSiteTotals.put(callSite, totals);
+		}
+		totals[0]++;
+		totals[1] += millis;
+
+		String scenario = currentScenario.get();
+		Long scenarioTotal = scenarioTotals.get(scenario);
+		scenarioTotals.put(scenario, Long.valueOf((scenarioTotal == null ? 0 : scenarioTotal.longValue()) + millis));
+		log.debug("Unconditional sleep of " + millis + " ms at " + callSite);
+	}
+
+	/**
+	 * Attributes subsequent sleeps on this thread to the named scenario - which has slept 0 ms so far, so that sleeps
+	 * added to a scenario which did not sleep before are compared too.
+	 * @param scenarioName a name identifying the scenario
+	 */
+	public static synchronized void startScenario(String scenarioName) {
+		currentScenario.set(scenarioName);
+		scenarioTotals.putIfAbsent(scenarioName, Long.valueOf(0));
+	}
+
+	/**
+	 * Ends this thread's scenario, logging its sleep total if it slept at all.
+	 * @param passed true if the scenario passed - otherwise its total is not compared with the previous run's,
+	 * nor saved.
+	 */
+	public static synchronized void endScenario(boolean passed) {
+		String scenario = currentScenario.get();
+		Long total = scenarioTotals.get(scenario);
+		if (total != null && total.longValue() > 0) {
+			log.info(scenario + " : unconditional sleep " + total.longValue() / 1000.0 + " seconds");
+		}
+		if (!passed) incompleteScenarios.add(scenario);
+		currentScenario.remove();
+	}
+
+	/**
+	 * Writes the audit, with call sites ranked by total sleep, and the total per scenario.
+	 * @param reportFile the file to write
+	 */
+	public static synchronized void writeReport(File reportFile) {
+		List<Map.Entry<String, long[]>> ranked = new ArrayList<>(callSiteTotals.entrySet());
+		ranked.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+
+		reportFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(reportFile, "UTF-8")) {
+			out.println("Unconditional sleeps by call site (seconds, count)");
+			for (Map.Entry<String, long[]> entry : ranked) {
+				out.println(String.format("%10.1f %6d  %s", entry.getValue()[1] / 1000.0, entry.getValue()[0], entry.getKey()));
+			}
+			out.println();
+			out.println("Unconditional sleeps by scenario (seconds)");
+			for (Map.Entry<String, Long> entry : scenarioTotals.entrySet()) {
+				out.println(String.format("%10.1f  %s", entry.getValue().longValue() / 1000.0, entry.getKey()));
+			}
+			log.info("Sleep audit written to " + reportFile);
+		}
+		catch (IOException e) {
+			log.warn("Could not write sleep audit to " + reportFile, e);
+		}
+	}
+
+	/**
+	 * @return the total unconditional sleep, in milliseconds, for the whole run.
+	 */
+	public static synchronized long getTotalSleepMillis() {
+		long total = 0;
+		for (long[] totals : callSiteTotals.values()) total += totals[1];
+		return total;
+	}
+
+	/**
+	 * Compares each scenario's unconditional sleep with the previous run's, then - unless any grew - saves this
+	 * run's totals as those to compare the next run with. Scenarios not run before are recorded, not compared;
+	 * scenarios which did not pass are neither, keeping their previous totals.
+	 * <p>Totals are kept when any scenario grows, so re-running does not quietly accept the increase.
+	 * @param totalsFile the file holding the previous run's totals (per environment, and outside target so that
+	 * it survives mvn clean)
+	 * @param toleranceMillis how much a scenario's sleep may grow before it is reported
+	 * @return a description of each scenario whose sleep grew by more than toleranceMillis - empty if none did.
+	 */
+	public static synchronized List<String> compareWithPreviousRun(File totalsFile, long toleranceMillis) {
+		Properties previous = new Properties();
+		if (totalsFile.exists()) {
+			try (InputStream in = new FileInputStream(totalsFile)) {
+				previous.load(in);
+			}
+			catch (IOException | IllegalArgumentException e) {
+				log.warn("Could not read previous sleep totals " + totalsFile + " - not comparing", e);
+				previous.clear();
+			}
+		}
+
+		List<String> increases = new ArrayList<>();
+		Properties totals = new Properties();
+		totals.putAll(previous);
+		for (Map.Entry<String, Long> entry : scenarioTotals.entrySet()) {
+			if (OUTSIDE_SCENARIO.equals(entry.getKey()) || incompleteScenarios.contains(entry.getKey())) continue;
+			long millis = entry.getValue().longValue();
+			String previousMillis = previous.getProperty(entry.getKey());
+			try {
+				if (previousMillis != null && millis > Long.parseLong(previousMillis.trim()) + toleranceMillis) {
+					increases.add(entry.getKey() + " slept " + millis / 1000.0 + " seconds, up from " +
+							Long.parseLong(previousMillis.trim()) / 1000.0 + " seconds in the previous run");
+				}
+			}
+			catch (@SuppressWarnings("unused") NumberFormatException e) {
+				// not comparable - simply replaced
+			}
+			totals.setProperty(entry.getKey(), Long.toString(millis));
+		}
+
+		if (increases.isEmpty()) {
+			totalsFile.getParentFile().mkdirs();
+			try (OutputStream out = new FileOutputStream(totalsFile)) {
+				totals.store(out, "Unconditional sleep (milliseconds) by scenario, in the last run without an increase");
+			}
+			catch (IOException e) {
+				log.warn("Could not save sleep totals " + totalsFile, e);
+			}
+		}
+		return increases;
+	}
+
+	/*
+	 * The first frame outside WaitUtilities.sleep/sleepMillis (and SleepAudit) is the call site - which may be
+	 * elsewhere in WaitUtilities.
+	 */
+	private static String findCallSite() {
+		for (StackTraceElement frame : new Throwable().getStackTrace()) {
+			String className = frame.getClassName();
+			if (className.equals(SleepAudit.class.getName())) continue;
+			if (className.equals(WAIT_UTILITIES) && SLEEP_METHODS.contains(frame.getMethodName())) continue;
+			return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+		}
+		return "(unknown)";
+	}
+}
@@ -0,0 +1,257 @@
+package com.sse.utilities.timers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Detects timing regressions by comparing this run's scenario, step and wait timings with the same
+ * timings from the last N green (all scenarios passed) runs against the same environment.
+ * <p>A timing has regressed when it exceeds the baseline median by more than all of : timingRegressionThresholdPercent
+ * of the median, timingRegressionMinimumMillis, and three (scaled) median absolute deviations - so timings which
+ * vary a lot from run to run need a correspondingly larger shift before they are flagged.
+ * <p>Each run's timings are kept in history/timing-baseline/&lt;environment&gt;/run-&lt;timestamp&gt;.properties
+ * (outside target, so that mvn clean does not lose the baseline); the green runs beyond timingBaselineRuns are
+ * deleted, along with any older failed runs.
+ * @author atul
+ *
+ */
+public final class TimingBaseline {
+	private static Logger log = LogManager.getLogger(TimingBaseline.class);
+
+	private static final String RUN_FILE_PREFIX = "run-";
+	private static final String RUN_FILE_SUFFIX = ".properties";
+	private static final String GREEN = "green";
+	private static final String SCENARIO = "scenario.";
+	private static final String STEP = "step.";
+	private static final String WAIT = "wait.";
+
+	private static final int MINIMUM_BASELINE_RUNS = 3;
+	private static final double MAD_SCALE = 1.4826;
+	private static final double MAD_MULTIPLIER = 3;
+
+	private static final String DEFAULT_BASELINE_RUNS = "10";
+	private static final String DEFAULT_THRESHOLD_PERCENT = "25";
+	private static final String DEFAULT_MINIMUM_MILLIS = "1000";
+
+	private static int baselineRuns;
+	private static double thresholdPercent;
+	private static long minimumMillis;
+	private static File directory;
+	// Timing key -> its value in each baseline run
+	private static final Map<String, List<Long>> baseline = new LinkedHashMap<>();
+	// Timing key -> its value in this run
+	private static final Map<String, Long> current = new LinkedHashMap<>();
+	private static final List<String> regressions = new ArrayList<>();
+	private static boolean green = true;
+	private static int scenarioCount;
+
+	private TimingBaseline() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Loads the timings of the most recent green runs against the environment.
+	 * @param configuration the configuration properties
+	 * @param environment the environment under test (e.g. QA)
+	 * @param baselineDirectory the directory holding the runs of each environment
+	 */
+	public static synchronized void load(Properties configuration, String environment, File baselineDirectory) {
+		baselineRuns = Integer.parseInt(configuration.getProperty("timingBaselineRuns", DEFAULT_BASELINE_RUNS).trim());
+		thresholdPercent = Double.parseDouble(configuration.getProperty("timingRegressionThresholdPercent", DEFAULT_THRESHOLD_PERCENT).trim());
+		minimumMillis = Long.parseLong(configuration.getProperty("timingRegressionMinimumMillis", DEFAULT_MINIMUM_MILLIS).trim());
+		directory = new File(baselineDirectory, environment);
+		baseline.clear();
+		current.clear();
+		regressions.clear();
+		green = true;
+		scenarioCount = 0;
+
+		int loaded = 0;
+		for (File runFile : findGreenRuns()) {
+			if (loaded++ == baselineRuns) break;
+			Properties run = new Properties();
+			try (InputStream in = new FileInputStream(runFile)) {
+				run.load(in);
+			}
+			catch (IOException e) {
+				log.warn("Could not read timing baseline " + runFile, e);
+				continue;
+			}
+			for (String key : run.stringPropertyNames()) {
+				if (GREEN.equals(key)) continue;
+				List<Long> values = baseline.get(key);
+				if (values == null) {
+					values = new ArrayList<>();
+					baseline.put(key, values);
+				}
+				values.add(Long.valueOf(run.getProperty(key).trim()));
+			}
+		}
+		log.info("Timing baseline for " + environment + " loaded from " + Math.min(loaded, baselineRuns) + " green run(s)");
+	}
+
+	/**
+	 * Records the timings of a finished scenario and its steps, and compares them with the baseline.
+	 * <p>Only passed scenarios are compared or kept, as a failed scenario's timings are not representative.
+	 * @param node the scenario's timing node, or any node within it
+	 * @param passed whether the scenario passed
+	 * @return a description of each regression found - empty if none.
+	 */
+	public static synchronized List<String> recordScenario(TimingNode node, boolean passed) {
+		List<String> found = new ArrayList<>();
+		if (directory == null) return found; // i.e. never loaded
+		scenarioCount++;
+		if (!passed) {
+			green = false;
+			return found;
+		}
+		TimingNode scenario = node;
+		while (scenario != null && scenario.getLevel() != TimingLevel.SCENARIO) scenario = scenario.getParent();
+		if (scenario == null) return found;
+
+		String scenarioKey = uniqueKey(SCENARIO, scenario.getParent().getName() + " : " + scenario.getName());
+		compare(scenarioKey, scenario.getElapsedNanos() / 1_000_000L, found);
+		for (TimingNode step : scenario.getChildren()) {
+			if (step.getLevel() != TimingLevel.STEP) continue;
+			compare(STEP + scenarioKey.substring(SCENARIO.length()) + " / " + step.getName(), step.getElapsedNanos() / 1_000_000L, found);
+		}
+		regressions.addAll(found);
+		return found;
+	}
+
+	/**
+	 * Compares this run's waits with the baseline, saves this run's timings and writes the regressions found.
+	 * @param reportFile the file to write the regressions to
+	 * @return a description of every regression found in the run - empty if none.
+	 */
+	public static synchronized List<String> finishRun(File reportFile) {
+		if (directory == null) return new ArrayList<>();
+		for (Map.Entry<String, Long> wait : WaitLatencyRecorder.getMeanMillisByWait().entrySet()) {
+			compare(WAIT + wait.getKey(), wait.getValue().longValue(), regressions);
+		}
+		save();
+
+		reportFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(reportFile, "UTF-8")) {
+			out.println("Timing regressions against the last " + baselineRuns + " green run(s) (threshold " + thresholdPercent +
+					"%, minimum " + minimumMillis + " ms)");
+			for (String regression : regressions) out.println(regression);
+		}
+		catch (IOException e) {
+			log.warn("Could not write timing regressions to " + reportFile, e);
+		}
+		return new ArrayList<>(regressions);
+	}
+
+	/*
+	 * Scenario outline examples can share a name, so later occurrences are numbered.
+	 */
+	private static String uniqueKey(String prefix, String name) {
+		String key = prefix + name;
+		for (int occurrence = 2; current.containsKey(key); occurrence++) {
+			key = prefix + name + " #" + occurrence;
+		}
+		return key;
+	}
+
+	private static void compare(String key, long millis, List<String> found) {
+		current.put(key, Long.valueOf(millis));
+		List<Long> values = baseline.get(key);
+		if (values == null || values.size() < MINIMUM_BASELINE_RUNS) return;
+
+		long median = median(values);
+		List<Long> deviations = new ArrayList<>();
+		for (Long value : values) deviations.add(Long.valueOf(Math.abs(value.longValue() - median)));
+		double allowed = Math.max(Math.max(median * thresholdPercent / 100, minimumMillis),
+				MAD_MULTIPLIER * MAD_SCALE * median(deviations));
+
+		if (millis - median > allowed) {
+			found.add(key + " took " + millis / 1000.0 + " seconds against a baseline median of " + median / 1000.0 +
+					" seconds (+" + Math.round(100.0 * (millis - median) / Math.max(1, median)) + "%, " + values.size() + " runs)");
+		}
+	}
+
+	private static long median(List<Long> values) {
+		long[] sorted = new long[values.size()];
+		for (int i = 0; i < sorted.length; i++) sorted[i] = values.get(i).longValue();
+		Arrays.sort(sorted);
+		int middle = sorted.length / 2;
+		return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+	}
+
+	/*
+	 * Writes this run's timings, then deletes the green runs beyond those needed for the baseline
+	 * and the failed runs older than the oldest green run kept.
+	 */
+	private static void save() {
+		boolean runGreen = green && scenarioCount > 0;
+		Properties run = new Properties();
+		run.setProperty(GREEN, String.valueOf(runGreen));
+		for (Map.Entry<String, Long> entry : current.entrySet()) {
+			run.setProperty(entry.getKey(), entry.getValue().toString());
+		}
+		directory.mkdirs();
+		File runFile = new File(directory, RUN_FILE_PREFIX + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + RUN_FILE_SUFFIX);
+		try (OutputStream out = new FileOutputStream(runFile)) {
+			run.store(out, "Scenario, step and mean wait timings (ms)" + (runGreen ? "" : " - not green, so not used as a baseline"));
+		}
+		catch (IOException e) {
+			log.warn("Could not save timing baseline " + runFile, e);
+			return;
+		}
+
+		List<File> greenRuns = findGreenRuns();
+		if (greenRuns.size() <= baselineRuns) return;
+		String oldestKept = greenRuns.get(baselineRuns - 1).getName();
+		for (File file : listRuns()) {
+			if (file.getName().compareTo(oldestKept) < 0 && !file.delete()) {
+				log.warn("Could not delete old timing baseline " + file);
+			}
+		}
+	}
+
+	/*
+	 * The green runs, most recent first.
+	 */
+	private static List<File> findGreenRuns() {
+		List<File> greenRuns = new ArrayList<>();
+		for (File runFile : listRuns()) {
+			Properties run = new Properties();
+			try (InputStream in = new FileInputStream(runFile)) {
+				run.load(in);
+			}
+			catch (IOException e) {
+				log.warn("Could not read timing baseline " + runFile, e);
+				continue;
+			}
+			if (Boolean.parseBoolean(run.getProperty(GREEN))) greenRuns.add(runFile);
+		}
+		return greenRuns;
+	}
+
+	/*
+	 * All the saved runs, most recent first.
+	 */
+	private static List<File> listRuns() {
+		File[] files = directory.listFiles((dir, name) -> name.startsWith(RUN_FILE_PREFIX) && name.endsWith(RUN_FILE_SUFFIX));
+		List<File> runs = files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+		runs.sort((a, b) -> b.getName().compareTo(a.getName()));
+		return runs;
+	}
+}
@@ -0,0 +1,75 @@
+package com.sse.utilities.timers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A category of activity which time can be charged to - e.g. waiting, sleeping, WebDriver commands.
+ * <p>The standard categories are constants of this class. Further categories can be created with
+ * {@link #of(String)} without changing the timing subsystem.
+ * @author atul
+ *
+ */
+public final class TimingCategory {
+
+	private static final Map<String, TimingCategory> categories = new ConcurrentHashMap<>();
+	private static final List<TimingCategory> inOrder = new ArrayList<>();
+
+	/** Java processing - charged whenever no other category is active. */
+	public static final TimingCategory JAVA = of("Java");
+	/** Waiting for Salesforce/HTML things to happen. */
+	public static final TimingCategory WAIT = of("Wait");
+	/** Unconditional sleeps. */
+	public static final TimingCategory SLEEP = of("Sleep");
+	/** WebDriver commands such as navigation. */
+	public static final TimingCategory WEBDRIVER = of("WebDriver");
+	/** Salesforce SOAP API calls. */
+	public static final TimingCategory SOAP = of("SOAP API");
+	/** Database calls. */
+	public static final TimingCategory JDBC = of("JDBC");
+	/** Producing reports, screenshots and other evidence. */
+	public static final TimingCategory REPORTING = of("Reporting");
+
+	private final String name;
+
+	private TimingCategory(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @param name the name of the category
+	 * @return the category with the passed name, created if it does not yet exist.
+	 */
+	public static TimingCategory of(String name) {
+		synchronized (inOrder) {
+			TimingCategory category = categories.get(name);
+			if (category == null) {
+				category = new TimingCategory(name);
+				categories.put(name, category);
+				inOrder.add(category);
+			}
+			return category;
+		}
+	}
+
+	/**
+	 * @return all categories, in the order they were created.
+	 */
+	public static List<TimingCategory> values() {
+		synchronized (inOrder) {
+			return new ArrayList<>(inOrder);
+		}
+	}
+
+	@SuppressWarnings("javadoc")
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,19 @@
+package com.sse.utilities.timers;
+
+/**
+ * The levels at which timings nest, outermost first.
+ * @author atul
+ *
+ */
+public enum TimingLevel {
+	/** The whole run of the suite */
+	RUN,
+	/** A feature file */
+	FEATURE,
+	/** A scenario or example */
+	SCENARIO,
+	/** A step within a scenario */
+	STEP,
+	/** A named piece of work within a step, e.g. a page method */
+	ACTIVITY
+}
@@ -0,0 +1,130 @@
+package com.sse.utilities.timers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A node in the tree of timings - the run, a feature, scenario, step or activity.
+ * <p>Each node holds the time charged to it directly, by category. Time spent in child nodes
+ * is held by the children, and included by {@link #getTotalsByCategory()}.
+ * <p>Nodes may be shared between threads (e.g. the run and features), so are thread-safe.
+ * @author atul
+ *
+ */
+public final class TimingNode {
+
+	private final TimingLevel level;
+	private final String name;
+	private final TimingNode parent;
+	private final long startNanos;
+	private volatile long endNanos;
+	private final List<TimingNode> children = new ArrayList<>();
+	private final Map<TimingCategory, AtomicLong> ownNanos = new ConcurrentHashMap<>();
+
+	TimingNode(TimingLevel level, String name, TimingNode parent) {
+		this.level = level;
+		this.name = name;
+		this.parent = parent;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Returns the child with the passed level and name, creating it if there is none - used for nodes which
+	 * are shared, such as a feature whose scenarios run on several threads.
+	 */
+	TimingNode sharedChild(TimingLevel childLevel, String childName) {
+		synchronized (children) {
+			for (TimingNode child : children) {
+				if (child.level == childLevel && child.name.equals(childName)) return child;
+			}
+			return newChild(childLevel, childName);
+		}
+	}
+
+	TimingNode newChild(TimingLevel childLevel, String childName) {
+		TimingNode child = new TimingNode(childLevel, childName, this);
+		synchronized (children) {
+			children.add(child);
+		}
+		return child;
+	}
+
+	void charge(TimingCategory category, long nanos) {
+		AtomicLong total = ownNanos.get(category);
+		if (total == null) {
+			ownNanos.putIfAbsent(category, new AtomicLong());
+			total = ownNanos.get(category);
+		}
+		total.addAndGet(nanos);
+	}
+
+	void end() {
+		endNanos = System.nanoTime();
+	}
+
+	/**
+	 * @return the time charged to this node and all its descendants, by category, in nanoseconds.
+	 */
+	public Map<TimingCategory, Long> getTotalsByCategory() {
+		Map<TimingCategory, Long> totals = new LinkedHashMap<>();
+		addTotalsTo(totals);
+		return totals;
+	}
+
+	private void addTotalsTo(Map<TimingCategory, Long> totals) {
+		for (Map.Entry<TimingCategory, AtomicLong> entry : ownNanos.entrySet()) {
+			Long total = totals.get(entry.getKey());
+			totals.put(entry.getKey(), Long.valueOf((total == null ? 0 : total.longValue()) + entry.getValue().get()));
+		}
+		for (TimingNode child : getChildren()) {
+			child.addTotalsTo(totals);
+		}
+	}
+
+	/**
+	 * @return when this node began (System.nanoTime).
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * @return the elapsed time of this node in nanoseconds - up to now if it has not ended.
+	 */
+	public long getElapsedNanos() {
+		return (endNanos == 0 ? System.nanoTime() : endNanos) - startNanos;
+	}
+
+	/**
+	 * @return a copy of the children of this node.
+	 */
+	public List<TimingNode> getChildren() {
+		synchronized (children) {
+			return new ArrayList<>(children);
+		}
+	}
+
+	@SuppressWarnings("javadoc")
+	public TimingLevel getLevel() {
+		return level;
+	}
+
+	@SuppressWarnings("javadoc")
+	public String getName() {
+		return name;
+	}
+
+	@SuppressWarnings("javadoc")
+	public TimingNode getParent() {
+		return parent;
+	}
+
+	@Override
+	public String toString() {
+		return level + " " + name;
+	}
+}
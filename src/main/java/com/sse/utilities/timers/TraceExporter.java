@@ -0,0 +1,141 @@
+package com.sse.utilities.timers;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Writes the spans of a run - feature, scenario, step and activity nodes, each wait, sleep, WebDriver and
+ * SOAP call - as Chrome Trace Event JSON, which can be opened in Perfetto (ui.perfetto.dev) or chrome://tracing
+ * to see the run as a timeline, one track per thread.
+ * <p>Each span is written as a "complete" event when it ends, through a buffered writer, so the trace is streamed
+ * to disk as the run goes rather than held in memory. The format allows the closing bracket to be missing, so
+ * the trace of a run which dies part way through can still be opened.
+ * <p>Enabled by traceEvents=true in configuration.properties; the trace is written to target/run.trace (not .json,
+ * which the Cucumber reporting plugin would try to read as a Cucumber report).
+ * @author atul
+ *
+ */
+public final class TraceExporter {
+	private static Logger log = LogManager.getLogger(TraceExporter.class);
+
+	private static final int PROCESS_ID = 1;
+
+	private static volatile Writer writer;
+	private static long originNanos;
+	private static boolean first;
+	private static final Set<Long> namedThreads = new HashSet<>();
+
+	private TraceExporter() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Starts writing a trace. Spans which ended before this are not included.
+	 * @param traceFile the file to write
+	 */
+	public static synchronized void open(File traceFile) {
+		if (writer != null) return;
+		traceFile.getParentFile().mkdirs();
+		try {
+			writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(traceFile.toPath()), StandardCharsets.UTF_8));
+			writer.write("[\n");
+			originNanos = System.nanoTime();
+			first = true;
+			namedThreads.clear();
+			log.info("Writing trace events to " + traceFile);
+		}
+		catch (IOException e) {
+			log.warn("Could not open trace file " + traceFile + " - continuing without a trace", e);
+			writer = null;
+		}
+	}
+
+	/**
+	 * @return true if a trace is being written.
+	 */
+	public static boolean isEnabled() {
+		return writer != null;
+	}
+
+	/**
+	 * Writes a span on the current thread's track.
+	 * @param name what the span was, e.g. a step or the wait method and locator
+	 * @param category the kind of span, e.g. SCENARIO or WAIT
+	 * @param startNanos when the span began (System.nanoTime)
+	 * @param durationNanos how long the span lasted
+	 */
+	public static void span(String name, String category, long startNanos, long durationNanos) {
+		if (writer == null) return;
+		Thread thread = Thread.currentThread();
+		synchronized (TraceExporter.class) {
+			if (writer == null) return;
+			try {
+				if (namedThreads.add(Long.valueOf(thread.getId()))) {
+					write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + PROCESS_ID + ",\"tid\":" + thread.getId() +
+							",\"args\":{\"name\":" + quote(thread.getName()) + "}}");
+				}
+				write("{\"name\":" + quote(name) + ",\"cat\":" + quote(category) + ",\"ph\":\"X\",\"ts\":" +
+						micros(startNanos - originNanos) + ",\"dur\":" + micros(durationNanos) +
+						",\"pid\":" + PROCESS_ID + ",\"tid\":" + thread.getId() + "}");
+			}
+			catch (IOException e) {
+				log.warn("Could not write trace event - abandoning the trace", e);
+				closeQuietly();
+			}
+		}
+	}
+
+	/**
+	 * Completes and closes the trace, if one is being written.
+	 */
+	public static synchronized void close() {
+		if (writer == null) return;
+		try {
+			writer.write("\n]\n");
+		}
+		catch (IOException e) {
+			log.warn("Could not complete the trace", e);
+		}
+		closeQuietly();
+	}
+
+	private static void write(String event) throws IOException {
+		if (!first) writer.write(",\n");
+		first = false;
+		writer.write(event);
+	}
+
+	private static void closeQuietly() {
+		try {
+			writer.close();
+		}
+		catch (IOException e) {
+			log.warn("Could not close the trace", e);
+		}
+		writer = null;
+	}
+
+	private static String micros(long nanos) {
+		return String.valueOf(Math.max(0, nanos) / 1000.0);
+	}
+
+	private static String quote(String value) {
+		StringBuilder quoted = new StringBuilder("\"");
+		for (char c : String.valueOf(value).toCharArray()) {
+			if (c == '"' || c == '\\') quoted.append('\\').append(c);
+			else if (c < ' ') quoted.append(String.format("\\u%04x", Integer.valueOf(c)));
+			else quoted.append(c);
+		}
+		return quoted.append('"').toString();
+	}
+}
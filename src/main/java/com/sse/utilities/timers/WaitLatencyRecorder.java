@@ -0,0 +1,158 @@
+package com.sse.utilities.timers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Latency of every wait made through WaitUtilities, kept as a histogram per call site (page class and method),
+ * WaitUtilities method and locator, along with how each wait ended.
+ * <p>At the end of a run the waits are written out ranked by total time and by 99th percentile, showing which
+ * waits cost the suite the most overall and which are the slowest individually.
+ * @author atul
+ *
+ */
+public final class WaitLatencyRecorder {
+	private static Logger log = LogManager.getLogger(WaitLatencyRecorder.class);
+
+	/**
+	 * How a wait ended.
+	 */
+	public enum Outcome {
+		/** The condition waited for was met */
+		SATISFIED,
+		/** The wait gave up after its timeout */
+		TIMED_OUT,
+		/** The wait ended with any other exception */
+		EXCEPTION
+	}
+
+	private static final int LOGGED_ENTRIES = 10;
+	private static final double PERCENTILE = 0.99;
+
+	private static final class Entry {
+		private final String callSite;
+		private final String method;
+		private final String locator;
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private final AtomicLongArray outcomes = new AtomicLongArray(Outcome.values().length);
+
+		private Entry(String callSite, String method, String locator) {
+			this.callSite = callSite;
+			this.method = method;
+			this.locator = locator;
+		}
+
+		private long getTotalMillis() {
+			return histogram.getTotalMillis();
+		}
+
+		private long getPercentileMillis() {
+			return histogram.getPercentileMillis(PERCENTILE);
+		}
+
+		private String format() {
+			return String.format("%10.1f %7d %9d %9d %9d %7d %7d %7d  %s %s %s",
+					histogram.getTotalMillis() / 1000.0, histogram.getCount(),
+					histogram.getTotalMillis() / Math.max(1, histogram.getCount()), getPercentileMillis(), histogram.getMaxMillis(),
+					outcomes.get(Outcome.SATISFIED.ordinal()), outcomes.get(Outcome.TIMED_OUT.ordinal()),
+					outcomes.get(Outcome.EXCEPTION.ordinal()), callSite, method, locator);
+		}
+	}
+
+	private static final String HEADING = String.format("%10s %7s %9s %9s %9s %7s %7s %7s  %s",
+			"total s", "count", "mean ms", "p99 ms", "max ms", "ok", "timeout", "error", "call site, wait, locator");
+
+	private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private WaitLatencyRecorder() {
+	    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Records one wait.
+	 * @param callSite the class and method which asked for the wait, e.g. HomePage.navigateToHomePage
+	 * @param method the WaitUtilities method used
+	 * @param locator a description of what was waited for
+	 * @param outcome how the wait ended
+	 * @param nanos how long the wait took
+	 */
+	public static void record(String callSite, String method, String locator, Outcome outcome, long nanos) {
+		String key = callSite + '\u0000' + method + '\u0000' + locator;
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			entry = entries.computeIfAbsent(key, k -> new Entry(callSite, method, locator));
+		}
+		entry.histogram.record(nanos);
+		entry.outcomes.incrementAndGet(outcome.ordinal());
+	}
+
+	/**
+	 * @return the number of waits recorded with each outcome.
+	 */
+	public static Map<Outcome, Long> getCountsByOutcome() {
+		Map<Outcome, Long> counts = new TreeMap<>();
+		for (Outcome outcome : Outcome.values()) counts.put(outcome, Long.valueOf(0));
+		for (Entry entry : entries.values()) {
+			for (Outcome outcome : Outcome.values()) {
+				counts.put(outcome, Long.valueOf(counts.get(outcome).longValue() + entry.outcomes.get(outcome.ordinal())));
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * @return the mean duration, in milliseconds, of each wait recorded - keyed by call site, wait and locator.
+	 */
+	public static Map<String, Long> getMeanMillisByWait() {
+		Map<String, Long> means = new TreeMap<>();
+		for (Entry entry : entries.values()) {
+			means.put(entry.callSite + " " + entry.method + " " + entry.locator,
+					Long.valueOf(entry.histogram.getTotalMillis() / Math.max(1, entry.histogram.getCount())));
+		}
+		return means;
+	}
+
+	/**
+	 * Writes the waits ranked by total time and by 99th percentile, and logs the most expensive.
+	 * @param reportFile the file to write
+	 */
+	public static void writeReport(File reportFile) {
+		if (entries.isEmpty()) return;
+		List<Entry> byTotal = new ArrayList<>(entries.values());
+		byTotal.sort(Comparator.comparingLong(Entry::getTotalMillis).reversed());
+		List<Entry> byPercentile = new ArrayList<>(entries.values());
+		byPercentile.sort(Comparator.comparingLong(Entry::getPercentileMillis).reversed());
+
+		log.info("Most expensive waits by total time :");
+		log.info(HEADING);
+		for (int i = 0; i < byTotal.size() && i < LOGGED_ENTRIES; i++) {
+			log.info(byTotal.get(i).format());
+		}
+
+		reportFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(reportFile, "UTF-8")) {
+			out.println("Waits by total time");
+			out.println(HEADING);
+			for (Entry entry : byTotal) out.println(entry.format());
+			out.println();
+			out.println("Waits by p99");
+			out.println(HEADING);
+			for (Entry entry : byPercentile) out.println(entry.format());
+			log.info("Wait latency report written to " + reportFile);
+		}
+		catch (IOException e) {
+			log.warn("Could not write wait latency report to " + reportFile, e);
+		}
+	}
+}
@@ -14,7 +14,7 @@ public class WaitingStopWatch extends AbstractStopWatch {
 	 * @param controller the stop watch controller
 	 */
 	public WaitingStopWatch(StopWatchController controller) {
-		super(controller);
+		super(controller, TimingCategory.WAIT);
 	}
 
 }
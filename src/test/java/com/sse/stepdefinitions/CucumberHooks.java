@@ -11,10 +11,20 @@ import org.apache.logging.log4j.Logger;
 import com.sse.pages.Pages;
 import com.sse.utilities.Browser;
 import com.sse.utilities.DateUtilities;
+import com.sse.utilities.MetricsEndpoint;
+import com.sse.utilities.WaitDeadline;
+import com.sse.utilities.configuration.PropertiesHolder;
 import com.sse.utilities.configuration.TestConfiguration;
+import com.sse.utilities.timers.FlightRecorderEvents.ScenarioEvent;
+import com.sse.utilities.timers.HierarchicalStopWatchController;
+import com.sse.utilities.timers.JvmResourceMonitor;
+import com.sse.utilities.timers.SleepAudit;
+import com.sse.utilities.timers.TimingBaseline;
 
 import io.cucumber.java.After;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeStep;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.Status;
 /**
@@ -25,6 +35,16 @@ import io.cucumber.java.Status;
 public final class CucumberHooks {
 	private static Logger log = LogManager.getLogger(CucumberHooks.class);
 
+	/**
+	 * Default maximum time any single step may spend waiting, if not overridden by
+	 * stepTimeBudgetSeconds in configuration.properties.
+	 */
+	private static final String DEFAULT_STEP_TIME_BUDGET_SECONDS = "600";
+	private WaitDeadline stepDeadline;
+	private int stepNumber;
+	private ScenarioEvent scenarioEvent;
+	private long pagesInitialiseNanos;
+
 	/**
 	 * This method runs before processing every scenario/example.
 	 * @param scenario the current Scenario
@@ -34,7 +54,9 @@ public final class CucumberHooks {
 
 		checkForLock();
 
+		long initialiseStartNanos = System.nanoTime();
 		Pages.initialise(scenario);
+		pagesInitialiseNanos = System.nanoTime() - initialiseStartNanos;
 		log.info("------------------------------------------------------------");
 		log.info("Starting - " +
 				Pages.scenarioData.getScenarioName());
@@ -47,6 +69,14 @@ public final class CucumberHooks {
 		RUN_SUMMARY.info("------------------------------------------------------------");
 		RUN_SUMMARY.info(Pages.scenarioData.getScenarioFeatureTag() + ":" +
 				Pages.scenarioData.getScenarioScenarioTag() + " started");
+		JvmResourceMonitor.startScenario(); // before the timers start, as it may force a GC
+		SleepAudit.startScenario(Pages.scenarioData.getScenarioFeatureTag() + ":" +
+				Pages.scenarioData.getScenarioScenarioTag() + " " + scenario.getName());
+		HierarchicalStopWatchController.beginScenario(Pages.scenarioData.getScenarioFeatureTag(),
+				Pages.scenarioData.getScenarioScenarioTag() + " " + scenario.getName());
+		stepNumber = 0;
+		scenarioEvent = new ScenarioEvent();
+		scenarioEvent.begin();
 	}
 
 	/**
@@ -105,9 +135,67 @@ public final class CucumberHooks {
 		else {
 			RUN_SUMMARY.error(summaryOutput);
 		}
+		SleepAudit.endScenario(Status.PASSED == scenario.getStatus());
+		// Run with eagerPages=true for the "before" figures to compare these with
+		log.info(Pages.getPagesCreated() + " page objects created " + (Pages.isEager() ? "eagerly" : "lazily") + ", taking " +
+				Pages.getConstructionMillis() + " ms - of which " + pagesInitialiseNanos / 1_000_000.0 + " ms in scenario setup");
+		MetricsEndpoint.scenarioFinished(scenario.getStatus().toString());
+		for (String regression : TimingBaseline.recordScenario(HierarchicalStopWatchController.currentNode(),
+				Status.PASSED == scenario.getStatus())) {
+			log.warn("Timing regression : " + regression);
+			scenario.log("Timing regression : " + regression);
+		}
+		HierarchicalStopWatchController.endScenario();
+		JvmResourceMonitor.endScenario(Pages.scenarioData.getScenarioFeatureTag() + ":" +
+				Pages.scenarioData.getScenarioScenarioTag() + " " + scenario.getName());
+		if (scenarioEvent != null) {
+			scenarioEvent.end();
+			if (scenarioEvent.shouldCommit()) {
+				scenarioEvent.feature = Pages.scenarioData.getScenarioFeatureTag();
+				scenarioEvent.scenario = Pages.scenarioData.getScenarioScenarioTag() + " " + scenario.getName();
+				scenarioEvent.status = String.valueOf(scenario.getStatus());
+				scenarioEvent.commit();
+			}
+			scenarioEvent = null;
+		}
 		//RUN_SUMMARY.info("------------------------------------------------------------");
 	}
 
+	/**
+	 * Opens a time budget for the step about to run, which every wait within the step shares.
+	 * @param scenario the current Scenario
+	 */
+	@BeforeStep
+	public void beforeStep(Scenario scenario) {
+		String budgetSeconds = DEFAULT_STEP_TIME_BUDGET_SECONDS;
+		if (PropertiesHolder.configurationProperties != null) {
+			budgetSeconds = PropertiesHolder.configurationProperties.getProperty("stepTimeBudgetSeconds", DEFAULT_STEP_TIME_BUDGET_SECONDS);
+		}
+		WaitDeadline.clear();
+		stepDeadline = WaitDeadline.open("step in " + scenario.getName(), Long.parseLong(budgetSeconds.trim()) * 1000);
+		HierarchicalStopWatchController.beginStep("Step " + (++stepNumber));
+		MetricsEndpoint.stepStarted(scenario.getName(), "Step " + stepNumber);
+	}
+
+	/**
+	 * Closes the step time budget, reporting which wait used it up if it was exceeded.
+	 * @param scenario the current Scenario
+	 */
+	@AfterStep
+	public void afterStep(Scenario scenario) {
+		HierarchicalStopWatchController.endStep();
+		if (stepDeadline == null) return;
+		if (stepDeadline.isExpired()) {
+			String summaryOutput = Pages.scenarioData.getScenarioFeatureTag() + ":" +
+					Pages.scenarioData.getScenarioScenarioTag() +
+					" step time budget exhausted by " + stepDeadline.getMostRecentConsumer();
+			log.warn(summaryOutput);
+			RUN_SUMMARY.warn(summaryOutput);
+		}
+		stepDeadline.close();
+		stepDeadline = null;
+	}
+
 	private String replaceDodgyFilenameCharacters(String fileName) {
 		String newFileName = fileName.replace("/", "_").replace(".", "_").replace(":", "").replace("<", "_").replace(">", "_")
 				.replace("\\", "_").replace("?", "").replace("\"", "").replace("|", "_").replace("*", "");
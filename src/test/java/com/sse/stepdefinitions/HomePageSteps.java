@@ -29,9 +29,9 @@ public final class HomePageSteps {
 	@Given("I login to Salesforce as a {string}")
 	public void iLoginToSalesforceAsA(String role) {
 		log.info("Launching Salesforce website as a " + role);
-		Pages.loginPage.goTo();
-		Pages.loginPage.checkArrivalOnPage();
-		Pages.loginPage.login(role);
+		Pages.loginPage().goTo();
+		Pages.loginPage().checkArrivalOnPage();
+		Pages.loginPage().login(role);
 		
 	}
 
@@ -20,8 +20,8 @@ public final class NavigationPanelSteps {
 	 */
 	@When("I click the waffle grid")
 	public void iClickWaffleGrid() {
-		WaitUtilities.sleep(5);
-		Pages.navigationPanel.clickWaffleGrid();
+		WaitUtilities.waitForPageToSettle();
+		Pages.navigationPanel().clickWaffleGrid();
 	}
 
 	/**
@@ -30,8 +30,8 @@ public final class NavigationPanelSteps {
 	 */
 	@Then("I navigate to the {string} page using waffle grid")
 	public void iNavigateToThePageUsingWaffle(String page) {
-		WaitUtilities.sleep(5);
-		Pages.navigationPanel.clickWaffleAndNavigate(page);
+		WaitUtilities.waitForPageToSettle();
+		Pages.navigationPanel().clickWaffleAndNavigate(page);
 	}
 	/**
 	 * To click on the notification tab and then click on the notification received
@@ -39,7 +39,7 @@ public final class NavigationPanelSteps {
 	@Then("I navigate to notification tab and click on the notification received")
 	public void iNavigateToNotificationsTab()
 	{
-		Pages.navigationPanel.iNavigateToNotifications();
+		Pages.navigationPanel().iNavigateToNotifications();
 	}
 
 	/**
@@ -50,7 +50,7 @@ public final class NavigationPanelSteps {
 	 */
 	@Then("I navigate to the {string} page")
 	public void iNavigateToThePage(String page) {
-		Pages.navigationPanel.clickTab(page);
+		Pages.navigationPanel().clickTab(page);
 	}
 
 	/**
@@ -58,8 +58,8 @@ public final class NavigationPanelSteps {
 	 */
 	@And("I logout")
 	public void iLogout() {
-		Pages.navigationPanel.logout();
-		Pages.loginPage.checkArrivalOnPage();
+		Pages.navigationPanel().logout();
+		Pages.loginPage().checkArrivalOnPage();
 	}
 
 }
@@ -0,0 +1,84 @@
+package com.sse.stepdefinitions;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.sse.pages.NavigationPanel;
+import com.sse.pages.Pages;
+import com.sse.utilities.AssertLogger;
+import com.sse.utilities.Browser;
+import com.sse.utilities.PageLoadTimer;
+
+import io.cucumber.java.en.Then;
+
+/**
+ * Step definitions asserting on how long pages take to load, e.g.
+ * <pre>
+	Then the "Accounts" page loads within 3 seconds
+	Then the "Accounts" page loads within 3 seconds at p95 over 10 loads
+ * </pre>
+ * A page load is timed from clicking its tab until the page has arrived - its title names the tab and its last server
+ * call has finished (see {@link NavigationPanel#timeNavigationToTab(String, String)}).
+ * The outcome of each assertion is written to the run summary, whether or not it passes.
+ * @author atul
+ */
+public final class PerformanceSteps {
+	private static Logger log = LogManager.getLogger(PerformanceSteps.class);
+
+	/**
+	 * Navigates to the page using its navigation tab, and asserts that it loaded within the time allowed.
+	 * @param page the name of the tab to navigate to.
+	 * @param seconds the maximum number of seconds the page may take to load.
+	 */
+	@Then("the {string} page loads within {double} seconds")
+	public void thePageLoadsWithin(String page, double seconds) {
+		if (!checkIsTab(page)) return;
+		String label = page + " page load";
+		leavePage(page);
+		long millis = Pages.navigationPanel().timeNavigationToTab(label, page);
+		AssertLogger.assertWithin(label, millis, toMillis(seconds));
+	}
+
+	/**
+	 * Navigates to the page using its navigation tab the passed number of times (going to another tab in between),
+	 * and asserts that the 95th percentile of the load times is within the time allowed.
+	 * @param page the name of the tab to navigate to.
+	 * @param seconds the maximum number of seconds the 95th percentile load may take.
+	 * @param loads the number of times to load the page.
+	 */
+	@Then("the {string} page loads within {double} seconds at p95 over {int} loads")
+	public void thePageLoadsWithinAtP95(String page, double seconds, int loads) {
+		if (!checkIsTab(page)) return;
+		String label = page + " page load";
+		PageLoadTimer.clear(label);
+		for (int i = 1; i <= loads; i++) {
+			leavePage(page);
+			log.info("Loading " + page + " page : " + i + " of " + loads);
+			Pages.navigationPanel().timeNavigationToTab(label, page);
+		}
+		AssertLogger.assertWithin(label + " p95 over " + loads + " loads", PageLoadTimer.percentile(label, 0.95), toMillis(seconds));
+	}
+
+	private static boolean checkIsTab(String page) {
+		boolean isTab = Pages.navigationPanel().hasTab(page);
+		AssertLogger.assertTrue(page + " is one of the navigation tabs " + Pages.navigationPanel().getTabNames(), isTab);
+		return isTab;
+	}
+
+	/*
+	 * If we are already on the page, clicking its tab would not load it - so, first go to another tab (untimed).
+	 */
+	private static void leavePage(String page) {
+		if (!Browser.driver.getTitle().contains(page)) return;
+		for (String otherPage : Pages.navigationPanel().getTabNames()) {
+			if (!otherPage.equals(page)) {
+				Pages.navigationPanel().navigateToTab(otherPage);
+				return;
+			}
+		}
+	}
+
+	private static long toMillis(double seconds) {
+		return Math.round(seconds * 1000);
+	}
+}
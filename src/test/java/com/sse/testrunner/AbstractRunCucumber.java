@@ -1,22 +1,38 @@
 package com.sse.testrunner;
 
+import java.io.File;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 
+import com.sse.pages.Pages;
+import com.sse.pages.binding.ElementCache;
 import com.sse.sseGeneral.enterprise.ProfileChanger;
 import com.sse.utilities.configuration.ConnectionUtilities;
 import com.sse.utilities.Browser;
 import com.sse.utilities.ExceptionHandler;
+import com.sse.utilities.LocatorChain;
+import com.sse.utilities.LocatorProfiler;
+import com.sse.utilities.MetricsEndpoint;
+import com.sse.utilities.PagePerformance;
+import com.sse.utilities.TimeoutProfile;
 import com.sse.utilities.WaitUtilities;
+import com.sse.utilities.configuration.PropertiesHolder;
 import com.sse.utilities.configuration.TestConfiguration;
-import com.sse.utilities.timers.L2IStopWatchController;
+import com.sse.utilities.timers.HierarchicalStopWatchController;
+import com.sse.utilities.timers.JvmResourceMonitor;
+import com.sse.utilities.timers.SleepAudit;
 import com.sse.utilities.timers.StopWatchController;
+import com.sse.utilities.timers.TimingBaseline;
+import com.sse.utilities.timers.TraceExporter;
+import com.sse.utilities.timers.WaitLatencyRecorder;
 
 /**
  * An abstract superclass of all test runners, used to hold the setup() and after() static methods.
@@ -25,7 +41,10 @@ import com.sse.utilities.timers.StopWatchController;
  */
 public class AbstractRunCucumber {
 	private static Logger log = LogManager.getLogger(AbstractRunCucumber.class);
-	protected static StopWatchController controller = new L2IStopWatchController();
+	private static final String DEFAULT_SLEEP_INCREASE_TOLERANCE_SECONDS = "5";
+	private static final String DEFAULT_JVM_HEAP_GROWTH_WARNING_MEGABYTES = "256";
+	private static final String DEFAULT_JVM_HEAP_JUMP_MEGABYTES = "64";
+	protected static StopWatchController controller = new HierarchicalStopWatchController();
 	
 	/**
 	 * This method runs before any tests are invoked. It sets up the configuration of reports, browsers etc.
@@ -35,6 +54,15 @@ public class AbstractRunCucumber {
 	public static void setup() throws IOException {
 		controller.initialise();
 		TestConfiguration.initialise(true);
+		MetricsEndpoint.start(PropertiesHolder.configurationProperties);
+		Pages.configure(PropertiesHolder.configurationProperties);
+		ElementCache.configure(PropertiesHolder.configurationProperties);
+		LocatorProfiler.configure(PropertiesHolder.configurationProperties);
+		JvmResourceMonitor.setForceGc(Boolean.parseBoolean(
+				PropertiesHolder.configurationProperties.getProperty("jvmResourceForceGc")));
+		if (Boolean.parseBoolean(PropertiesHolder.configurationProperties.getProperty("traceEvents"))) {
+			TraceExporter.open(new File(TestConfiguration.USER_DIR + "/target/run.trace"));
+		}
 	}
 
 	/**
@@ -75,14 +103,92 @@ public class AbstractRunCucumber {
 
 	/**
 	 * This class runs after the completion of the final test. It populates the reports and closes the browser driver.
+	 * <p>Every report is written before the run is failed by any of the checks (timing regressions, sleep increases),
+	 * which fail it once, together, at the end.
 	 */
 	@AfterClass
 	public static void after() {
 		Browser.close();
+		MetricsEndpoint.stop();
 		controller.shutDown();
+		TraceExporter.close();
+		WaitLatencyRecorder.writeReport(new File(TestConfiguration.USER_DIR + "/target/wait-latency.txt"));
+		PagePerformance.writeReport(new File(TestConfiguration.HISTORY_DIRECTORY + "/page-performance"),
+				new File(TestConfiguration.USER_DIR + "/target/page-performance.txt"));
+		String elementCacheSummary = ElementCache.writeReport(new File(TestConfiguration.USER_DIR + "/target/element-cache.txt"));
+		if (elementCacheSummary != null) ExceptionHandler.RUN_SUMMARY.info(elementCacheSummary);
+		String locatorProfileSummary = LocatorProfiler.writeReport(new File(TestConfiguration.USER_DIR + "/target/locator-profile.txt"));
+		if (locatorProfileSummary != null) ExceptionHandler.RUN_SUMMARY.info(locatorProfileSummary);
+		TimeoutProfile.save();
+		LocatorChain.save();
 		ProfileChanger.setSSO(true);
 		ConnectionUtilities.logoutAllUsers();
 		if (ExceptionHandler.displaySplash) ExceptionHandler.splash("COMPLETED", null);
+		checkJvmResources();
+		List<String> failures = new ArrayList<>();
+		checkTimingRegressions(failures);
+		checkSleepIncrease(failures);
+		if (!failures.isEmpty()) org.junit.Assert.fail(String.join("; ", failures));
+	}
+
+	/**
+	 * Writes the per-scenario JVM resource samples (see JvmResourceMonitor), reporting in the run summary any steady
+	 * growth of the heap or live threads over the run, and the scenarios in which they jumped.
+	 */
+	private static void checkJvmResources() {
+		// Without the configuration (i.e. it could not be read), the samples are written but nothing is reported
+		long growthBytes = Long.MAX_VALUE;
+		long jumpBytes = Long.MAX_VALUE;
+		if (PropertiesHolder.configurationProperties != null) {
+			growthBytes = Long.parseLong(PropertiesHolder.configurationProperties.getProperty("jvmHeapGrowthWarningMegabytes",
+					DEFAULT_JVM_HEAP_GROWTH_WARNING_MEGABYTES).trim()) * 1024 * 1024;
+			jumpBytes = Long.parseLong(PropertiesHolder.configurationProperties.getProperty("jvmHeapJumpMegabytes",
+					DEFAULT_JVM_HEAP_JUMP_MEGABYTES).trim()) * 1024 * 1024;
+		}
+		for (String finding : JvmResourceMonitor.writeReport(new File(TestConfiguration.USER_DIR + "/target/jvm-resources.txt"),
+				growthBytes, jumpBytes)) {
+			ExceptionHandler.RUN_SUMMARY.warn("JVM resources : " + finding);
+		}
+	}
+
+	/**
+	 * Compares this run's scenario, step and wait timings with the last green runs (see TimingBaseline), reporting
+	 * any regressions in the run summary - and, if failOnTimingRegression is true, adding them to the failures.
+	 * @param failures the reasons to fail the run
+	 */
+	private static void checkTimingRegressions(List<String> failures) {
+		List<String> regressions = TimingBaseline.finishRun(new File(TestConfiguration.USER_DIR + "/target/timing-regressions.txt"));
+		for (String regression : regressions) {
+			ExceptionHandler.RUN_SUMMARY.warn("Timing regression : " + regression);
+		}
+		if (!regressions.isEmpty() && PropertiesHolder.configurationProperties != null &&
+				Boolean.parseBoolean(PropertiesHolder.configurationProperties.getProperty("failOnTimingRegression"))) {
+			failures.add(regressions.size() + " timing regression(s) - see target/timing-regressions.txt");
+		}
+	}
+
+	/**
+	 * Writes the sleep audit and compares each scenario's unconditional sleep with the previous run's.
+	 * <p>Scenarios whose sleep grew by more than sleepIncreaseToleranceSeconds are reported in the run summary - and,
+	 * if failOnSleepIncrease is true, added to the failures.
+	 * @param failures the reasons to fail the run
+	 */
+	private static void checkSleepIncrease(List<String> failures) {
+		SleepAudit.writeReport(new File(TestConfiguration.USER_DIR + "/target/sleep-audit.txt"));
+		log.info("Unconditional sleep time : " + SleepAudit.getTotalSleepMillis()/1000.0 + " seconds");
+		if (PropertiesHolder.configurationProperties == null || PropertiesHolder.environmentProperties == null) return;
+
+		long toleranceSeconds = Long.parseLong(PropertiesHolder.configurationProperties.getProperty("sleepIncreaseToleranceSeconds",
+				DEFAULT_SLEEP_INCREASE_TOLERANCE_SECONDS).trim());
+		List<String> increases = SleepAudit.compareWithPreviousRun(new File(TestConfiguration.HISTORY_DIRECTORY + "/sleep-totals/" +
+				PropertiesHolder.environmentProperties.getProperty("environment") + ".properties"), toleranceSeconds * 1000);
+		for (String scenario : increases) {
+			ExceptionHandler.RUN_SUMMARY.error("Sleep increased : " + scenario);
+		}
+		if (!increases.isEmpty() &&
+				Boolean.parseBoolean(PropertiesHolder.configurationProperties.getProperty("failOnSleepIncrease"))) {
+			failures.add(increases.size() + " scenario(s) slept longer than in the previous run - see target/sleep-audit.txt");
+		}
 	}
 
 	void dummy() {} //to bypass PMD warning about utility classes etc....
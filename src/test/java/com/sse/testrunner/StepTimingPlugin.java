@@ -0,0 +1,127 @@
+package com.sse.testrunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.sse.utilities.ExceptionHandler;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * A Cucumber plugin recording how long each step definition takes across the whole run, and writing
+ * a leaderboard of the step definitions which took the most time in total - i.e. the ones whose
+ * optimisation would most shorten the suite.
+ * <p>Only steps which passed or failed are counted; skipped, pending and undefined steps take no time.
+ * The ten most expensive are also written to the run summary. Register in the runner's plugins as :
+ * <pre>
+	"com.sse.testrunner.StepTimingPlugin:target/step-timings.txt"
+ * </pre>
+ * @author atul
+ *
+ */
+public final class StepTimingPlugin implements ConcurrentEventListener {
+	private static Logger log = LogManager.getLogger(StepTimingPlugin.class);
+
+	private static final int SUMMARY_ENTRIES = 10;
+	private static final String HEADING = String.format("%10s %6s %9s %9s %9s %9s  %s",
+			"total s", "count", "mean ms", "p50 ms", "p95 ms", "max ms", "step definition");
+
+	private final File leaderboardFile;
+	// Step definition pattern -> durations in milliseconds
+	private final Map<String, List<Long>> durations = new LinkedHashMap<>();
+
+	/**
+	 * Writes the leaderboard to target/step-timings.txt.
+	 */
+	public StepTimingPlugin() {
+		this(new File("target/step-timings.txt"));
+	}
+
+	/**
+	 * @param leaderboardFile the file to write the leaderboard to
+	 */
+	public StepTimingPlugin(File leaderboardFile) {
+		this.leaderboardFile = leaderboardFile;
+	}
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+		publisher.registerHandlerFor(TestRunFinished.class, event -> writeLeaderboard());
+	}
+
+	private void stepFinished(TestStepFinished event) {
+		if (!(event.getTestStep() instanceof PickleStepTestStep)) return; // i.e. a hook
+		Status status = event.getResult().getStatus();
+		if (status != Status.PASSED && status != Status.FAILED) return;
+
+		PickleStepTestStep step = (PickleStepTestStep)event.getTestStep();
+		String key = step.getPattern() + "  (" + step.getCodeLocation() + ")";
+		synchronized (durations) {
+			List<Long> stepDurations = durations.get(key);
+			if (stepDurations == null) {
+				stepDurations = new ArrayList<>();
+				durations.put(key, stepDurations);
+			}
+			stepDurations.add(Long.valueOf(event.getResult().getDuration().toMillis()));
+		}
+	}
+
+	private void writeLeaderboard() {
+		// Total millis -> leaderboard line
+		List<Map.Entry<Long, String>> ranked = new ArrayList<>();
+		synchronized (durations) {
+			for (Map.Entry<String, List<Long>> entry : durations.entrySet()) {
+				List<Long> sorted = new ArrayList<>(entry.getValue());
+				Collections.sort(sorted);
+				long total = 0;
+				for (Long millis : sorted) total += millis.longValue();
+				ranked.add(new AbstractMap.SimpleEntry<>(Long.valueOf(total), String.format("%10.1f %6d %9d %9d %9d %9d  %s",
+						total / 1000.0, sorted.size(), total / sorted.size(), percentile(sorted, 0.5),
+						percentile(sorted, 0.95), sorted.get(sorted.size() - 1), entry.getKey())));
+			}
+		}
+		if (ranked.isEmpty()) return;
+		ranked.sort((a, b) -> b.getKey().compareTo(a.getKey()));
+
+		ExceptionHandler.RUN_SUMMARY.info("Step definitions taking the most time :");
+		ExceptionHandler.RUN_SUMMARY.info(HEADING);
+		for (int i = 0; i < ranked.size() && i < SUMMARY_ENTRIES; i++) {
+			ExceptionHandler.RUN_SUMMARY.info(ranked.get(i).getValue());
+		}
+
+		if (leaderboardFile.getParentFile() != null) leaderboardFile.getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(leaderboardFile, "UTF-8")) {
+			out.println("Step definitions by total time");
+			out.println(HEADING);
+			for (Map.Entry<Long, String> line : ranked) out.println(line.getValue());
+			log.info("Step timing leaderboard written to " + leaderboardFile);
+		}
+		catch (IOException e) {
+			log.warn("Could not write step timing leaderboard to " + leaderboardFile, e);
+		}
+	}
+
+	/*
+	 * Nearest-rank percentile of sorted durations.
+	 */
+	private static long percentile(List<Long> sorted, double percentile) {
+		int rank = (int)Math.ceil(percentile * sorted.size());
+		return sorted.get(Math.max(0, rank - 1)).longValue();
+	}
+}
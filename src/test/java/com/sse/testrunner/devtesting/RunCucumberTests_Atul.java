@@ -30,7 +30,8 @@ import io.cucumber.junit.CucumberOptions.SnippetType;
 					"json:target/cucumber.json", 
 					"html:target/cucumber.html",
 					"junit:target/cucumber.xml",
-					"com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:"
+					"com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:",
+					"com.sse.testrunner.StepTimingPlugin:target/step-timings.txt"
 				},
 		snippets = SnippetType.CAMELCASE,
 